@@ -0,0 +1,78 @@
+package nl.ikea.warehouse.benchmarks;
+
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.listeners.CascadeSaveMongoEventListener;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cascade save of a legacy product referencing its articles: cascaded property lookup, property
+ * access and conversion of every child into an upsert. The database is stubbed out, so only the
+ * listener's own cost is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CascadeSaveBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int articles;
+
+    private final CascadeSaveMongoEventListener listener = new CascadeSaveMongoEventListener();
+    private BeforeConvertEvent<Object> event;
+
+    @Setup
+    public void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        MappingMongoConverter converter =
+                new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+        BulkOperations bulkOperations = Mockito.mock(BulkOperations.class, Mockito.RETURNS_SELF);
+        MongoOperations mongoOperations = Mockito.mock(MongoOperations.class);
+        Mockito.when(mongoOperations.getConverter()).thenReturn(converter);
+        Mockito.when(mongoOperations.bulkOps(Mockito.any(), Mockito.<Class<?>>any()))
+                .thenReturn(bulkOperations);
+        ReflectionTestUtils.setField(this.listener, "mongoOperations", mongoOperations);
+
+        List<ArticleEntity> references = new ArrayList<>(this.articles);
+        for (long id = 1; id <= this.articles; id++) {
+            references.add(new ArticleEntity(id, "article " + id, id, 1L));
+        }
+        ProductEntity product = new ProductEntity();
+        product.setProductId(1L);
+        product.setName("product");
+        product.setArticles(references);
+        this.event = new BeforeConvertEvent<>(product, "productEntity");
+    }
+
+    @Benchmark
+    public BeforeConvertEvent<Object> cascade() {
+        this.listener.onBeforeConvert(this.event);
+        return this.event;
+    }
+}
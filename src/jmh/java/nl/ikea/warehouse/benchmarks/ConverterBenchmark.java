@@ -0,0 +1,85 @@
+package nl.ikea.warehouse.benchmarks;
+
+import nl.ikea.warehouse.converters.impl.ArticleAmountConverter;
+import nl.ikea.warehouse.converters.impl.ArticleConverter;
+import nl.ikea.warehouse.converters.impl.InventoryConverter;
+import nl.ikea.warehouse.converters.impl.ProductConverter;
+import nl.ikea.warehouse.entities.ArticleAmountEntity;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.views.impl.ArticleView;
+import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to view conversion of whole listings, {@code IDataConverter.from(List)}, for every
+ * converter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private static final int ARTICLES_PER_PRODUCT = 4;
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final ArticleConverter articleConverter = new ArticleConverter();
+    private final InventoryConverter inventoryConverter = new InventoryConverter();
+    private final ProductConverter productConverter =
+            new ProductConverter(this.articleConverter, new ArticleAmountConverter());
+    private List<ArticleEntity> articles;
+    private List<ProductEntity> products;
+
+    @Setup
+    public void setUp() {
+        this.articles = new ArrayList<>(this.size);
+        this.products = new ArrayList<>(this.size);
+        for (long id = 1; id <= this.size; id++) {
+            this.articles.add(new ArticleEntity(id, "article " + id, id % 50, id));
+            ProductEntity product = new ProductEntity();
+            product.setProductId(id);
+            product.setName("product " + id);
+            List<ArticleAmountEntity> billOfMaterials = new ArrayList<>(ARTICLES_PER_PRODUCT);
+            for (long entry = 0; entry < ARTICLES_PER_PRODUCT; entry++) {
+                billOfMaterials.add(new ArticleAmountEntity((id + entry) % this.size + 1, entry + 1));
+            }
+            product.setBillOfMaterials(billOfMaterials);
+            this.products.add(product);
+        }
+    }
+
+    @Benchmark
+    public List<ArticleView> articles() {
+        return this.articleConverter.from(this.articles);
+    }
+
+    @Benchmark
+    public List<InventoryView> inventory() {
+        return this.inventoryConverter.from(this.articles);
+    }
+
+    @Benchmark
+    public List<ProductView> products() {
+        return this.productConverter.from(this.products);
+    }
+}
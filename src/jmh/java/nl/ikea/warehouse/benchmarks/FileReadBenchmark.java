@@ -0,0 +1,159 @@
+package nl.ikea.warehouse.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.ikea.warehouse.generators.CatalogGenerator;
+import nl.ikea.warehouse.utils.FileReadUtils;
+import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload parsing of {@link CatalogGenerator} inventory and product documents, list binding through
+ * {@link FileReadUtils#read} against element by element binding through {@link FileReadUtils#stream}.
+ * The largest documents only fit list binding with a large heap, e.g. {@code -Djmh.args="-jvmArgs
+ * -Xmx8g"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class FileReadBenchmark {
+
+    private static final int ARTICLES_PER_PRODUCT = 4;
+
+    @Param({"10000", "100000", "1000000", "10000000"})
+    private int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Path inventory;
+    private Path products;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        CatalogGenerator generator = CatalogGenerator.builder()
+                .articles(this.rows)
+                .products(this.rows)
+                .bomMin(ARTICLES_PER_PRODUCT)
+                .bomMean(ARTICLES_PER_PRODUCT)
+                .bomMax(ARTICLES_PER_PRODUCT)
+                .build();
+        this.inventory = Files.createTempFile("inventory", ".json");
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(this.inventory))) {
+            generator.writeInventory(outputStream);
+        }
+        this.products = Files.createTempFile("products", ".json");
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(this.products))) {
+            generator.writeProducts(outputStream);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.inventory);
+        Files.deleteIfExists(this.products);
+    }
+
+    @Benchmark
+    public void readInventory(Blackhole blackhole) {
+        FileReadUtils.read(
+                this.objectMapper, new PathMultipartFile(this.inventory), InventoryView.class, blackhole::consume);
+    }
+
+    @Benchmark
+    public long streamInventory(Blackhole blackhole) {
+        return FileReadUtils.stream(
+                this.objectMapper, new PathMultipartFile(this.inventory), InventoryView.class, blackhole::consume);
+    }
+
+    @Benchmark
+    public void readProducts(Blackhole blackhole) {
+        FileReadUtils.read(
+                this.objectMapper, new PathMultipartFile(this.products), ProductView.class, blackhole::consume);
+    }
+
+    @Benchmark
+    public long streamProducts(Blackhole blackhole) {
+        return FileReadUtils.stream(
+                this.objectMapper, new PathMultipartFile(this.products), ProductView.class, blackhole::consume);
+    }
+
+    /**
+     * {@link MultipartFile} reading a file on disk, so documents are never held in memory by the
+     * benchmark itself.
+     */
+    private static final class PathMultipartFile implements MultipartFile {
+
+        private final Path path;
+
+        private PathMultipartFile(Path path) {
+            this.path = path;
+        }
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return this.path.getFileName().toString();
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/json";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return this.path.toFile().length();
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(this.path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new BufferedInputStream(Files.newInputStream(this.path));
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(this.path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package nl.ikea.warehouse.benchmarks;
+
+import nl.ikea.warehouse.controllers.IProductController;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HATEOAS self link generation of a product listing,
+ * {@link IProductController#addHyperlinkToCollectionElements(List)}. Links are built against a
+ * mock request bound to the benchmark thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HyperlinkBenchmark {
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private final IProductController controller =
+            Mockito.mock(IProductController.class, Mockito.CALLS_REAL_METHODS);
+
+    @Setup(Level.Trial)
+    public void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<ProductView> links() {
+        // Fresh views every invocation, links accumulate on a view.
+        List<ProductView> views = new ArrayList<>(this.size);
+        for (long id = 1; id <= this.size; id++) {
+            views.add(ProductView.builder()
+                    .productId(id)
+                    .name("product " + id)
+                    .articles(Collections.emptyList())
+                    .build());
+        }
+        return this.controller.addHyperlinkToCollectionElements(views);
+    }
+}
@@ -0,0 +1,351 @@
+package nl.ikea.warehouse.availability;
+
+import nl.ikea.warehouse.utils.LongLongHashMap;
+
+import java.util.Arrays;
+
+/**
+ * In memory availability model. Article stock lives in a {@link LongLongHashMap} while product
+ * bills of materials are flattened into parallel primitive arrays, product {@code i} owning the
+ * entries between {@code bomOffsets[i]} and {@code bomOffsets[i + 1]}. The amount of product
+ * {@code i} that can be built is {@code min(stock / amount)} over its entries and is kept in
+ * {@code available[i]}. A reverse index, laid out the same way, lists the products using every
+ * article, so a stock change only recomputes that article's products. Every article stock carries
+ * the version of the write that produced it, so stock updates reaching the index out of order do
+ * not overwrite newer ones. Not thread safe, guarded by the owning service.
+ */
+public class AvailabilityIndex {
+
+    private final long[] productIds;
+    private final long[] sortedProductIds;
+    private final String[] names;
+    private final int[] bomOffsets;
+    private final long[] bomArticleIds;
+    private final long[] bomAmounts;
+    private final long[] available;
+    private final LongLongHashMap productIndexes;
+    private final LongLongHashMap stock;
+    private final LongLongHashMap versions;
+    private final LongLongHashMap articleIndexes;
+    private final int[] usageOffsets;
+    private final int[] usages;
+
+    private AvailabilityIndex(Builder builder) {
+        int products = builder.products;
+        this.productIds = Arrays.copyOf(builder.productIds, products);
+        this.sortedProductIds = Arrays.copyOf(this.productIds, products);
+        Arrays.sort(this.sortedProductIds);
+        this.names = Arrays.copyOf(builder.names, products);
+        this.bomOffsets = Arrays.copyOf(builder.bomOffsets, products + 1);
+        this.bomArticleIds = Arrays.copyOf(builder.bomArticleIds, builder.entries);
+        this.bomAmounts = Arrays.copyOf(builder.bomAmounts, builder.entries);
+        this.available = new long[products];
+        this.productIndexes = new LongLongHashMap(products);
+        this.stock = builder.stock;
+        this.versions = builder.versions;
+        for (int index = 0; index < products; index++) {
+            this.productIndexes.put(this.productIds[index], index);
+            this.available[index] = compute(index);
+        }
+        // Reverse index: count usages per distinct article, then fill product positions per article.
+        this.articleIndexes = new LongLongHashMap(products);
+        int[] counts = new int[16];
+        int articles = 0;
+        for (int entry = 0; entry < builder.entries; entry++) {
+            long articleIndex = this.articleIndexes.get(this.bomArticleIds[entry], -1);
+            if (articleIndex < 0) {
+                articleIndex = articles++;
+                this.articleIndexes.put(this.bomArticleIds[entry], articleIndex);
+                if (articleIndex == counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length << 1);
+                }
+            }
+            counts[(int) articleIndex]++;
+        }
+        this.usageOffsets = new int[articles + 1];
+        for (int article = 0; article < articles; article++) {
+            this.usageOffsets[article + 1] = this.usageOffsets[article] + counts[article];
+        }
+        this.usages = new int[builder.entries];
+        int[] cursors = Arrays.copyOf(this.usageOffsets, articles);
+        for (int index = 0; index < products; index++) {
+            for (int entry = this.bomOffsets[index]; entry < this.bomOffsets[index + 1]; entry++) {
+                int article = (int) this.articleIndexes.get(this.bomArticleIds[entry], -1);
+                this.usages[cursors[article]++] = index;
+            }
+        }
+    }
+
+    /**
+     * Create {@link Builder}.
+     *
+     * @return {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get number of indexed products.
+     *
+     * @return number of products
+     */
+    public int size() {
+        return this.productIds.length;
+    }
+
+    /**
+     * Get position of the product within the index.
+     *
+     * @param productId product unique identifier
+     * @return position or -1 if the product is not indexed
+     */
+    public int indexOf(long productId) {
+        return (int) this.productIndexes.get(productId, -1);
+    }
+
+    /**
+     * Get unique identifiers of products of which more units than given can be built, following a
+     * unique identifier in ascending order, so callers can page through them.
+     *
+     * @param quantity units the availability must exceed
+     * @param after    unique identifier the products must follow
+     * @param limit    maximum number of unique identifiers
+     * @return product unique identifiers, in ascending order
+     */
+    public long[] getProductIds(long quantity, long after, int limit) {
+        int from = Arrays.binarySearch(this.sortedProductIds, after);
+        from = from < 0 ? -from - 1 : from + 1;
+        long[] matching = new long[Math.min(limit, this.sortedProductIds.length - from)];
+        int found = 0;
+        for (int sorted = from; sorted < this.sortedProductIds.length && found < matching.length; sorted++) {
+            long productId = this.sortedProductIds[sorted];
+            if (this.available[indexOf(productId)] > quantity) {
+                matching[found++] = productId;
+            }
+        }
+        return Arrays.copyOf(matching, found);
+    }
+
+    /**
+     * Get product unique identifier at position.
+     *
+     * @param index position
+     * @return product unique identifier
+     */
+    public long getProductId(int index) {
+        return this.productIds[index];
+    }
+
+    /**
+     * Get product name at position.
+     *
+     * @param index position
+     * @return product name
+     */
+    public String getName(int index) {
+        return this.names[index];
+    }
+
+    /**
+     * Get amount of product at position that can be built from current stock.
+     *
+     * @param index position
+     * @return sellable quantity
+     */
+    public long getAvailable(int index) {
+        return this.available[index];
+    }
+
+    /**
+     * Get bill of materials article identifiers of product at position.
+     *
+     * @param index position
+     * @return copy of article unique identifiers
+     */
+    public long[] getArticleIds(int index) {
+        return Arrays.copyOfRange(this.bomArticleIds, this.bomOffsets[index], this.bomOffsets[index + 1]);
+    }
+
+    /**
+     * Get bill of materials amounts of product at position.
+     *
+     * @param index position
+     * @return copy of required amounts, aligned with {@link #getArticleIds(int)}
+     */
+    public long[] getAmounts(int index) {
+        return Arrays.copyOfRange(this.bomAmounts, this.bomOffsets[index], this.bomOffsets[index + 1]);
+    }
+
+    /**
+     * Get current stock of an article.
+     *
+     * @param articleId article unique identifier
+     * @return stock, 0 for unknown articles
+     */
+    public long getStock(long articleId) {
+        return this.stock.get(articleId, 0);
+    }
+
+    /**
+     * Set stock of an article produced by a versioned write, unless a write of the same or a newer
+     * version has been applied already.
+     *
+     * @param articleId article unique identifier
+     * @param amount    new stock
+     * @param version   version of the write
+     * @return positions of products whose availability changed, empty when the write is outdated
+     */
+    public int[] updateStock(long articleId, long amount, long version) {
+        if (version <= this.versions.get(articleId, -1)) {
+            return new int[0];
+        }
+        this.versions.put(articleId, version);
+        return updateStock(articleId, amount);
+    }
+
+    /**
+     * Set stock of an article, regardless of versions, and recompute only the products using it.
+     *
+     * @param articleId article unique identifier
+     * @param amount    new stock
+     * @return positions of products whose availability changed
+     */
+    public int[] updateStock(long articleId, long amount) {
+        this.stock.put(articleId, amount);
+        int article = (int) this.articleIndexes.get(articleId, -1);
+        if (article < 0) {
+            return new int[0];
+        }
+        int[] changed = new int[this.usageOffsets[article + 1] - this.usageOffsets[article]];
+        int count = 0;
+        for (int usage = this.usageOffsets[article]; usage < this.usageOffsets[article + 1]; usage++) {
+            int index = this.usages[usage];
+            long quantity = compute(index);
+            if (quantity != this.available[index]) {
+                this.available[index] = quantity;
+                changed[count++] = index;
+            }
+        }
+        return count == changed.length ? changed : Arrays.copyOf(changed, count);
+    }
+
+    /**
+     * Get amount of a bill of materials that can be built from current stock, whether its product is
+     * indexed or not.
+     *
+     * @param articleIds article unique identifiers
+     * @param amounts    required amount per article, aligned with article identifiers
+     * @return sellable quantity
+     */
+    public long getAvailable(long[] articleIds, long[] amounts) {
+        if (articleIds.length != amounts.length) {
+            throw new IllegalArgumentException("Article identifiers and amounts are not aligned.");
+        }
+        return compute(articleIds, amounts, 0, articleIds.length);
+    }
+
+    private long compute(int index) {
+        return compute(this.bomArticleIds, this.bomAmounts, this.bomOffsets[index], this.bomOffsets[index + 1]);
+    }
+
+    private long compute(long[] articleIds, long[] amounts, int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        long quantity = Long.MAX_VALUE;
+        for (int entry = from; entry < to && quantity > 0; entry++) {
+            long amount = amounts[entry];
+            if (amount > 0) {
+                quantity = Math.min(quantity, Math.max(0, this.stock.get(articleIds[entry], 0)) / amount);
+            }
+        }
+        return quantity == Long.MAX_VALUE ? 0 : quantity;
+    }
+
+    /**
+     * {@link AvailabilityIndex} builder, accumulating products and stock into growable arrays.
+     */
+    public static class Builder {
+
+        private long[] productIds = new long[16];
+        private String[] names = new String[16];
+        private int[] bomOffsets = new int[17];
+        private long[] bomArticleIds = new long[64];
+        private long[] bomAmounts = new long[64];
+        private final LongLongHashMap stock = new LongLongHashMap();
+        private final LongLongHashMap versions = new LongLongHashMap();
+        private int products;
+        private int entries;
+
+        private Builder() {
+        }
+
+        /**
+         * Add product and its bill of materials.
+         *
+         * @param productId  product unique identifier
+         * @param name       product name
+         * @param articleIds article unique identifiers
+         * @param amounts    required amount per article, aligned with article identifiers
+         * @return {@link Builder}
+         */
+        public Builder product(long productId, String name, long[] articleIds, long[] amounts) {
+            if (articleIds.length != amounts.length) {
+                throw new IllegalArgumentException("Article identifiers and amounts are not aligned.");
+            }
+            if (this.products == this.productIds.length) {
+                this.productIds = Arrays.copyOf(this.productIds, this.products << 1);
+                this.names = Arrays.copyOf(this.names, this.products << 1);
+                this.bomOffsets = Arrays.copyOf(this.bomOffsets, (this.products << 1) + 1);
+            }
+            int required = this.entries + articleIds.length;
+            if (required > this.bomArticleIds.length) {
+                int capacity = Math.max(required, this.bomArticleIds.length << 1);
+                this.bomArticleIds = Arrays.copyOf(this.bomArticleIds, capacity);
+                this.bomAmounts = Arrays.copyOf(this.bomAmounts, capacity);
+            }
+            System.arraycopy(articleIds, 0, this.bomArticleIds, this.entries, articleIds.length);
+            System.arraycopy(amounts, 0, this.bomAmounts, this.entries, amounts.length);
+            this.entries = required;
+            this.productIds[this.products] = productId;
+            this.names[this.products] = name;
+            this.bomOffsets[++this.products] = this.entries;
+            return this;
+        }
+
+        /**
+         * Set article stock.
+         *
+         * @param articleId article unique identifier
+         * @param amount    stock
+         * @return {@link Builder}
+         */
+        public Builder stock(long articleId, long amount) {
+            return stock(articleId, amount, 0);
+        }
+
+        /**
+         * Set article stock as of a stock version.
+         *
+         * @param articleId article unique identifier
+         * @param amount    stock
+         * @param version   version of the last write of the stock
+         * @return {@link Builder}
+         */
+        public Builder stock(long articleId, long amount, long version) {
+            this.stock.put(articleId, amount);
+            this.versions.put(articleId, version);
+            return this;
+        }
+
+        /**
+         * Build {@link AvailabilityIndex}, computing availability of every product.
+         *
+         * @return {@link AvailabilityIndex}
+         */
+        public AvailabilityIndex build() {
+            return new AvailabilityIndex(this);
+        }
+    }
+}
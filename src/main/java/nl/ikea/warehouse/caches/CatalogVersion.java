@@ -0,0 +1,24 @@
+package nl.ikea.warehouse.caches;
+
+import nl.ikea.warehouse.events.CatalogChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version of the product catalog, bumped on every {@link CatalogChangedEvent}. Anything derived
+ * from the catalog and keyed by the version it was derived at is outdated once the version moves
+ * on.
+ */
+@Component
+public class CatalogVersion extends VersionCounter {
+
+    /**
+     * Bump version once the catalog changed.
+     *
+     * @param event {@link CatalogChangedEvent}
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        increment();
+    }
+}
@@ -0,0 +1,34 @@
+package nl.ikea.warehouse.caches;
+
+import nl.ikea.warehouse.events.CatalogChangedEvent;
+import nl.ikea.warehouse.events.InventoryChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version of the inventory, bumped on every {@link InventoryChangedEvent} and on every {@link
+ * CatalogChangedEvent}, the latter as product writes may cascade to the articles they reference.
+ */
+@Component
+public class InventoryVersion extends VersionCounter {
+
+    /**
+     * Bump version once the inventory changed.
+     *
+     * @param event {@link InventoryChangedEvent}
+     */
+    @EventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        increment();
+    }
+
+    /**
+     * Bump version once the catalog changed.
+     *
+     * @param event {@link CatalogChangedEvent}
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        increment();
+    }
+}
@@ -0,0 +1,133 @@
+package nl.ikea.warehouse.caches;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import nl.ikea.warehouse.exceptions.ServiceException;
+import nl.ikea.warehouse.utils.KeysetPage;
+import nl.ikea.warehouse.views.RenderGroupView;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of product listing pages as fully encoded response bodies, per representation. Pages are
+ * identified by the caller, along with the versions of the data they are read from, such as the
+ * {@link CatalogVersion}. Serving a page from the cache writes the stored bytes instead of
+ * serializing every {@link ProductView} again. Pages of an outdated version are never requested
+ * again and age out, the cache being bounded by the total size of the stored bodies. Hit, miss and
+ * eviction counts are published as {@code cache.*} metrics tagged {@code cache=product-pages}.
+ */
+@Component
+public class ProductPageCache {
+
+    private static final String CACHE_NAME = "product-pages";
+
+    /**
+     * Encodings of a page body.
+     */
+    public enum Representation {
+        JSON, GZIP
+    }
+
+    private final Cache<List<Object>, EncodedPage> cache;
+    private final ObjectWriter objectWriter;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param objectMapper  {@link ObjectMapper}
+     * @param meterRegistry {@link MeterRegistry}
+     * @param maximumBytes  maximum total size of cached bodies
+     */
+    @Autowired
+    public ProductPageCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${warehouse.cache.product-pages.maximum-bytes:67108864}") long maximumBytes) {
+        // Restricted view, keeping the hyperlinks of ResourceSupport, which belong to no view.
+        this.objectWriter = objectMapper.copy()
+                .enable(MapperFeature.DEFAULT_VIEW_INCLUSION)
+                .writerWithView(RenderGroupView.Restricted.class);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumBytes)
+                .<List<Object>, EncodedPage>weigher((key, page) -> page.getBody().length)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+    }
+
+    /**
+     * Get encoded page, loading and encoding it when absent. Concurrent loads of the same page wait
+     * for a single one. The page must be identified by versions read before loading, so a page
+     * loaded while data changes is stored under the outdated version.
+     *
+     * @param page           {@link List} identifying the page, including the base URI its
+     *                       hyperlinks are built against and the versions it is read at
+     * @param representation {@link Representation} of the body
+     * @param loader         {@link Supplier} of the page
+     * @return {@link EncodedPage}
+     */
+    public EncodedPage get(
+            List<?> page, Representation representation, Supplier<KeysetPage<ProductView>> loader) {
+        try {
+            if (representation == Representation.GZIP) {
+                return this.cache.get(key(page, representation),
+                        () -> gzip(this.cache.get(key(page, Representation.JSON), () -> encode(loader.get()))));
+            }
+            return this.cache.get(key(page, representation), () -> encode(loader.get()));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ServiceException("MSG_IKEA_500", e.getCause());
+        }
+    }
+
+    private static List<Object> key(List<?> page, Representation representation) {
+        List<Object> key = new ArrayList<>(page.size() + 1);
+        key.addAll(page);
+        key.add(representation);
+        return key;
+    }
+
+    private EncodedPage encode(KeysetPage<ProductView> products) throws JsonProcessingException {
+        return new EncodedPage(this.objectWriter.writeValueAsBytes(products.getItems()), products.getNext());
+    }
+
+    private static EncodedPage gzip(EncodedPage page) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, page.getBody().length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(page.getBody());
+        }
+        return new EncodedPage(bytes.toByteArray(), page.getNext());
+    }
+
+    /**
+     * Encoded page body along with what the response headers need to know about the page.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class EncodedPage {
+
+        private final byte[] body;
+        private final Long next;
+    }
+}
@@ -0,0 +1,99 @@
+package nl.ikea.warehouse.caches;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import nl.ikea.warehouse.events.CatalogChangedEvent;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read through cache of {@link ProductView} by product unique identifier, bounded in size and time
+ * to live. The whole cache is dropped on {@link CatalogChangedEvent}. A load racing with such an
+ * invalidation is not cached, as it may have read the catalog before the change. Hit, miss and
+ * eviction counts are published as {@code cache.*} metrics tagged {@code cache=products}.
+ * Cached views are shared between callers, which must not modify them.
+ */
+@Component
+public class ProductViewCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProductViewCache.class);
+    private static final String CACHE_NAME = "products";
+
+    private final Cache<Long, ProductView> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param meterRegistry           {@link MeterRegistry}
+     * @param maximumSize             maximum number of cached products
+     * @param expireAfterWriteSeconds seconds a product stays cached
+     */
+    @Autowired
+    public ProductViewCache(
+            MeterRegistry meterRegistry,
+            @Value("${warehouse.cache.products.maximum-size:10000}") long maximumSize,
+            @Value("${warehouse.cache.products.expire-after-write-seconds:600}") long expireAfterWriteSeconds) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        GuavaCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+    }
+
+    /**
+     * Get cached product, loading and caching it when absent. Absent products are not cached.
+     *
+     * @param productId {@link Long} product unique identifier
+     * @param loader    {@link Function} reading the product from the database
+     * @return {@link Optional} of {@link ProductView}
+     */
+    public Optional<ProductView> get(Long productId, Function<Long, Optional<ProductView>> loader) {
+        ProductView cached = this.cache.getIfPresent(productId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadedGeneration = this.generation.get();
+        Optional<ProductView> loaded = loader.apply(productId);
+        loaded.ifPresent(productView -> {
+            this.cache.put(productId, productView);
+            if (this.generation.get() != loadedGeneration) {
+                // Invalidated while loading, the loaded view may predate the change.
+                this.cache.invalidate(productId);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Drop every cached product.
+     */
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Drop every cached product once the catalog changed.
+     *
+     * @param event {@link CatalogChangedEvent}
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        LOGGER.info("Catalog changed, dropping {} cached products.", this.cache.size());
+        invalidateAll();
+    }
+}
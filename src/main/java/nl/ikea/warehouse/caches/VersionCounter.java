@@ -0,0 +1,41 @@
+package nl.ikea.warehouse.caches;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing version of a collection, bumped on every write. Counters start over
+ * with every process, hence versions are qualified by an epoch unique to the process, so a
+ * version handed out before a restart never matches one handed out after.
+ */
+public abstract class VersionCounter {
+
+    private static final String EPOCH = Long.toHexString(UUID.randomUUID().getMostSignificantBits());
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Get current version.
+     *
+     * @return version
+     */
+    public long get() {
+        return this.version.get();
+    }
+
+    /**
+     * Get current version, qualified by the process epoch.
+     *
+     * @return {@link String} tag of the current version
+     */
+    public String tag() {
+        return EPOCH + "-" + this.version.get();
+    }
+
+    /**
+     * Bump version.
+     */
+    protected void increment() {
+        this.version.incrementAndGet();
+    }
+}
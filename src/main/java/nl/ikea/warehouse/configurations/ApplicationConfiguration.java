@@ -8,14 +8,18 @@ import java.util.Properties;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.ServiceLocatorFactoryBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
  * Application general configuration.
  */
 @Configuration
+@EnableScheduling
 public class ApplicationConfiguration {
 
     /**
@@ -46,4 +50,60 @@ public class ApplicationConfiguration {
         properties.setProperty("B", "serviceB");
         return properties;
     }
+
+    /**
+     * Bounded executor running background jobs, such as uploads. Submissions beyond the queue
+     * capacity are rejected instead of piling up.
+     *
+     * @param poolSize      number of concurrently running jobs
+     * @param queueCapacity number of jobs waiting for a free thread
+     * @return {@link ThreadPoolTaskExecutor}
+     */
+    @Bean(name = "jobExecutor")
+    public ThreadPoolTaskExecutor jobExecutor(
+            @Value("${warehouse.jobs.pool-size:2}") int poolSize,
+            @Value("${warehouse.jobs.queue-capacity:16}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("job-");
+        return executor;
+    }
+
+    /**
+     * Bounded executor writing streamed responses, such as exports, off the container threads.
+     * Streams beyond the queue capacity are rejected instead of each getting a new thread.
+     *
+     * @param poolSize      number of concurrently written streams
+     * @param queueCapacity number of streams waiting for a free thread
+     * @return {@link ThreadPoolTaskExecutor}
+     */
+    @Bean(name = "streamExecutor")
+    public ThreadPoolTaskExecutor streamExecutor(
+            @Value("${warehouse.streams.pool-size:8}") int poolSize,
+            @Value("${warehouse.streams.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stream-");
+        return executor;
+    }
+
+    /**
+     * Single threaded executor rebuilding the availability index in the background, a rebuild is
+     * never queued more than once.
+     *
+     * @return {@link ThreadPoolTaskExecutor}
+     */
+    @Bean(name = "indexExecutor")
+    public ThreadPoolTaskExecutor indexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("index-");
+        return executor;
+    }
 }
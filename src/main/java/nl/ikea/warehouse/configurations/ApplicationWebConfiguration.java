@@ -5,10 +5,15 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurationSupport;
 import springfox.documentation.builders.ApiInfoBuilder;
@@ -22,6 +27,23 @@ import springfox.documentation.swagger2.annotations.EnableSwagger2;
 @EnableSwagger2
 public class ApplicationWebConfiguration extends WebMvcConfigurationSupport {
 
+  private final AsyncTaskExecutor streamExecutor;
+  private final long streamTimeout;
+
+  /**
+   * Dependency injection default constructor
+   *
+   * @param streamExecutor {@link AsyncTaskExecutor} writing streamed responses
+   * @param streamTimeout milliseconds a streamed response may take before being cut off
+   */
+  @Autowired
+  public ApplicationWebConfiguration(
+      @Qualifier("streamExecutor") AsyncTaskExecutor streamExecutor,
+      @Value("${warehouse.streams.timeout-ms:3600000}") long streamTimeout) {
+    this.streamExecutor = streamExecutor;
+    this.streamTimeout = streamTimeout;
+  }
+
   /**
    * {@link Docket} bean definition.
    *
@@ -57,6 +79,19 @@ public class ApplicationWebConfiguration extends WebMvcConfigurationSupport {
         .addResourceLocations("classpath:/META-INF/resources/webjars/");
   }
 
+  /**
+   * Writing streamed responses on the bounded stream executor, instead of the unbounded fallback
+   * used since this configuration replaces the auto configured one, and allowing exports of large
+   * listings more time than the container default.
+   *
+   * @param configurer {@link AsyncSupportConfigurer}
+   */
+  @Override
+  protected void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.setTaskExecutor(this.streamExecutor);
+    configurer.setDefaultTimeout(this.streamTimeout);
+  }
+
   /**
    * Fixing JSON mapping exception in regards of custom data and enums. Modifying the list of
    * converters after it was configured. This may be useful for example to allow default converters
@@ -1,15 +1,21 @@
 package nl.ikea.warehouse.configurations;
 
 import com.mongodb.MongoClientSettings;
+import com.mongodb.ServerAddress;
 import com.mongodb.connection.SocketSettings;
 import nl.ikea.warehouse.listeners.CascadeSaveMongoEventListener;
+import nl.ikea.warehouse.metrics.MongoCommandMetricsListener;
+import nl.ikea.warehouse.metrics.MongoPoolMetricsListener;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 
 /** MongoDB persistence configuration. */
@@ -18,13 +24,27 @@ import java.util.concurrent.TimeUnit;
 public class PersistenceConfiguration {
 
   /**
-   * {@link MongoClient} bean definition
+   * {@link MongoClient} bean definition, reporting command latencies and connection pool usage to
+   * the metrics listeners when available.
    *
+   * @param host            MongoDB host
+   * @param port            MongoDB port
+   * @param commandListener {@link ObjectProvider} of {@link MongoCommandMetricsListener}
+   * @param poolListener    {@link ObjectProvider} of {@link MongoPoolMetricsListener}
    * @return {@link MongoClient}
    */
   @Bean
-  public MongoClient mongo() {
+  public MongoClient mongo(
+      @Value("${spring.data.mongodb.host:localhost}") String host,
+      @Value("${spring.data.mongodb.port:27017}") int port,
+      ObjectProvider<MongoCommandMetricsListener> commandListener,
+      ObjectProvider<MongoPoolMetricsListener> poolListener) {
     MongoClientSettings.Builder builder = MongoClientSettings.builder();
+    builder.applyToClusterSettings(
+        c -> c.hosts(Collections.singletonList(new ServerAddress(host, port))));
+    commandListener.ifAvailable(builder::addCommandListener);
+    poolListener.ifAvailable(
+        l -> builder.applyToConnectionPoolSettings(p -> p.addConnectionPoolListener(l)));
     builder.applyToSocketSettings(
         s ->
             s.connectTimeout(360000, TimeUnit.MILLISECONDS)
@@ -39,12 +59,16 @@ public class PersistenceConfiguration {
   /**
    * {@link MongoTemplate} bean definition
    *
+   * @param mongo    {@link MongoClient}
+   * @param database MongoDB database name
    * @return {@link MongoTemplate}
    * @throws Exception {@link Exception}
    */
   @Bean
-  public MongoTemplate mongoTemplate() throws Exception {
-    return new MongoTemplate(mongo(), "warehouse");
+  public MongoTemplate mongoTemplate(
+      MongoClient mongo, @Value("${spring.data.mongodb.database:warehouse}") String database)
+      throws Exception {
+    return new MongoTemplate(mongo, database);
   }
 
   /**
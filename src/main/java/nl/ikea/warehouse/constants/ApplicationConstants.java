@@ -3,6 +3,7 @@ package nl.ikea.warehouse.constants;
 import java.time.format.DateTimeFormatter;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import org.springframework.http.MediaType;
 
 /** Application constants */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -12,6 +13,12 @@ public final class ApplicationConstants {
   public static final String LOCAL_DATE_PATTERN = "yyyy/MM/dd";
   public static final String DOCUMENT_LOCAL_DATE_PATTERN = "dd/MM/yyyy";
   public static final DateTimeFormatter DATE_TIME_FORMATTER;
+  public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+  public static final MediaType APPLICATION_NDJSON = MediaType.valueOf(APPLICATION_NDJSON_VALUE);
+  public static final String TEXT_CSV_VALUE = "text/csv";
+  public static final MediaType TEXT_CSV = MediaType.valueOf(TEXT_CSV_VALUE);
+  public static final String DEFAULT_PAGE_SIZE = "100";
+  public static final int MAX_PAGE_SIZE = 1000;
 
   static {
     DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(DOCUMENT_LOCAL_DATE_PATTERN);
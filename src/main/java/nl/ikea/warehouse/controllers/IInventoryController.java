@@ -1,9 +1,16 @@
 package nl.ikea.warehouse.controllers;
 
 import io.swagger.annotations.*;
+import nl.ikea.warehouse.constants.ApplicationConstants;
 import nl.ikea.warehouse.exceptions.errors.ApplicationCustomError;
+import nl.ikea.warehouse.pipelines.ExportFormat;
+import nl.ikea.warehouse.utils.ExportUtils;
+import nl.ikea.warehouse.utils.KeysetPaginationUtils;
 import nl.ikea.warehouse.validators.groups.PersistValidationGroup;
 import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.JobView;
+import nl.ikea.warehouse.views.impl.MultiGetView;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -11,9 +18,14 @@ import org.springframework.ui.Model;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 /**
@@ -48,20 +60,22 @@ public interface IInventoryController {
      *
      * @param file    - {@link MultipartFile} uploaded file.
      * @param request - {@link HttpServletRequest} HTTP request.
-     * @return {@link ModelAndView} with redirect command.
+     * @return {@link ResponseEntity} wrapping {@link JobView} of the scheduled upload job.
      */
     @ApiOperation(
             value = "Import a inventory JSON in the system.",
-            notes = "For any existing data assigned to particular provided unique identifier, data will be overridden")
+            notes = "For any existing data assigned to particular provided unique identifier, data will be overridden. The document is ingested asynchronously, progress is available at the returned job location.")
     @ApiResponses(value = {
-            @ApiResponse(code = 202, message = "Inventory been successfully imported."),
+            @ApiResponse(code = 202, message = "Inventory import job accepted."),
             @ApiResponse(code = 400, message = "Invalid or malformed inventory JSON."),
             @ApiResponse(code = 404, message = "Not found."),
             @ApiResponse(code = 415, message = "The content type is unsupported"),
             @ApiResponse(code = 500,
-                    message = "An unexpected error has occurred. The error has been logged and is being investigated.")})
-    @PostMapping(value = "/upload")
-    ModelAndView upload(@RequestParam(value = "file") @ApiParam(
+                    message = "An unexpected error has occurred. The error has been logged and is being investigated."),
+            @ApiResponse(code = 503, message = "Upload capacity exhausted, retry later.")})
+    @ResponseStatus(value = HttpStatus.ACCEPTED)
+    @PostMapping(value = "/upload", produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<JobView> upload(@RequestParam(value = "file") @ApiParam(
             value = "A document value representing inventory list to be imported. An example of the expected schema can be found.") MultipartFile file,
                         HttpServletRequest request);
 
@@ -91,14 +105,19 @@ public interface IInventoryController {
                     String articleId);
 
     /**
-     * Retrieve all {@link InventoryView}.
+     * Retrieve page of {@link InventoryView}.
      *
+     * @param after       - {@link Long} last article unique identifier of the previous page
+     * @param limit       - {@link Integer} page size
+     * @param ifNoneMatch - {@link String} entity tags of the representations held by the client
      * @return {@link ResponseEntity} with wrapped status code and {@link List} of {@link InventoryView}
-     * payload with HAL.
+     * payload with HAL, linking the next page in the {@code Link} header, or no payload if the
+     * client holds the current representation.
      */
     @ApiOperation(
             value = "Retrieve articles.",
-            notes = "See the data model parameter for more information about data types.")
+            notes = "See the data model parameter for more information about data types. "
+                    + "The ETag changes along with the inventory, send it back as If-None-Match to receive 304.")
     @ApiResponses(
             value = {
                     @ApiResponse(
@@ -121,6 +140,8 @@ public interface IInventoryController {
                                             mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
                                             value = "")),
                             response = ApplicationCustomError.class),
+                    @ApiResponse(code = 304, message = "Not modified since the ETag sent as If-None-Match."),
+                    @ApiResponse(code = 422, message = "Invalid paging parameters."),
                     @ApiResponse(code = 404, message = "Not found."),
                     @ApiResponse(code = 415, message = "The content type is unsupported"),
                     @ApiResponse(
@@ -130,7 +151,152 @@ public interface IInventoryController {
             })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(value = HttpStatus.OK)
-    ResponseEntity<List<InventoryView>> getArticles();
+    ResponseEntity<List<InventoryView>> getArticles(
+            @Min(value = 0)
+            @ApiParam(value = "Last article unique identifier of the previous page.")
+            @RequestParam(name = KeysetPaginationUtils.AFTER_PARAMETER, required = false) Long after,
+            @Min(value = 1) @Max(value = ApplicationConstants.MAX_PAGE_SIZE)
+            @ApiParam(value = "Page size.")
+            @RequestParam(name = KeysetPaginationUtils.LIMIT_PARAMETER, defaultValue = ApplicationConstants.DEFAULT_PAGE_SIZE)
+                    Integer limit,
+            @ApiParam(value = "ETag of a previously received page.")
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    /**
+     * Retrieve several {@link InventoryView} by unique identifier at once.
+     *
+     * @param ids - {@link List} of {@link Long} article unique identifiers
+     * @return {@link ResponseEntity} with wrapped status code and {@link MultiGetView} of {@link
+     * InventoryView} payload, in request order, listing the identifiers without a article as missing.
+     */
+    @ApiOperation(
+            value = "Retrieve several articles by unique identifier.",
+            notes = "Resolved with a single query. Articles are returned in request order, unknown identifiers are listed as missing.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 200, message = "Articles found and missing identifiers."),
+                    @ApiResponse(code = 400, message = "Invalid or malformed unique identifiers."),
+                    @ApiResponse(code = 422, message = "Too many or no unique identifiers."),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @GetMapping(params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<MultiGetView<InventoryView>> getArticlesById(
+            @Size(min = 1, max = ApplicationConstants.MAX_PAGE_SIZE)
+            @ApiParam(value = "Comma separated article unique identifiers.")
+            @RequestParam(name = "ids") List<@NotNull Long> ids);
+
+    /**
+     * Retrieve several {@link InventoryView} by unique identifier at once, for identifier lists too long
+     * for a query string.
+     *
+     * @param ids - {@link List} of {@link Long} article unique identifiers
+     * @return {@link ResponseEntity} with wrapped status code and {@link MultiGetView} of {@link
+     * InventoryView} payload, in request order, listing the identifiers without a article as missing.
+     */
+    @ApiOperation(
+            value = "Retrieve several articles by unique identifiers sent as a JSON array.",
+            notes = "Resolved with a single query. Articles are returned in request order, unknown identifiers are listed as missing.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 200, message = "Articles found and missing identifiers."),
+                    @ApiResponse(code = 400, message = "Invalid or malformed unique identifiers."),
+                    @ApiResponse(code = 422, message = "Too many or no unique identifiers."),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @PostMapping(value = "/lookup", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<MultiGetView<InventoryView>> lookupArticles(
+            @Size(min = 1, max = ApplicationConstants.MAX_PAGE_SIZE)
+            @ApiParam(value = "JSON array of article unique identifiers.")
+            @RequestBody List<@NotNull Long> ids);
+
+    /**
+     * Stream {@link InventoryView} as newline delimited JSON.
+     *
+     * @param after - {@link Long} last article unique identifier already received
+     * @param limit - {@link Integer} maximum number of articles, all of them if null
+     * @return {@link ResponseEntity} with wrapped status code and streamed body, one {@link
+     * InventoryView} per line.
+     */
+    @ApiOperation(
+            value = "Stream inventory as newline delimited JSON.",
+            notes = "Written straight from the database cursor, in article unique identifier order.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 200, message = "Inventory stream."),
+                    @ApiResponse(
+                            code = 422,
+                            message = "Invalid or malformed query parameters.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @GetMapping(produces = ApplicationConstants.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<StreamingResponseBody> streamArticles(
+            @Min(value = 0)
+            @ApiParam(value = "Last article unique identifier already received.")
+            @RequestParam(name = KeysetPaginationUtils.AFTER_PARAMETER, required = false) Long after,
+            @Min(value = 1)
+            @ApiParam(value = "Maximum number of articles, all of them if omitted.")
+            @RequestParam(name = KeysetPaginationUtils.LIMIT_PARAMETER, required = false) Integer limit);
+
+    /**
+     * Export every {@link InventoryView} as newline delimited JSON or CSV.
+     *
+     * @param format         - {@link String} export format, ndjson or csv
+     * @param acceptEncoding - {@link String} accepted content codings of the client
+     * @return {@link ResponseEntity} with wrapped status code and streamed attachment, gzip compressed
+     * when accepted.
+     */
+    @ApiOperation(
+            value = "Export every article as newline delimited JSON or CSV.",
+            notes = "Written straight from the database cursor, in article unique identifier order, gzip compressed when accepted.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 200, message = "Articles export."),
+                    @ApiResponse(
+                            code = 422,
+                            message = "Invalid export format.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @GetMapping(value = "/export")
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<StreamingResponseBody> exportArticles(
+            @Pattern(regexp = ExportFormat.PATTERN)
+            @ApiParam(value = "Export format, ndjson or csv.")
+            @RequestParam(name = ExportUtils.FORMAT_PARAMETER, defaultValue = "ndjson") String format,
+            @ApiParam(hidden = true)
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding);
 
     /**
      * Persist {@link InventoryView}.
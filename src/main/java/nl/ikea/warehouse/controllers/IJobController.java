@@ -0,0 +1,61 @@
+package nl.ikea.warehouse.controllers;
+
+import io.swagger.annotations.*;
+import nl.ikea.warehouse.exceptions.errors.ApplicationCustomError;
+import nl.ikea.warehouse.views.impl.JobView;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Job Controller contract definition.
+ */
+@Validated
+@RequestMapping(value = "/jobs")
+@Api(value = "Job Controller")
+public interface IJobController {
+
+    /**
+     * Retrieve {@link JobView}, identified uniquely by {@link String}.
+     *
+     * @param jobId - {@link String} representation of {@link JobView} unique identifier
+     * @return {@link ResponseEntity} with wrapped status code and {@link JobView} payload with HAL.
+     */
+    @ApiOperation(
+            value = "Retrieve background job progress.",
+            notes = "Rows parsed, written and failed so far, throughput and estimated time to completion.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            code = 200,
+                            message = "Job progress.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = JobView.class),
+                    @ApiResponse(
+                            code = 404,
+                            message = "Not found.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @GetMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<JobView> getJob(
+            @ApiParam(value = "Job unique identifier.") @PathVariable(value = "jobId") String jobId);
+}
@@ -4,8 +4,13 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
 
 import com.fasterxml.jackson.annotation.JsonView;
+import nl.ikea.warehouse.constants.ApplicationConstants;
 import nl.ikea.warehouse.exceptions.errors.ApplicationCustomError;
+import nl.ikea.warehouse.filters.ProductFilter;
+import nl.ikea.warehouse.pipelines.ExportFormat;
 import nl.ikea.warehouse.validators.groups.PersistValidationGroup;
+import nl.ikea.warehouse.utils.ExportUtils;
+import nl.ikea.warehouse.utils.KeysetPaginationUtils;
 import nl.ikea.warehouse.views.RenderGroupView;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -17,7 +22,11 @@ import io.swagger.annotations.ExampleProperty;
 
 import java.util.List;
 
+import nl.ikea.warehouse.views.impl.AvailabilityView;
 import nl.ikea.warehouse.views.impl.ProductView;
+import nl.ikea.warehouse.views.impl.JobView;
+import nl.ikea.warehouse.views.impl.MultiGetView;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,10 +34,14 @@ import org.springframework.ui.Model;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
 
 /**
  * Product controller contract definition.
@@ -62,44 +75,50 @@ public interface IProductController {
      *
      * @param file    - {@link MultipartFile} uploaded file.
      * @param request - {@link HttpServletRequest} HTTP request.
-     * @return {@link ModelAndView} with redirect command.
+     * @return {@link ResponseEntity} wrapping {@link JobView} of the scheduled upload job.
      */
     @ApiOperation(
             value = "Import a product JSON in the system.",
-            notes = "For any existing data assigned to particular provided unique identifier, data will be overridden")
+            notes = "For any existing data assigned to particular provided unique identifier, data will be overridden. The document is ingested asynchronously, progress is available at the returned job location.")
     @ApiResponses(value = {
-            @ApiResponse(code = 202, message = "Products been successfully imported."),
+            @ApiResponse(code = 202, message = "Products import job accepted."),
             @ApiResponse(code = 400, message = "Invalid or malformed products JSON."),
             @ApiResponse(code = 404, message = "Not found."),
             @ApiResponse(code = 415, message = "The content type is unsupported"),
             @ApiResponse(code = 500,
-                    message = "An unexpected error has occurred. The error has been logged and is being investigated.")})
-    @PostMapping(value = "/upload")
-    ModelAndView upload(@RequestParam(value = "file") @ApiParam(
+                    message = "An unexpected error has occurred. The error has been logged and is being investigated."),
+            @ApiResponse(code = 503, message = "Upload capacity exhausted, retry later.")})
+    @ResponseStatus(value = HttpStatus.ACCEPTED)
+    @PostMapping(value = "/upload", produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<JobView> upload(@RequestParam(value = "file") @ApiParam(
             value = "A document value representing products list to be imported. An example of the expected schema can be found.") MultipartFile file,
                         HttpServletRequest request);
 
     /**
-     * Delete all entries of {@link ProductView}
+     * Delete all products.
      *
-     * @return {@link String} page representation
+     * @param reset - drop the collection and rebuild its indexes instead of deleting documents.
+     * @return {@link ResponseEntity} wrapping {@link JobView} of the purge job, empty if purged already.
      */
     @ApiOperation(
             value = "Delete all entries from database.",
-            notes = "Recursively deleting entries from database.")
+            notes = "Products are deleted server side in a single operation. Large catalogs are purged asynchronously in batches, progress is available at the returned job location. A reset drops the collection and rebuilds its indexes.")
     @ApiResponses(
             value = {
+                    @ApiResponse(code = 202, message = "Purge job accepted."),
                     @ApiResponse(code = 204, message = "Deleted."),
                     @ApiResponse(code = 404, message = "Not found."),
                     @ApiResponse(code = 415, message = "The content type is unsupported"),
                     @ApiResponse(
                             code = 500,
                             message =
-                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+                                    "An unexpected error has occurred. The error has been logged and is being investigated."),
+                    @ApiResponse(code = 503, message = "Job capacity exhausted, retry later.")
             })
-    @ResponseStatus(value = HttpStatus.NO_CONTENT)
-    @DeleteMapping()
-    ResponseEntity<Void> delete();
+    @DeleteMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    ResponseEntity<JobView> delete(
+            @ApiParam(value = "Drop the collection and rebuild its indexes.")
+            @RequestParam(value = "reset", defaultValue = "false") boolean reset);
 
     /**
      * Persist entry of {@link ProductView}
@@ -128,13 +147,23 @@ public interface IProductController {
     /**
      * Retrieve {@link List} of {@link ProductView}
      *
-     * @param filter - {@link String} representation for statuses filtering options
-     * @return {@link ResponseEntity} with wrapped status code and {@link List} of {@link
-     * ProductView} payload with HAL.
+     * @param filter         - {@link String} filter expression, see {@link ProductFilter}
+     * @param after          - {@link Long} last product unique identifier of the previous page
+     * @param limit          - {@link Integer} page size
+     * @param acceptEncoding - {@link String} accepted content codings of the client
+     * @param ifNoneMatch    - {@link String} entity tags of the representations held by the client
+     * @return {@link ResponseEntity} with wrapped status code and encoded {@link List} of {@link
+     * ProductView} payload with HAL, linking the next page in the {@code Link} header, or no payload
+     * if the client holds the current representation.
      */
     @ApiOperation(
             value = "Retrieve persisted products.",
-            notes = "See the data model parameter for more information about data types.")
+            notes = "Paginated by product unique identifier, the Link header refers to the next page. "
+                    + "Pages are served pre-encoded until the catalog changes, gzip compressed when accepted. "
+                    + "The ETag changes along with the catalog, send it back as If-None-Match to receive 304. "
+                    + "Filtered in the database, on indexes.",
+            response = ProductView.class,
+            responseContainer = "List")
     @ApiResponses(
             value = {
                     @ApiResponse(
@@ -149,7 +178,7 @@ public interface IProductController {
                             response = Object.class),
                     @ApiResponse(
                             code = 400,
-                            message = "Invalid or malformed path parameters.",
+                            message = "Invalid or malformed path parameters or filter expression.",
                             examples =
                             @Example(
                                     value =
@@ -157,6 +186,8 @@ public interface IProductController {
                                             mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
                                             value = "")),
                             response = Object.class),
+                    @ApiResponse(code = 304, message = "Not modified since the ETag sent as If-None-Match."),
+                    @ApiResponse(code = 422, message = "Invalid paging parameters."),
                     @ApiResponse(code = 404, message = "Not found."),
                     @ApiResponse(code = 415, message = "The content type is unsupported"),
                     @ApiResponse(
@@ -166,9 +197,189 @@ public interface IProductController {
             })
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(value = HttpStatus.OK)
-    @JsonView(value = {RenderGroupView.Restricted.class})
-    ResponseEntity<List<ProductView>> getProducts(
-            @RequestParam(name = "filter", defaultValue = "active", required = false) String filter);
+    ResponseEntity<byte[]> getProducts(
+            @ApiParam(value = "Comma separated terms, all of which must hold: name:<prefix>, article:<id>, "
+                    + "id:<from>..<to> (either bound optional) and available:<n> (more than n units can be built).")
+            @RequestParam(name = "filter", defaultValue = ProductFilter.ACTIVE, required = false) String filter,
+            @Min(value = 0)
+            @ApiParam(value = "Last product unique identifier of the previous page.")
+            @RequestParam(name = KeysetPaginationUtils.AFTER_PARAMETER, required = false) Long after,
+            @Min(value = 1) @Max(value = ApplicationConstants.MAX_PAGE_SIZE)
+            @ApiParam(value = "Page size.")
+            @RequestParam(name = KeysetPaginationUtils.LIMIT_PARAMETER, defaultValue = ApplicationConstants.DEFAULT_PAGE_SIZE)
+                    Integer limit,
+            @ApiParam(hidden = true)
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @ApiParam(value = "ETag of a previously received page.")
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch);
+
+    /**
+     * Retrieve several {@link ProductView} by unique identifier at once.
+     *
+     * @param ids - {@link List} of {@link Long} product unique identifiers
+     * @return {@link ResponseEntity} with wrapped status code and {@link MultiGetView} of {@link
+     * ProductView} payload, in request order, listing the identifiers without a product as missing.
+     */
+    @ApiOperation(
+            value = "Retrieve several products by unique identifier.",
+            notes = "Resolved with a single query. Products are returned in request order, unknown identifiers are listed as missing.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 200, message = "Products found and missing identifiers."),
+                    @ApiResponse(code = 400, message = "Invalid or malformed unique identifiers."),
+                    @ApiResponse(code = 422, message = "Too many or no unique identifiers."),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @GetMapping(params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<MultiGetView<ProductView>> getProductsById(
+            @Size(min = 1, max = ApplicationConstants.MAX_PAGE_SIZE)
+            @ApiParam(value = "Comma separated product unique identifiers.")
+            @RequestParam(name = "ids") List<@NotNull Long> ids);
+
+    /**
+     * Retrieve several {@link ProductView} by unique identifier at once, for identifier lists too long
+     * for a query string.
+     *
+     * @param ids - {@link List} of {@link Long} product unique identifiers
+     * @return {@link ResponseEntity} with wrapped status code and {@link MultiGetView} of {@link
+     * ProductView} payload, in request order, listing the identifiers without a product as missing.
+     */
+    @ApiOperation(
+            value = "Retrieve several products by unique identifiers sent as a JSON array.",
+            notes = "Resolved with a single query. Products are returned in request order, unknown identifiers are listed as missing.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 200, message = "Products found and missing identifiers."),
+                    @ApiResponse(code = 400, message = "Invalid or malformed unique identifiers."),
+                    @ApiResponse(code = 422, message = "Too many or no unique identifiers."),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @PostMapping(value = "/lookup", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<MultiGetView<ProductView>> lookupProducts(
+            @Size(min = 1, max = ApplicationConstants.MAX_PAGE_SIZE)
+            @ApiParam(value = "JSON array of product unique identifiers.")
+            @RequestBody List<@NotNull Long> ids);
+
+    /**
+     * Stream persisted {@link ProductView} as newline delimited JSON.
+     *
+     * @param after - {@link Long} last product unique identifier already received
+     * @param limit - {@link Integer} maximum number of products, all of them if null
+     * @return {@link ResponseEntity} with wrapped status code and streamed body, one {@link
+     * ProductView} per line.
+     */
+    @ApiOperation(
+            value = "Stream persisted products as newline delimited JSON.",
+            notes = "Written straight from the database cursor, in product unique identifier order.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 200, message = "Products stream."),
+                    @ApiResponse(
+                            code = 422,
+                            message = "Invalid or malformed query parameters.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @GetMapping(produces = ApplicationConstants.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<StreamingResponseBody> streamProducts(
+            @Min(value = 0)
+            @ApiParam(value = "Last product unique identifier already received.")
+            @RequestParam(name = KeysetPaginationUtils.AFTER_PARAMETER, required = false) Long after,
+            @Min(value = 1)
+            @ApiParam(value = "Maximum number of products, all of them if omitted.")
+            @RequestParam(name = KeysetPaginationUtils.LIMIT_PARAMETER, required = false) Integer limit);
+
+    /**
+     * Export every {@link ProductView} as newline delimited JSON or CSV.
+     *
+     * @param format         - {@link String} export format, ndjson or csv
+     * @param acceptEncoding - {@link String} accepted content codings of the client
+     * @return {@link ResponseEntity} with wrapped status code and streamed attachment, gzip compressed
+     * when accepted.
+     */
+    @ApiOperation(
+            value = "Export every product as newline delimited JSON or CSV.",
+            notes = "Written straight from the database cursor, in product unique identifier order, gzip compressed when accepted. CSV has one record per bill of materials entry.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(code = 200, message = "Products export."),
+                    @ApiResponse(
+                            code = 422,
+                            message = "Invalid export format.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @GetMapping(value = "/export")
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<StreamingResponseBody> exportProducts(
+            @Pattern(regexp = ExportFormat.PATTERN)
+            @ApiParam(value = "Export format, ndjson or csv.")
+            @RequestParam(name = ExportUtils.FORMAT_PARAMETER, defaultValue = "ndjson") String format,
+            @ApiParam(hidden = true)
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding);
+
+    /**
+     * Retrieve {@link List} of {@link AvailabilityView}
+     *
+     * @return {@link ResponseEntity} with wrapped status code and {@link List} of {@link
+     * AvailabilityView} payload.
+     */
+    @ApiOperation(
+            value = "Retrieve amount of every product that can be built from current inventory.",
+            notes = "Computed in memory from article stock and product bills of materials.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            code = 200,
+                            message = "Products availability data.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = AvailabilityView.class),
+                    @ApiResponse(code = 404, message = "Not found."),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @GetMapping(value = "/availability", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<List<AvailabilityView>> getAvailability();
 
     /**
      * Retrieve {@link ProductView}, identified uniquely by {@link Long}.
@@ -216,6 +427,57 @@ public interface IProductController {
                                            @ApiParam(value = "Product unique identifier.") @PathVariable(value = "id")
                                                    String id);
 
+    /**
+     * Sell units of {@link ProductView}, identified uniquely by {@link Long}.
+     *
+     * @param id       - {@link String} representation of {@link ProductView} unique identifier
+     * @param quantity - {@link Long} units to sell
+     * @return {@link ResponseEntity} with wrapped status code and {@link AvailabilityView} payload
+     * after the sale.
+     */
+    @ApiOperation(
+            value = "Sell uniquely identified product.",
+            notes = "Withdraws every article of the product bill of materials from inventory, all or nothing.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            code = 200,
+                            message = "Product sold.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = AvailabilityView.class),
+                    @ApiResponse(code = 404, message = "Not found."),
+                    @ApiResponse(
+                            code = 409,
+                            message = "Insufficient stock.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(code = 422, message = "Invalid quantity."),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @PostMapping(value = "/{id}/sell", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<AvailabilityView> sell(@Pattern(regexp = "^(0|[1-9][0-9]*)$")
+                                          @ApiParam(value = "Product unique identifier.") @PathVariable(value = "id")
+                                                  String id,
+                                          @Min(value = 1)
+                                          @ApiParam(value = "Units to sell.")
+                                          @RequestParam(value = "quantity", defaultValue = "1")
+                                                  Long quantity);
+
     /**
      * Apply HAL on collection elements.
      *
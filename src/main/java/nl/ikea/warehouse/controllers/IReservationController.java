@@ -0,0 +1,233 @@
+package nl.ikea.warehouse.controllers;
+
+import io.swagger.annotations.*;
+import nl.ikea.warehouse.exceptions.errors.ApplicationCustomError;
+import nl.ikea.warehouse.validators.groups.PersistValidationGroup;
+import nl.ikea.warehouse.views.impl.ReservationView;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Reservation Controller contract definition.
+ */
+@Validated
+@RequestMapping(value = "/reservations")
+@Api(value = "Reservation Controller")
+public interface IReservationController {
+
+    /**
+     * Hold the articles of a product for checkout.
+     *
+     * @param reservationView - {@link ReservationView} product, quantity and optional time to live
+     * @return {@link ResponseEntity} with wrapped status code and {@link ReservationView} payload with HAL.
+     */
+    @ApiOperation(
+            value = "Reserve stock for units of a product.",
+            notes = "Held stock is not available for sale until the reservation is confirmed, released or expires.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            code = 201,
+                            message = "Stock reserved.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ReservationView.class),
+                    @ApiResponse(
+                            code = 400,
+                            message = "Invalid or malformed data.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(
+                            code = 404,
+                            message = "Product not found.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(
+                            code = 409,
+                            message = "Insufficient stock.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.CREATED)
+    ResponseEntity<ReservationView> reserve(
+            @ApiParam(value = "Reservation data.")
+            @Validated(value = {PersistValidationGroup.class})
+            @RequestBody ReservationView reservationView);
+
+    /**
+     * Retrieve {@link ReservationView}, identified uniquely by {@link String}.
+     *
+     * @param reservationId - {@link String} representation of {@link ReservationView} unique identifier
+     * @return {@link ResponseEntity} with wrapped status code and {@link ReservationView} payload with HAL.
+     */
+    @ApiOperation(
+            value = "Retrieve reservation.",
+            notes = "Status, expiry time and held amount per article.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            code = 200,
+                            message = "Reservation data.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ReservationView.class),
+                    @ApiResponse(
+                            code = 404,
+                            message = "Not found.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @GetMapping(value = "/{reservationId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<ReservationView> getReservation(
+            @ApiParam(value = "Reservation unique identifier.") @PathVariable(value = "reservationId")
+                    String reservationId);
+
+    /**
+     * Confirm active reservation, the held stock leaves the inventory.
+     *
+     * @param reservationId - {@link String} representation of {@link ReservationView} unique identifier
+     * @return {@link ResponseEntity} with wrapped status code and {@link ReservationView} payload with HAL.
+     */
+    @ApiOperation(
+            value = "Confirm reservation.",
+            notes = "Removes the held stock from inventory. Expired or released reservations can not be confirmed.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            code = 200,
+                            message = "Reservation confirmed.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ReservationView.class),
+                    @ApiResponse(
+                            code = 404,
+                            message = "Not found.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(
+                            code = 409,
+                            message = "Reservation is not active.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @PostMapping(value = "/{reservationId}/confirm", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<ReservationView> confirm(
+            @ApiParam(value = "Reservation unique identifier.") @PathVariable(value = "reservationId")
+                    String reservationId);
+
+    /**
+     * Release active reservation, the held stock becomes available again.
+     *
+     * @param reservationId - {@link String} representation of {@link ReservationView} unique identifier
+     * @return {@link ResponseEntity} with wrapped status code and {@link ReservationView} payload with HAL.
+     */
+    @ApiOperation(
+            value = "Release reservation.",
+            notes = "Returns the held stock to available stock.")
+    @ApiResponses(
+            value = {
+                    @ApiResponse(
+                            code = 200,
+                            message = "Reservation released.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ReservationView.class),
+                    @ApiResponse(
+                            code = 404,
+                            message = "Not found.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(
+                            code = 409,
+                            message = "Reservation is not active.",
+                            examples =
+                            @Example(
+                                    value =
+                                    @ExampleProperty(
+                                            mediaType = MediaType.APPLICATION_JSON_UTF8_VALUE,
+                                            value = "")),
+                            response = ApplicationCustomError.class),
+                    @ApiResponse(code = 415, message = "The content type is unsupported"),
+                    @ApiResponse(
+                            code = 500,
+                            message =
+                                    "An unexpected error has occurred. The error has been logged and is being investigated.")
+            })
+    @PostMapping(value = "/{reservationId}/release", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    ResponseEntity<ReservationView> release(
+            @ApiParam(value = "Reservation unique identifier.") @PathVariable(value = "reservationId")
+                    String reservationId);
+}
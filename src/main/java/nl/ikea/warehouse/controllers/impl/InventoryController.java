@@ -1,11 +1,25 @@
 package nl.ikea.warehouse.controllers.impl;
 
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.ikea.warehouse.caches.InventoryVersion;
+import nl.ikea.warehouse.constants.ApplicationConstants;
 import nl.ikea.warehouse.controllers.IInventoryController;
+import nl.ikea.warehouse.controllers.IJobController;
 import nl.ikea.warehouse.services.IArticleService;
-import nl.ikea.warehouse.utils.FileReadUtils;
+import nl.ikea.warehouse.pipelines.CsvWriter;
+import nl.ikea.warehouse.pipelines.ExportFormat;
+import nl.ikea.warehouse.pipelines.NdjsonWriter;
+import nl.ikea.warehouse.services.IUploadService;
+import nl.ikea.warehouse.utils.ConditionalRequestUtils;
+import nl.ikea.warehouse.utils.ExportUtils;
+import nl.ikea.warehouse.utils.KeysetPaginationUtils;
 import nl.ikea.warehouse.views.impl.ArticleView;
 import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.JobView;
+import nl.ikea.warehouse.views.impl.MultiGetView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,12 +28,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.ModelAndView;
-import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.function.Consumer;
 
 /**
  * Debit Card controller implementation.
@@ -30,19 +45,32 @@ import java.util.function.Consumer;
 public class InventoryController implements IInventoryController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(InventoryController.class);
+    private static final String EXPORT_NAME = "inventory";
+    private static final List<String> CSV_HEADER = Arrays.asList("art_id", "name", "stock", "reserved", "available");
 
     private final IArticleService iArticleService;
+    private final IUploadService iUploadService;
     private final ObjectMapper objectMapper;
+    private final InventoryVersion inventoryVersion;
 
     /**
      * Dependency injection default constructor
      *
-     * @param iArticleService {@link IArticleService}
+     * @param iArticleService  {@link IArticleService}
+     * @param iUploadService   {@link IUploadService}
+     * @param objectMapper     {@link ObjectMapper}
+     * @param inventoryVersion {@link InventoryVersion}
      */
     @Autowired
-    public InventoryController(IArticleService iArticleService, ObjectMapper objectMapper) {
+    public InventoryController(
+            IArticleService iArticleService,
+            IUploadService iUploadService,
+            ObjectMapper objectMapper,
+            InventoryVersion inventoryVersion) {
         this.iArticleService = iArticleService;
+        this.iUploadService = iUploadService;
         this.objectMapper = objectMapper;
+        this.inventoryVersion = inventoryVersion;
     }
 
     /**
@@ -63,18 +91,16 @@ public class InventoryController implements IInventoryController {
      *
      * @param file    - {@link MultipartFile} uploaded file.
      * @param request - {@link HttpServletRequest} HTTP request.
-     * @return
+     * @return {@link ResponseEntity} wrapping {@link JobView} of the scheduled upload job
      */
     @Override
-    public ModelAndView upload(MultipartFile file, HttpServletRequest request) {
-        FileReadUtils.read(this.objectMapper, file, InventoryView.class, this.iArticleService::save);
-        // As per HTTP 1.1 protocol reference, status codes 301 (Moved Permanently)
-        // and 302 (Found) allow the request method to be changed from POST to GET.
-        // The specification also defines the corresponding 307 (Temporary Redirect)
-        // and 308 (Permanent Redirect) status codes that don’t allow the request method
-        // to be changed from POST to GET.
-        request.setAttribute(View.RESPONSE_STATUS_ATTRIBUTE, HttpStatus.MOVED_PERMANENTLY);
-        return new ModelAndView("redirect:/inventories/render");
+    public ResponseEntity<JobView> upload(MultipartFile file, HttpServletRequest request) {
+        LOGGER.info("Uploading file: {}.", file.getOriginalFilename());
+        JobView jobView = this.iUploadService.uploadInventory(file);
+        jobView.add(linkTo(methodOn(IJobController.class).getJob(jobView.getJobId())).withSelfRel());
+        return ResponseEntity.accepted()
+                .location(URI.create(jobView.getId().getHref()))
+                .body(jobView);
     }
 
     /**
@@ -91,12 +117,96 @@ public class InventoryController implements IInventoryController {
     /**
      * {@inheritDoc}
      *
-     * @return {@link ResponseEntity} wrapping {@link List} of {@link ArticleView}
+     * @param after       - {@link Long} last article unique identifier of the previous page
+     * @param limit       - {@link Integer} page size
+     * @param ifNoneMatch - {@link String} entity tags of the representations held by the client
+     * @return {@link ResponseEntity} wrapping {@link List} of {@link InventoryView}
+     */
+    @Override
+    public ResponseEntity<List<InventoryView>> getArticles(Long after, Integer limit, String ifNoneMatch) {
+        LOGGER.info("Get articles data after: {} with limit: {}.", after, limit);
+        // Read ahead of the page, a page newer than its tag is fetched once more at worst.
+        String etag = ConditionalRequestUtils.etag(this.inventoryVersion.tag());
+        if (ConditionalRequestUtils.notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        List<InventoryView> articles = this.iArticleService.getArticles(after, limit);
+        return ResponseEntity.ok()
+                .headers(KeysetPaginationUtils.nextPageHeaders(
+                        articles.isEmpty() ? null : articles.get(articles.size() - 1).getArticleId(),
+                        articles.size(),
+                        limit))
+                .eTag(etag)
+                .body(articles);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param ids - {@link List} of {@link Long} article unique identifiers
+     * @return {@link ResponseEntity} wrapping {@link MultiGetView} of {@link InventoryView}
+     */
+    @Override
+    public ResponseEntity<MultiGetView<InventoryView>> getArticlesById(List<Long> ids) {
+        LOGGER.info("Retrieving articles data with ids: {}.", ids);
+        return ResponseEntity.ok(this.iArticleService.getArticles(ids));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param ids - {@link List} of {@link Long} article unique identifiers
+     * @return {@link ResponseEntity} wrapping {@link MultiGetView} of {@link InventoryView}
+     */
+    @Override
+    public ResponseEntity<MultiGetView<InventoryView>> lookupArticles(List<Long> ids) {
+        LOGGER.info("Looking up articles data with {} ids.", ids.size());
+        return ResponseEntity.ok(this.iArticleService.getArticles(ids));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param after - {@link Long} last article unique identifier already received
+     * @param limit - {@link Integer} maximum number of articles
+     * @return {@link ResponseEntity} wrapping {@link StreamingResponseBody}
+     */
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamArticles(Long after, Integer limit) {
+        LOGGER.info("Stream articles data after: {} with limit: {}.", after, limit);
+        return ResponseEntity.ok()
+                .contentType(ApplicationConstants.APPLICATION_NDJSON)
+                .body(outputStream -> {
+                    try (NdjsonWriter<InventoryView> writer = new NdjsonWriter<>(this.objectMapper, outputStream)) {
+                        this.iArticleService.streamArticles(after, limit, writer);
+                    }
+                });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param format         - {@link String} export format, ndjson or csv
+     * @param acceptEncoding - {@link String} accepted content codings of the client
+     * @return {@link ResponseEntity} wrapping {@link StreamingResponseBody}
      */
     @Override
-    public ResponseEntity<List<InventoryView>> getArticles() {
-        LOGGER.info("Get articles data.");
-        return ResponseEntity.ok(this.iArticleService.getArticles());
+    public ResponseEntity<StreamingResponseBody> exportArticles(String format, String acceptEncoding) {
+        LOGGER.info("Exporting articles data as {}.", format);
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+        return ExportUtils.export(EXPORT_NAME, exportFormat, acceptEncoding, outputStream -> {
+            if (exportFormat == ExportFormat.CSV) {
+                try (CsvWriter<InventoryView> writer = new CsvWriter<>(outputStream, CSV_HEADER, article ->
+                        Collections.singletonList(new Object[]{article.getArticleId(), article.getName(),
+                                article.getStock(), article.getReserved(), article.getAvailable()}))) {
+                    this.iArticleService.streamArticles(null, null, writer);
+                }
+            } else {
+                try (NdjsonWriter<InventoryView> writer = new NdjsonWriter<>(this.objectMapper, outputStream)) {
+                    this.iArticleService.streamArticles(null, null, writer);
+                }
+            }
+        });
     }
 
     /**
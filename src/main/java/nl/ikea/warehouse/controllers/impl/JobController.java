@@ -0,0 +1,52 @@
+package nl.ikea.warehouse.controllers.impl;
+
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
+
+import nl.ikea.warehouse.controllers.IJobController;
+import nl.ikea.warehouse.exceptions.ResourceNotFoundException;
+import nl.ikea.warehouse.services.IJobService;
+import nl.ikea.warehouse.views.impl.JobView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Job controller implementation.
+ *
+ * @see IJobController
+ */
+@Controller
+public class JobController implements IJobController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobController.class);
+
+    private final IJobService iJobService;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param iJobService {@link IJobService}
+     */
+    @Autowired
+    public JobController(IJobService iJobService) {
+        this.iJobService = iJobService;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param jobId - {@link String} representation of {@link JobView} unique identifier
+     * @return {@link ResponseEntity} wrapping {@link JobView}
+     */
+    @Override
+    public ResponseEntity<JobView> getJob(String jobId) {
+        LOGGER.info("Get job data.");
+        JobView jobView = this.iJobService.getJob(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("MSG_IKEA_404", "Job not found."));
+        jobView.add(linkTo(methodOn(IJobController.class).getJob(jobId)).withSelfRel());
+        return ResponseEntity.ok(jobView);
+    }
+}
@@ -1,26 +1,52 @@
 package nl.ikea.warehouse.controllers.impl;
 
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.ikea.warehouse.caches.CatalogVersion;
+import nl.ikea.warehouse.caches.InventoryVersion;
+import nl.ikea.warehouse.caches.ProductPageCache;
+import nl.ikea.warehouse.constants.ApplicationConstants;
 import nl.ikea.warehouse.exceptions.ApplicationException;
 import nl.ikea.warehouse.exceptions.ResourceNotFoundException;
+import nl.ikea.warehouse.filters.ProductFilter;
+import nl.ikea.warehouse.services.IAvailabilityService;
+import nl.ikea.warehouse.services.IUploadService;
 import nl.ikea.warehouse.services.IProductService;
+import nl.ikea.warehouse.controllers.IJobController;
 import nl.ikea.warehouse.controllers.IProductController;
+import nl.ikea.warehouse.pipelines.CsvWriter;
+import nl.ikea.warehouse.pipelines.ExportFormat;
+import nl.ikea.warehouse.pipelines.NdjsonWriter;
+import nl.ikea.warehouse.utils.ConditionalRequestUtils;
+import nl.ikea.warehouse.utils.ExportUtils;
+import nl.ikea.warehouse.utils.KeysetPage;
+import nl.ikea.warehouse.utils.KeysetPaginationUtils;
 
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
-import nl.ikea.warehouse.utils.FileReadUtils;
+import nl.ikea.warehouse.views.impl.AvailabilityView;
+import nl.ikea.warehouse.views.impl.JobView;
+import nl.ikea.warehouse.views.impl.MultiGetView;
 import nl.ikea.warehouse.views.impl.ProductView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.ModelAndView;
-import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -34,20 +60,44 @@ import javax.servlet.http.HttpServletRequest;
 public class ProductController implements IProductController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProductController.class);
+    private static final String EXPORT_NAME = "products";
+    private static final List<String> CSV_HEADER = Arrays.asList("productId", "name", "art_id", "amount_of");
 
     private final IProductService iProductService;
+    private final IUploadService iUploadService;
+    private final IAvailabilityService iAvailabilityService;
     private final ObjectMapper objectMapper;
-
+    private final ProductPageCache productPageCache;
+    private final CatalogVersion catalogVersion;
+    private final InventoryVersion inventoryVersion;
 
     /**
      * Dependency injection default constructor
      *
-     * @param iProductService {@link IProductService}
+     * @param iProductService      {@link IProductService}
+     * @param iUploadService       {@link IUploadService}
+     * @param iAvailabilityService {@link IAvailabilityService}
+     * @param objectMapper         {@link ObjectMapper}
+     * @param productPageCache     {@link ProductPageCache}
+     * @param catalogVersion       {@link CatalogVersion}
+     * @param inventoryVersion     {@link InventoryVersion}
      */
     @Autowired
-    public ProductController(IProductService iProductService, ObjectMapper objectMapper) {
+    public ProductController(
+            IProductService iProductService,
+            IUploadService iUploadService,
+            IAvailabilityService iAvailabilityService,
+            ObjectMapper objectMapper,
+            ProductPageCache productPageCache,
+            CatalogVersion catalogVersion,
+            InventoryVersion inventoryVersion) {
         this.iProductService = iProductService;
+        this.iUploadService = iUploadService;
+        this.iAvailabilityService = iAvailabilityService;
         this.objectMapper = objectMapper;
+        this.productPageCache = productPageCache;
+        this.catalogVersion = catalogVersion;
+        this.inventoryVersion = inventoryVersion;
     }
 
     /**
@@ -68,30 +118,35 @@ public class ProductController implements IProductController {
      *
      * @param file    - {@link MultipartFile} uploaded file.
      * @param request - {@link HttpServletRequest} HTTP request.
-     * @return
+     * @return {@link ResponseEntity} wrapping {@link JobView} of the scheduled upload job
      */
     @Override
-    public ModelAndView upload(MultipartFile file, HttpServletRequest request) {
-        FileReadUtils.read(this.objectMapper, file, ProductView.class, this.iProductService::save);
-        // As per HTTP 1.1 protocol reference, status codes 301 (Moved Permanently)
-        // and 302 (Found) allow the request method to be changed from POST to GET.
-        // The specification also defines the corresponding 307 (Temporary Redirect)
-        // and 308 (Permanent Redirect) status codes that don’t allow the request method
-        // to be changed from POST to GET.
-        request.setAttribute(View.RESPONSE_STATUS_ATTRIBUTE, HttpStatus.MOVED_PERMANENTLY);
-        return new ModelAndView("redirect:/products/render");
+    public ResponseEntity<JobView> upload(MultipartFile file, HttpServletRequest request) {
+        LOGGER.info("Uploading file: {}.", file.getOriginalFilename());
+        JobView jobView = this.iUploadService.uploadProducts(file);
+        jobView.add(linkTo(methodOn(IJobController.class).getJob(jobView.getJobId())).withSelfRel());
+        return ResponseEntity.accepted()
+                .location(URI.create(jobView.getId().getHref()))
+                .body(jobView);
     }
 
     /**
      * {@inheritDoc}
      *
-     * @return {@link ResponseEntity} wrapping {@link Void} response
+     * @param reset drop the collection and rebuild its indexes
+     * @return {@link ResponseEntity} wrapping {@link JobView} of the purge job, no content if purged already
      */
     @Override
-    public ResponseEntity<Void> delete() {
-        LOGGER.info("Deleting product data.");
-        this.iProductService.deleteAll();
-        return new ResponseEntity(HttpStatus.NO_CONTENT);
+    public ResponseEntity<JobView> delete(boolean reset) {
+        LOGGER.info("Deleting product data, reset: {}.", reset);
+        return this.iProductService.deleteAll(reset)
+                .map(jobView -> {
+                    jobView.add(linkTo(methodOn(IJobController.class).getJob(jobView.getJobId())).withSelfRel());
+                    return ResponseEntity.accepted()
+                            .location(URI.create(jobView.getId().getHref()))
+                            .body(jobView);
+                })
+                .orElseGet(() -> ResponseEntity.noContent().build());
     }
 
     /**
@@ -113,17 +168,146 @@ public class ProductController implements IProductController {
     /**
      * {@inheritDoc}
      *
-     * @param filter - {@link String} representation for statuses filtering options
-     * @return {@link ResponseEntity} wrapping {@link List} of {@link ProductView}
+     * @param filter         - {@link String} filter expression, see {@link ProductFilter}
+     * @param after          - {@link Long} last product unique identifier of the previous page
+     * @param limit          - {@link Integer} page size
+     * @param acceptEncoding - {@link String} accepted content codings of the client
+     * @param ifNoneMatch    - {@link String} entity tags of the representations held by the client
+     * @return {@link ResponseEntity} wrapping encoded {@link List} of {@link ProductView}
+     */
+    @Override
+    public ResponseEntity<byte[]> getProducts(
+            String filter, Long after, Integer limit, String acceptEncoding, String ifNoneMatch) {
+        LOGGER.info("Retrieving product data with filter: {}, after: {} and limit: {}.", filter, after, limit);
+        boolean gzip = ExportUtils.acceptsGzip(acceptEncoding);
+        // Read ahead of the page, a page newer than its tag is fetched once more at worst.
+        String version = ProductFilter.dependsOnStock(filter)
+                ? this.catalogVersion.tag() + "-" + this.inventoryVersion.get()
+                : this.catalogVersion.tag();
+        String etag = ConditionalRequestUtils.etag(version + (gzip ? "-" + ExportUtils.GZIP_ENCODING : ""));
+        if (ConditionalRequestUtils.notModified(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+        ProductPageCache.EncodedPage page = this.productPageCache.get(
+                Arrays.asList(version, ServletUriComponentsBuilder.fromCurrentContextPath().toUriString(),
+                        filter, after, limit),
+                gzip ? ProductPageCache.Representation.GZIP : ProductPageCache.Representation.JSON,
+                () -> {
+                    KeysetPage<ProductView> products = this.iProductService.getProducts(filter, after, limit);
+                    return new KeysetPage<>(addHyperlinkToCollectionElements(products.getItems()), products.getNext());
+                });
+        HttpHeaders headers = KeysetPaginationUtils.nextPageHeaders(page.getNext(), limit);
+        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        headers.setETag(etag);
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, ExportUtils.GZIP_ENCODING);
+        }
+        return new ResponseEntity<>(page.getBody(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param ids - {@link List} of {@link Long} product unique identifiers
+     * @return {@link ResponseEntity} wrapping {@link MultiGetView} of {@link ProductView}
+     */
+    @Override
+    public ResponseEntity<MultiGetView<ProductView>> getProductsById(List<Long> ids) {
+        LOGGER.info("Retrieving products data with ids: {}.", ids);
+        return ResponseEntity.ok(this.iProductService.getProducts(ids));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param ids - {@link List} of {@link Long} product unique identifiers
+     * @return {@link ResponseEntity} wrapping {@link MultiGetView} of {@link ProductView}
+     */
+    @Override
+    public ResponseEntity<MultiGetView<ProductView>> lookupProducts(List<Long> ids) {
+        LOGGER.info("Looking up products data with {} ids.", ids.size());
+        return ResponseEntity.ok(this.iProductService.getProducts(ids));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param after - {@link Long} last product unique identifier already received
+     * @param limit - {@link Integer} maximum number of products
+     * @return {@link ResponseEntity} wrapping {@link StreamingResponseBody}
+     */
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamProducts(Long after, Integer limit) {
+        LOGGER.info("Streaming product data after: {} with limit: {}.", after, limit);
+        return ResponseEntity.ok()
+                .contentType(ApplicationConstants.APPLICATION_NDJSON)
+                .body(outputStream -> {
+                    try (NdjsonWriter<ProductView> writer = new NdjsonWriter<>(this.objectMapper, outputStream)) {
+                        this.iProductService.streamProducts(after, limit, writer);
+                    }
+                });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param format         - {@link String} export format, ndjson or csv
+     * @param acceptEncoding - {@link String} accepted content codings of the client
+     * @return {@link ResponseEntity} wrapping {@link StreamingResponseBody}
      */
     @Override
-    public ResponseEntity<List<ProductView>> getProducts(String filter) {
-        LOGGER.info("Retrieving product data with filter: {}.", filter);
+    public ResponseEntity<StreamingResponseBody> exportProducts(String format, String acceptEncoding) {
+        LOGGER.info("Exporting product data as {}.", format);
+        ExportFormat exportFormat = ExportFormat.fromValue(format);
+        return ExportUtils.export(EXPORT_NAME, exportFormat, acceptEncoding, outputStream -> {
+            if (exportFormat == ExportFormat.CSV) {
+                try (CsvWriter<ProductView> writer =
+                             new CsvWriter<>(outputStream, CSV_HEADER, ProductController::csvRecords)) {
+                    this.iProductService.streamProducts(null, null, writer);
+                }
+            } else {
+                try (NdjsonWriter<ProductView> writer = new NdjsonWriter<>(this.objectMapper, outputStream)) {
+                    this.iProductService.streamProducts(null, null, writer);
+                }
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param id       - {@link String} representation of {@link ProductView} unique identifier
+     * @param quantity - {@link Long} units to sell
+     * @return {@link ResponseEntity} wrapping {@link AvailabilityView}
+     */
+    @Override
+    public ResponseEntity<AvailabilityView> sell(String id, Long quantity) {
+        LOGGER.info("Selling {} units of product with id: {}.", quantity, id);
         return new ResponseEntity<>(
-                addHyperlinkToCollectionElements(this.iProductService.getProducts()),
+                this.iProductService
+                        .sell(Long.valueOf(id), quantity)
+                        .orElseThrow(
+                                () ->
+                                        new ResourceNotFoundException(
+                                                "MSG_IKEA_404", "There is no persisted entry with unique identifier")),
                 HttpStatus.OK);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@link ResponseEntity} wrapping {@link List} of {@link AvailabilityView}
+     */
+    @Override
+    public ResponseEntity<List<AvailabilityView>> getAvailability() {
+        LOGGER.info("Retrieving products availability.");
+        return new ResponseEntity<>(this.iAvailabilityService.getAvailability(), HttpStatus.OK);
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -144,4 +328,17 @@ public class ProductController implements IProductController {
                 HttpStatus.OK);
     }
 
+    /**
+     * Flatten a product into one CSV record per bill of materials entry, or a single record without
+     * article for a product without entries.
+     */
+    private static List<Object[]> csvRecords(ProductView product) {
+        if (product.getArticles() == null || product.getArticles().isEmpty()) {
+            return Collections.singletonList(new Object[]{product.getProductId(), product.getName(), null, null});
+        }
+        List<Object[]> records = new ArrayList<>(product.getArticles().size());
+        product.getArticles().forEach(article -> records.add(
+                new Object[]{product.getProductId(), product.getName(), article.getArticleId(), article.getAmount()}));
+        return records;
+    }
 }
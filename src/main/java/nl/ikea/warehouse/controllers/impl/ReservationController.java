@@ -0,0 +1,95 @@
+package nl.ikea.warehouse.controllers.impl;
+
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
+import static org.springframework.hateoas.mvc.ControllerLinkBuilder.methodOn;
+
+import nl.ikea.warehouse.controllers.IReservationController;
+import nl.ikea.warehouse.exceptions.ResourceNotFoundException;
+import nl.ikea.warehouse.services.IReservationService;
+import nl.ikea.warehouse.views.impl.ReservationView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+
+import java.net.URI;
+
+/**
+ * Reservation controller implementation.
+ *
+ * @see IReservationController
+ */
+@Controller
+public class ReservationController implements IReservationController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReservationController.class);
+
+    private final IReservationService iReservationService;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param iReservationService {@link IReservationService}
+     */
+    @Autowired
+    public ReservationController(IReservationService iReservationService) {
+        this.iReservationService = iReservationService;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param reservationView - {@link ReservationView} data
+     * @return {@link ResponseEntity} wrapping {@link ReservationView}
+     */
+    @Override
+    public ResponseEntity<ReservationView> reserve(ReservationView reservationView) {
+        LOGGER.info("Reserve product stock.");
+        ReservationView reserved = withSelfLink(this.iReservationService.reserve(reservationView));
+        return ResponseEntity.created(URI.create(reserved.getId().getHref())).body(reserved);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param reservationId - {@link String} representation of {@link ReservationView} unique identifier
+     * @return {@link ResponseEntity} wrapping {@link ReservationView}
+     */
+    @Override
+    public ResponseEntity<ReservationView> getReservation(String reservationId) {
+        LOGGER.info("Get reservation data.");
+        return ResponseEntity.ok(withSelfLink(this.iReservationService.getReservation(reservationId)
+                .orElseThrow(() -> new ResourceNotFoundException("MSG_IKEA_404", "Reservation not found."))));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param reservationId - {@link String} representation of {@link ReservationView} unique identifier
+     * @return {@link ResponseEntity} wrapping {@link ReservationView}
+     */
+    @Override
+    public ResponseEntity<ReservationView> confirm(String reservationId) {
+        LOGGER.info("Confirm reservation.");
+        return ResponseEntity.ok(withSelfLink(this.iReservationService.confirm(reservationId)));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param reservationId - {@link String} representation of {@link ReservationView} unique identifier
+     * @return {@link ResponseEntity} wrapping {@link ReservationView}
+     */
+    @Override
+    public ResponseEntity<ReservationView> release(String reservationId) {
+        LOGGER.info("Release reservation.");
+        return ResponseEntity.ok(withSelfLink(this.iReservationService.release(reservationId)));
+    }
+
+    private static ReservationView withSelfLink(ReservationView reservationView) {
+        reservationView.add(linkTo(methodOn(IReservationController.class)
+                .getReservation(reservationView.getReservationId())).withSelfRel());
+        return reservationView;
+    }
+}
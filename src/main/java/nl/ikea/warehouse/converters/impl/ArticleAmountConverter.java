@@ -0,0 +1,51 @@
+package nl.ikea.warehouse.converters.impl;
+
+import nl.ikea.warehouse.converters.IDataConverter;
+import nl.ikea.warehouse.entities.ArticleAmountEntity;
+import nl.ikea.warehouse.views.impl.ArticleView;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Embedded article amount converter implementation
+ *
+ * @see IDataConverter
+ */
+@Component
+public class ArticleAmountConverter implements IDataConverter<ArticleAmountEntity, ArticleView> {
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param articleView {@link ArticleView}
+     * @return {@link Optional} wrapping {@link ArticleAmountEntity}
+     */
+    @Override
+    public Optional<ArticleAmountEntity> from(ArticleView articleView) {
+        ArticleAmountEntity articleAmountEntity = null;
+        if (articleView != null) {
+            articleAmountEntity = new ArticleAmountEntity(articleView.getArticleId(), articleView.getAmount());
+        }
+        return Optional.ofNullable(articleAmountEntity);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param articleAmountEntity {@link ArticleAmountEntity}
+     * @return {@link Optional} wrapping {@link ArticleView}
+     */
+    @Override
+    public Optional<ArticleView> from(ArticleAmountEntity articleAmountEntity) {
+        ArticleView articleView = null;
+        if (articleAmountEntity != null) {
+            articleView =
+                    ArticleView.builder()
+                            .articleId(articleAmountEntity.getArticleId())
+                            .amount(articleAmountEntity.getAmount())
+                            .build();
+        }
+        return Optional.ofNullable(articleView);
+    }
+}
@@ -56,8 +56,15 @@ public class InventoryConverter
                             .articleId(articleEntity.getArticleId())
                             .name(articleEntity.getName())
                             .stock(articleEntity.getAmount())
+                            .reserved(reserved(articleEntity))
+                            .available(articleEntity.getAmount() == null
+                                    ? null : articleEntity.getAmount() - reserved(articleEntity))
                             .build();
         }
         return Optional.ofNullable(inventoryView);
     }
+
+    private static long reserved(ArticleEntity articleEntity) {
+        return articleEntity.getReserved() == null ? 0 : articleEntity.getReserved();
+    }
 }
@@ -2,7 +2,7 @@ package nl.ikea.warehouse.converters.impl;
 
 import com.google.common.collect.ImmutableList;
 import nl.ikea.warehouse.converters.IDataConverter;
-import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.entities.ArticleAmountEntity;
 import nl.ikea.warehouse.entities.ProductEntity;
 import nl.ikea.warehouse.exceptions.ServiceException;
 import nl.ikea.warehouse.views.impl.ProductView;
@@ -24,15 +24,18 @@ public class ProductConverter implements IDataConverter<ProductEntity, ProductVi
     private static final Logger LOGGER = LoggerFactory.getLogger(ProductConverter.class);
 
     private final ArticleConverter articleConverter;
+    private final ArticleAmountConverter articleAmountConverter;
 
     /**
      * Dependency injection default constructor
      *
-     * @param articleConverter {@link ArticleConverter}
+     * @param articleConverter       {@link ArticleConverter}
+     * @param articleAmountConverter {@link ArticleAmountConverter}
      */
     @Autowired
-    public ProductConverter(ArticleConverter articleConverter) {
+    public ProductConverter(ArticleConverter articleConverter, ArticleAmountConverter articleAmountConverter) {
         this.articleConverter = articleConverter;
+        this.articleAmountConverter = articleAmountConverter;
     }
 
     /**
@@ -49,10 +52,10 @@ public class ProductConverter implements IDataConverter<ProductEntity, ProductVi
             productEntity = new ProductEntity();
             productEntity.setProductId(productView.getProductId());
             productEntity.setName(productView.getName());
-            ImmutableList.Builder<ArticleEntity> builder = ImmutableList.builder();
-            productView.getArticles().forEach(articleView -> builder.add(this.articleConverter.from(articleView)
+            ImmutableList.Builder<ArticleAmountEntity> builder = ImmutableList.builder();
+            productView.getArticles().forEach(articleView -> builder.add(this.articleAmountConverter.from(articleView)
                     .orElseThrow(() -> new ServiceException("Persistence exception."))));
-            productEntity.setArticles(builder.build());
+            productEntity.setBillOfMaterials(builder.build());
         }
         return Optional.ofNullable(productEntity);
     }
@@ -72,7 +75,10 @@ public class ProductConverter implements IDataConverter<ProductEntity, ProductVi
                     ProductView.builder()
                             .productId(productEntity.getProductId())
                             .name(productEntity.getName())
-                            .articles(this.articleConverter.from(productEntity.getArticles()))
+                            .articles(productEntity.getBillOfMaterials() != null
+                                    ? this.articleAmountConverter.from(productEntity.getBillOfMaterials())
+                                    // Not migrated yet, resolves the legacy article references.
+                                    : this.articleConverter.from(productEntity.getArticles()))
                             .build();
         }
         return Optional.ofNullable(productView);
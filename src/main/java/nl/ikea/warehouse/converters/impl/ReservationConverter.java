@@ -0,0 +1,79 @@
+package nl.ikea.warehouse.converters.impl;
+
+import nl.ikea.warehouse.converters.IDataConverter;
+import nl.ikea.warehouse.entities.ReservationEntity;
+import nl.ikea.warehouse.views.impl.ReservationView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Reservation converter implementation
+ *
+ * @see IDataConverter
+ */
+@Component
+public class ReservationConverter implements IDataConverter<ReservationEntity, ReservationView> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReservationConverter.class);
+
+    private final ArticleAmountConverter articleAmountConverter;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param articleAmountConverter {@link ArticleAmountConverter}
+     */
+    @Autowired
+    public ReservationConverter(ArticleAmountConverter articleAmountConverter) {
+        this.articleAmountConverter = articleAmountConverter;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param reservationView {@link ReservationView}
+     * @return {@link Optional} wrapping {@link ReservationEntity}
+     */
+    @Override
+    public Optional<ReservationEntity> from(ReservationView reservationView) {
+        LOGGER.info("Converting {} model data to entity", reservationView);
+        ReservationEntity reservationEntity = null;
+        if (reservationView != null) {
+            reservationEntity = new ReservationEntity();
+            reservationEntity.setReservationId(reservationView.getReservationId());
+            reservationEntity.setProductId(reservationView.getProductId());
+            reservationEntity.setQuantity(reservationView.getQuantity());
+            reservationEntity.setStatus(reservationView.getStatus());
+        }
+        return Optional.ofNullable(reservationEntity);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param reservationEntity {@link ReservationEntity}
+     * @return {@link Optional} wrapping {@link ReservationView}
+     */
+    @Override
+    public Optional<ReservationView> from(ReservationEntity reservationEntity) {
+        LOGGER.info("Converting {} entity data to model", reservationEntity);
+        ReservationView reservationView = null;
+        if (reservationEntity != null) {
+            reservationView =
+                    ReservationView.builder()
+                            .reservationId(reservationEntity.getReservationId())
+                            .productId(reservationEntity.getProductId())
+                            .quantity(reservationEntity.getQuantity())
+                            .status(reservationEntity.getStatus())
+                            .expiresAt(reservationEntity.getExpiresAt() == null
+                                    ? null : reservationEntity.getExpiresAt().toString())
+                            .articles(this.articleAmountConverter.from(reservationEntity.getArticles()))
+                            .build();
+        }
+        return Optional.ofNullable(reservationView);
+    }
+}
@@ -0,0 +1,21 @@
+package nl.ikea.warehouse.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Embedded amount of an article, referenced by its unique identifier.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArticleAmountEntity {
+
+    private Long articleId;
+    private Long amount;
+}
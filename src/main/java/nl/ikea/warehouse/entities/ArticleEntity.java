@@ -24,6 +24,9 @@ public class ArticleEntity {
     @Field(value = "name")
     private String name;
     private Long amount;
+    /** Amount held by active reservations, part of {@link #amount} but not available for sale. */
+    private Long reserved;
+    @Indexed(direction = IndexDirection.ASCENDING)
     private Long productId;
 
     @PersistenceConstructor
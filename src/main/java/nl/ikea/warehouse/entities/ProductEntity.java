@@ -28,7 +28,7 @@ import com.querydsl.core.annotations.QueryEntity;
 @CompoundIndexes({
         @CompoundIndex(
                 name = "article_index",
-                def = "{'articles.articleId' : 1}")})
+                def = "{'billOfMaterials.articleId' : 1}")})
 @Setter
 @Getter
 @EqualsAndHashCode
@@ -41,6 +41,11 @@ public class ProductEntity {
     @Field(value = "name")
     private String name;
 
+    /** Bill of materials, embedded so reading a product takes no further queries. */
+    @Field("billOfMaterials")
+    private List<ArticleAmountEntity> billOfMaterials;
+
+    /** Legacy layout referencing article documents, read only until migrated to {@link #billOfMaterials}. */
     @DBRef(lazy = true)
     @Field("articles")
     @CascadeSave
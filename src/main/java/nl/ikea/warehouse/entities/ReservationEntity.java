@@ -0,0 +1,38 @@
+package nl.ikea.warehouse.entities;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reservation entity. Ledger entry of stock held for a product until it is confirmed, released or
+ * expired.
+ */
+@Document
+@CompoundIndexes({
+        @CompoundIndex(
+                name = "status_expiry_index",
+                def = "{'status' : 1, 'expiresAt' : 1}")})
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+public class ReservationEntity {
+
+    @Id
+    private String reservationId;
+    private Long productId;
+    private Long quantity;
+    private List<ArticleAmountEntity> articles;
+    private ReservationStatus status;
+    private Instant createdAt;
+    private Instant expiresAt;
+}
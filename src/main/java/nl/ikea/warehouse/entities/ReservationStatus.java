@@ -0,0 +1,14 @@
+package nl.ikea.warehouse.entities;
+
+/**
+ * Reservation life cycle. {@link #PENDING} reservations are recorded but not known to hold their
+ * stock, which they only do once {@link #ACTIVE}; every other status is final. Only reservations
+ * leaving {@link #ACTIVE} return stock.
+ */
+public enum ReservationStatus {
+    PENDING,
+    ACTIVE,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,37 @@
+package nl.ikea.warehouse.events;
+
+import com.google.common.collect.ImmutableMap;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Map;
+
+/**
+ * Published once a stock change altered the amount of some products that can be built. Carries
+ * only the affected products, mapped to their new sellable quantity.
+ */
+public class AvailabilityChangedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = -6106405328315466473L;
+
+    private final transient Map<Long, Long> availability;
+
+    /**
+     * Constructor
+     *
+     * @param source       {@link Object} publishing component
+     * @param availability {@link Map} of product unique identifier to sellable quantity
+     */
+    public AvailabilityChangedEvent(Object source, Map<Long, Long> availability) {
+        super(source);
+        this.availability = ImmutableMap.copyOf(availability);
+    }
+
+    /**
+     * Get changed availability.
+     *
+     * @return {@link Map} of product unique identifier to sellable quantity
+     */
+    public Map<Long, Long> getAvailability() {
+        return this.availability;
+    }
+}
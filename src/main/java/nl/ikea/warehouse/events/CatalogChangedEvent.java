@@ -0,0 +1,21 @@
+package nl.ikea.warehouse.events;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published once products or the articles they refer to were written, so anything derived from
+ * the catalog is outdated.
+ */
+public class CatalogChangedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 4517286532760192135L;
+
+    /**
+     * Constructor
+     *
+     * @param source {@link Object} publishing component
+     */
+    public CatalogChangedEvent(Object source) {
+        super(source);
+    }
+}
@@ -0,0 +1,21 @@
+package nl.ikea.warehouse.events;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published once article stock, reserved amounts or names were written, so anything derived from
+ * the inventory is outdated.
+ */
+public class InventoryChangedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = -3170432960614251384L;
+
+    /**
+     * Constructor
+     *
+     * @param source {@link Object} publishing component
+     */
+    public InventoryChangedEvent(Object source) {
+        super(source);
+    }
+}
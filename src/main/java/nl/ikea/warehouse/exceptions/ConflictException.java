@@ -0,0 +1,40 @@
+package nl.ikea.warehouse.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Service or business layer exception. To be thrown when the request conflicts with the current
+ * state of a resource, such as insufficient stock.
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ConflictException extends ApplicationException {
+
+  private static final long serialVersionUID = -4278391205863318140L;
+
+  /** Telescopic constructors definition */
+  public ConflictException() {
+    super();
+  }
+
+  /**
+   * {@see ConflictException#ConflictException()}
+   *
+   * @param errorCode application error code {@link String} representation.
+   * @param message error message {@link String} representation.
+   */
+  public ConflictException(String errorCode, String message) {
+    super(errorCode, message);
+  }
+
+  /**
+   * {@see ConflictException#ConflictException()}
+   *
+   * @param errorCode application error code {@link String} representation.
+   * @param message error message {@link String} representation.
+   * @param cause error {@link Throwable} representation.
+   */
+  public ConflictException(String errorCode, String message, Throwable cause) {
+    super(errorCode, message, cause);
+  }
+}
@@ -0,0 +1,40 @@
+package nl.ikea.warehouse.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Service or business layer exception. To be thrown in case of temporarily exhausted capacity, the
+ * request may be retried later.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends ApplicationException {
+
+  private static final long serialVersionUID = 3416025395410253372L;
+
+  /** Telescopic constructors definition */
+  public ServiceUnavailableException() {
+    super();
+  }
+
+  /**
+   * {@see ServiceUnavailableException#ServiceUnavailableException()}
+   *
+   * @param errorCode application error code {@link String} representation.
+   * @param message error message {@link String} representation.
+   */
+  public ServiceUnavailableException(String errorCode, String message) {
+    super(errorCode, message);
+  }
+
+  /**
+   * {@see ServiceUnavailableException#ServiceUnavailableException()}
+   *
+   * @param errorCode application error code {@link String} representation.
+   * @param message error message {@link String} representation.
+   * @param cause error {@link Throwable} representation.
+   */
+  public ServiceUnavailableException(String errorCode, String message, Throwable cause) {
+    super(errorCode, message, cause);
+  }
+}
@@ -3,9 +3,11 @@ package nl.ikea.warehouse.exceptions.handlers;
 import static nl.ikea.warehouse.exceptions.handlers.ExceptionHandlerHelper.generateErrorPayload;
 
 import nl.ikea.warehouse.exceptions.BadRequestException;
+import nl.ikea.warehouse.exceptions.ConflictException;
 import nl.ikea.warehouse.exceptions.PersistenceException;
 import nl.ikea.warehouse.exceptions.ResourceNotFoundException;
 import nl.ikea.warehouse.exceptions.ServiceException;
+import nl.ikea.warehouse.exceptions.ServiceUnavailableException;
 import nl.ikea.warehouse.exceptions.errors.ApplicationCustomError;
 import nl.ikea.warehouse.exceptions.errors.ErrorItem;
 import java.util.List;
@@ -13,6 +15,7 @@ import java.util.stream.Collectors;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -189,6 +192,68 @@ public class ApplicationResponseExceptionHandler extends ResponseEntityException
         HttpStatus.BAD_REQUEST);
   }
 
+  /**
+   * Mapping exception to particular HTTP error status code.
+   *
+   * @param ex {@link ConflictException} handled exception
+   * @param request {@link WebRequest} initialized request
+   * @return {@link ResponseEntity} mapping HTTP error status code
+   */
+  @ExceptionHandler(value = {ConflictException.class})
+  @ResponseStatus(value = HttpStatus.CONFLICT)
+  @ResponseBody
+  public ResponseEntity<ApplicationCustomError> handleConflict(
+      ConflictException ex, WebRequest request) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+    return new ResponseEntity<>(
+        new ApplicationCustomError(
+            new ErrorItem(HttpStatus.CONFLICT.value(), ex.getErrorCode(), ex.getMessage())),
+        headers,
+        HttpStatus.CONFLICT);
+  }
+
+  /**
+   * Mapping exception to particular HTTP error status code.
+   *
+   * @param ex {@link ServiceUnavailableException} handled exception
+   * @param request {@link WebRequest} initialized request
+   * @return {@link ResponseEntity} mapping HTTP error status code
+   */
+  @ExceptionHandler(value = {ServiceUnavailableException.class})
+  @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+  @ResponseBody
+  public ResponseEntity<ApplicationCustomError> handleServiceUnavailable(
+      ServiceUnavailableException ex, WebRequest request) {
+    HttpHeaders headers = new HttpHeaders();
+    headers.set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+    headers.set(HttpHeaders.RETRY_AFTER, "1");
+    return new ResponseEntity<>(
+        new ApplicationCustomError(
+            new ErrorItem(
+                HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getErrorCode(), ex.getMessage())),
+        headers,
+        HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  /**
+   * Mapping rejected asynchronous work, such as streamed responses beyond the stream executor
+   * capacity, to the same response as {@link ServiceUnavailableException}.
+   *
+   * @param ex {@link TaskRejectedException} handled exception
+   * @param request {@link WebRequest} initialized request
+   * @return {@link ResponseEntity} mapping HTTP error status code
+   */
+  @ExceptionHandler(value = {TaskRejectedException.class})
+  @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+  @ResponseBody
+  public ResponseEntity<ApplicationCustomError> handleTaskRejected(
+      TaskRejectedException ex, WebRequest request) {
+    return handleServiceUnavailable(
+        new ServiceUnavailableException("MSG_IKEA_503", "Stream capacity exhausted, retry later.", ex),
+        request);
+  }
+
   /**
    * Mapping NOT_FOUND resource/handler exception.
    *
@@ -0,0 +1,168 @@
+package nl.ikea.warehouse.filters;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import nl.ikea.warehouse.entities.QProductEntity;
+import nl.ikea.warehouse.exceptions.BadRequestException;
+import nl.ikea.warehouse.services.IAvailabilityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Translates product filter expressions into Querydsl predicates run by Mongo. An expression is a
+ * comma separated list of terms, all of which must hold:
+ * <ul>
+ * <li>{@code name:<prefix>} name starting with the prefix, served by the name index</li>
+ * <li>{@code article:<id>} bill of materials containing the article, served by the article index</li>
+ * <li>{@code id:<from>..<to>} unique identifier within the inclusive range, either bound optional</li>
+ * <li>{@code available:<n>} more than n units can be built from current stock</li>
+ * </ul>
+ * {@code active}, the default, and an empty expression match every product. Availability is not
+ * persisted but computed in memory by {@link IAvailabilityService}, hence the last term is left
+ * out of the predicate: callers page through the matching unique identifiers with
+ * {@link #getAvailableProductIds(String, Long, int)} and push down one page of them at a time.
+ */
+@Component
+public class ProductFilter {
+
+    public static final String ACTIVE = "active";
+    private static final String TERM_SEPARATOR = ",";
+    private static final String RANGE_SEPARATOR = "..";
+    private static final String NAME = "name";
+    private static final String ARTICLE = "article";
+    private static final String ID = "id";
+    private static final String AVAILABLE = "available";
+    private static final QProductEntity PRODUCT = QProductEntity.productEntity;
+
+    private final IAvailabilityService iAvailabilityService;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param iAvailabilityService {@link IAvailabilityService}
+     */
+    @Autowired
+    public ProductFilter(IAvailabilityService iAvailabilityService) {
+        this.iAvailabilityService = iAvailabilityService;
+    }
+
+    /**
+     * Translate filter expression.
+     *
+     * @param filter {@link String} filter expression, possibly null
+     * @return {@link Predicate}, with no condition if every product matches
+     * @throws BadRequestException if the expression is malformed
+     */
+    public Predicate parse(String filter) {
+        BooleanBuilder predicate = new BooleanBuilder();
+        if (filter == null) {
+            return predicate;
+        }
+        for (String term : filter.split(TERM_SEPARATOR)) {
+            String trimmed = term.trim();
+            if (trimmed.isEmpty() || ACTIVE.equalsIgnoreCase(trimmed)) {
+                continue;
+            }
+            int separator = trimmed.indexOf(':');
+            if (separator < 0) {
+                throw invalid(trimmed);
+            }
+            String value = trimmed.substring(separator + 1).trim();
+            switch (trimmed.substring(0, separator).trim().toLowerCase(Locale.ROOT)) {
+                case NAME:
+                    if (value.isEmpty()) {
+                        throw invalid(trimmed);
+                    }
+                    predicate.and(PRODUCT.name.startsWith(value));
+                    break;
+                case ARTICLE:
+                    predicate.and(PRODUCT.billOfMaterials.any().articleId.eq(number(trimmed, value)));
+                    break;
+                case ID:
+                    int range = value.indexOf(RANGE_SEPARATOR);
+                    if (range < 0) {
+                        predicate.and(PRODUCT.productId.eq(number(trimmed, value)));
+                        break;
+                    }
+                    String from = value.substring(0, range).trim();
+                    String to = value.substring(range + RANGE_SEPARATOR.length()).trim();
+                    if (from.isEmpty() && to.isEmpty()) {
+                        throw invalid(trimmed);
+                    }
+                    if (!from.isEmpty()) {
+                        predicate.and(PRODUCT.productId.goe(number(trimmed, from)));
+                    }
+                    if (!to.isEmpty()) {
+                        predicate.and(PRODUCT.productId.loe(number(trimmed, to)));
+                    }
+                    break;
+                case AVAILABLE:
+                    // Validated only, served by getAvailableProductIds.
+                    number(trimmed, value);
+                    break;
+                default:
+                    throw invalid(trimmed);
+            }
+        }
+        return predicate;
+    }
+
+    /**
+     * Retrieve the next page of unique identifiers of products satisfying the availability terms of
+     * the filter expression.
+     *
+     * @param filter {@link String} filter expression, possibly null
+     * @param after  unique identifier the products must follow, null to start from the first one
+     * @param limit  maximum number of unique identifiers
+     * @return {@link List} of product unique identifiers in ascending order, null if the expression
+     * does not filter on availability
+     * @throws BadRequestException if the expression is malformed
+     */
+    public List<Long> getAvailableProductIds(String filter, Long after, int limit) {
+        Long quantity = null;
+        if (filter != null) {
+            for (String term : filter.split(TERM_SEPARATOR)) {
+                String trimmed = term.trim();
+                int separator = trimmed.indexOf(':');
+                if (separator >= 0 && AVAILABLE.equalsIgnoreCase(trimmed.substring(0, separator).trim())) {
+                    long value = number(trimmed, trimmed.substring(separator + 1).trim());
+                    quantity = quantity == null ? value : Math.max(quantity, value);
+                }
+            }
+        }
+        return quantity == null ? null : this.iAvailabilityService.getProductIds(quantity, after, limit);
+    }
+
+    /**
+     * Check whether the products matching the filter expression change along with stock.
+     *
+     * @param filter {@link String} filter expression, possibly null
+     * @return true if the expression filters on availability
+     */
+    public static boolean dependsOnStock(String filter) {
+        if (filter != null) {
+            for (String term : filter.split(TERM_SEPARATOR)) {
+                int separator = term.indexOf(':');
+                if (separator >= 0 && AVAILABLE.equalsIgnoreCase(term.substring(0, separator).trim())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static long number(String term, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw invalid(term);
+        }
+    }
+
+    private static BadRequestException invalid(String term) {
+        return new BadRequestException("MSG_IKEA_400", "Invalid filter term: " + term + ".");
+    }
+}
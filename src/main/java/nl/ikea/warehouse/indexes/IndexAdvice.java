@@ -0,0 +1,38 @@
+package nl.ikea.warehouse.indexes;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Outcome of analysing a repository query: the plan it runs with and the index it misses, if any.
+ */
+@Getter
+@ToString
+@Builder
+public class IndexAdvice {
+
+    /**
+     * Query plans, as far as the advisor tells them apart.
+     */
+    public enum Plan {
+        /** Served by an index. */
+        IXSCAN,
+        /** Reads every document of the collection. */
+        COLLSCAN
+    }
+
+    private final String repository;
+    private final String method;
+    private final String collection;
+    private final String query;
+    private final Plan plan;
+    /** Whether the plan comes from {@code explain} rather than from the existing indexes. */
+    private final boolean explained;
+    /** Keys of the index the query misses, empty if served by an index. */
+    private final List<String> missingIndex;
+    /** Whether the missing index was created. */
+    private final boolean created;
+}
@@ -0,0 +1,189 @@
+package nl.ikea.warehouse.indexes;
+
+import com.mongodb.MongoException;
+import nl.ikea.warehouse.indexes.IndexAdvice.Plan;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies that every {@link Query} annotated repository method is served by an index. Each query
+ * is mapped like Spring Data maps it, property names to field names, and explained. Servers not
+ * supporting {@code explain} are answered from the existing indexes instead: a query is served if
+ * it matches the unique identifier or the leading key of an index. Missing indexes are reported on
+ * startup, and created if configured to, and the analysis is exposed by {@link
+ * IndexAdvisorEndpoint}.
+ */
+@Component
+public class IndexAdvisor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexAdvisor.class);
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\?#\\{[^}]*}|\\?\\d+");
+    private static final String ID_FIELD = "_id";
+    private static final String INDEX_NAME_PREFIX = "advised_";
+
+    private final ApplicationContext applicationContext;
+    private final MongoTemplate mongoTemplate;
+    private final boolean createMissing;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param applicationContext {@link ApplicationContext} holding the repositories
+     * @param mongoTemplate      {@link MongoTemplate}
+     * @param createMissing      create missing indexes on startup
+     */
+    @Autowired
+    public IndexAdvisor(
+            ApplicationContext applicationContext,
+            MongoTemplate mongoTemplate,
+            @Value("${warehouse.indexes.create-missing:false}") boolean createMissing) {
+        this.applicationContext = applicationContext;
+        this.mongoTemplate = mongoTemplate;
+        this.createMissing = createMissing;
+    }
+
+    /**
+     * Verify repository queries on startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        advise(this.createMissing).stream()
+                .filter(advice -> advice.getPlan() == Plan.COLLSCAN)
+                .forEach(advice -> LOGGER.warn("{}.{}() scans collection {} with {}, index on {} {}.",
+                        advice.getRepository(), advice.getMethod(), advice.getCollection(), advice.getQuery(),
+                        advice.getMissingIndex(), advice.isCreated() ? "created" : "missing"));
+    }
+
+    /**
+     * Analyse every {@link Query} annotated repository method.
+     *
+     * @param create create missing indexes
+     * @return {@link List} of {@link IndexAdvice}
+     */
+    public List<IndexAdvice> advise(boolean create) {
+        Repositories repositories = new Repositories(this.applicationContext);
+        QueryMapper queryMapper = new QueryMapper(this.mongoTemplate.getConverter());
+        List<IndexAdvice> advices = new ArrayList<>();
+        for (Class<?> domainType : repositories) {
+            Optional<RepositoryInformation> information = repositories.getRepositoryInformationFor(domainType);
+            if (!information.isPresent()) {
+                continue;
+            }
+            MongoPersistentEntity<?> entity =
+                    this.mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(domainType);
+            for (Method method : information.get().getQueryMethods()) {
+                Query query = method.getAnnotation(Query.class);
+                if (query != null && !query.value().isEmpty()) {
+                    Document filter = queryMapper.getMappedObject(
+                            Document.parse(PLACEHOLDER.matcher(query.value()).replaceAll("null")), Optional.of(entity));
+                    advices.add(advise(information.get().getRepositoryInterface().getSimpleName(),
+                            method.getName(), entity.getCollection(), filter, create));
+                }
+            }
+        }
+        return advices;
+    }
+
+    private IndexAdvice advise(String repository, String method, String collection, Document filter, boolean create) {
+        List<String> fields = filter.keySet().stream()
+                .filter(field -> !field.startsWith("$"))
+                .collect(Collectors.toList());
+        Plan plan = explain(collection, filter);
+        boolean explained = plan != null;
+        if (!explained) {
+            plan = indexed(collection, fields) ? Plan.IXSCAN : Plan.COLLSCAN;
+        }
+        List<String> missingIndex = plan == Plan.COLLSCAN ? fields : Collections.emptyList();
+        boolean created = false;
+        if (create && !missingIndex.isEmpty()) {
+            Index index = new Index().named(INDEX_NAME_PREFIX + String.join("_", missingIndex));
+            missingIndex.forEach(field -> index.on(field, Sort.Direction.ASC));
+            this.mongoTemplate.indexOps(collection).ensureIndex(index);
+            created = true;
+        }
+        return IndexAdvice.builder()
+                .repository(repository)
+                .method(method)
+                .collection(collection)
+                .query(filter.toJson())
+                .plan(plan)
+                .explained(explained)
+                .missingIndex(missingIndex)
+                .created(created)
+                .build();
+    }
+
+    /**
+     * Explain the query.
+     *
+     * @return {@link Plan} of the winning plan, or null if the server does not explain queries
+     */
+    private Plan explain(String collection, Document filter) {
+        try {
+            Document explanation = this.mongoTemplate.getDb().runCommand(
+                    new Document("explain", new Document("find", collection).append("filter", filter))
+                            .append("verbosity", "queryPlanner"));
+            Object queryPlanner = explanation.get("queryPlanner");
+            if (!(queryPlanner instanceof Document)) {
+                return null;
+            }
+            return scans(((Document) queryPlanner).get("winningPlan")) ? Plan.COLLSCAN : Plan.IXSCAN;
+        } catch (MongoException e) {
+            LOGGER.debug("Unable to explain query on {}: {}.", collection, e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean scans(Object stage) {
+        if (!(stage instanceof Document)) {
+            return false;
+        }
+        Document document = (Document) stage;
+        if (Plan.COLLSCAN.name().equals(document.getString("stage"))) {
+            return true;
+        }
+        if (scans(document.get("inputStage"))) {
+            return true;
+        }
+        Object inputStages = document.get("inputStages");
+        return inputStages instanceof List && ((List<?>) inputStages).stream().anyMatch(IndexAdvisor::scans);
+    }
+
+    private boolean indexed(String collection, List<String> fields) {
+        if (fields.contains(ID_FIELD)) {
+            return true;
+        }
+        for (IndexInfo indexInfo : this.mongoTemplate.indexOps(collection).getIndexInfo()) {
+            List<IndexField> indexFields = indexInfo.getIndexFields();
+            if (!indexFields.isEmpty() && fields.contains(indexFields.get(0).getKey())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
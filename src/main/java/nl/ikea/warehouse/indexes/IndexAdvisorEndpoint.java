@@ -0,0 +1,39 @@
+package nl.ikea.warehouse.indexes;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint exposing the {@link IndexAdvisor} analysis of repository queries, at
+ * {@code /actuator/indexes}. Reading it analyses the queries again but never creates indexes.
+ */
+@Component
+@Endpoint(id = "indexes")
+public class IndexAdvisorEndpoint {
+
+    private final IndexAdvisor indexAdvisor;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param indexAdvisor {@link IndexAdvisor}
+     */
+    @Autowired
+    public IndexAdvisorEndpoint(IndexAdvisor indexAdvisor) {
+        this.indexAdvisor = indexAdvisor;
+    }
+
+    /**
+     * Analyse repository queries.
+     *
+     * @return {@link List} of {@link IndexAdvice}
+     */
+    @ReadOperation
+    public List<IndexAdvice> indexes() {
+        return this.indexAdvisor.advise(false);
+    }
+}
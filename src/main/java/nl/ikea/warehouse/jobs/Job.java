@@ -0,0 +1,158 @@
+package nl.ikea.warehouse.jobs;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+import nl.ikea.warehouse.pipelines.BatchReport;
+
+/**
+ * Background job progress holder. Mutated by the executing thread and read concurrently by
+ * progress polling, hence all progress figures are atomic or volatile.
+ */
+@Getter
+public class Job {
+
+    private final String id;
+    private final String type;
+    private final Instant createdAt;
+
+    /** Amount of work units (e.g. bytes or documents) the job is expected to process, 0 if unknown. */
+    private final long total;
+
+    private volatile JobStatus status = JobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String message;
+    private volatile long progress;
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param id    {@link String} job unique identifier
+     * @param type  {@link String} job type
+     * @param total expected amount of work units, 0 if unknown
+     */
+    public Job(String id, String type, long total) {
+        this.id = id;
+        this.type = type;
+        this.total = total;
+        this.createdAt = Instant.now();
+    }
+
+    /** Mark job as running. */
+    public void start() {
+        this.startedAt = Instant.now();
+        this.status = JobStatus.RUNNING;
+    }
+
+    /** Mark job as successfully completed. */
+    public void complete() {
+        this.finishedAt = Instant.now();
+        this.progress = this.total;
+        this.status = JobStatus.COMPLETED;
+    }
+
+    /**
+     * Mark job as failed.
+     *
+     * @param message {@link String} failure reason
+     */
+    public void fail(String message) {
+        this.finishedAt = Instant.now();
+        this.message = message;
+        this.status = JobStatus.FAILED;
+    }
+
+    /**
+     * Account a parsed row.
+     */
+    public void parsed() {
+        this.rowsParsed.incrementAndGet();
+    }
+
+    /**
+     * Account processed work units.
+     *
+     * @param progress amount of work units processed so far
+     */
+    public void progress(long progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Account a persisted batch.
+     *
+     * @param batchReport {@link BatchReport}
+     */
+    public void batch(BatchReport batchReport) {
+        this.rowsWritten.addAndGet(batchReport.getWritten());
+        this.rowsFailed.addAndGet(batchReport.getFailed());
+    }
+
+    /**
+     * Account written and failed rows not reported through a {@link BatchReport}.
+     *
+     * @param written amount of written rows
+     * @param failed  amount of failed rows
+     */
+    public void rows(long written, long failed) {
+        this.rowsWritten.addAndGet(written);
+        this.rowsFailed.addAndGet(failed);
+    }
+
+    /**
+     * Whether job reached a final state.
+     *
+     * @return {@link Boolean}
+     */
+    public boolean isFinished() {
+        return this.status == JobStatus.COMPLETED || this.status == JobStatus.FAILED;
+    }
+
+    /**
+     * Time spent running so far, or in total once finished.
+     *
+     * @return {@link Duration}
+     */
+    public Duration getElapsed() {
+        if (this.startedAt == null) {
+            return Duration.ZERO;
+        }
+        return Duration.between(this.startedAt, this.finishedAt != null ? this.finishedAt : Instant.now());
+    }
+
+    /**
+     * Written and failed rows per second.
+     *
+     * @return throughput, 0 until the job started
+     */
+    public double getThroughput() {
+        long millis = getElapsed().toMillis();
+        if (millis == 0) {
+            return 0;
+        }
+        return (this.rowsWritten.get() + this.rowsFailed.get()) * 1000d / millis;
+    }
+
+    /**
+     * Estimated remaining time, extrapolated from processed work units.
+     *
+     * @return {@link Duration}, {@code null} while it cannot be estimated
+     */
+    public Duration getEta() {
+        if (isFinished()) {
+            return Duration.ZERO;
+        }
+        long processed = this.progress;
+        if (this.total <= 0 || processed <= 0) {
+            return null;
+        }
+        long remaining = Math.max(0, this.total - processed);
+        return Duration.ofMillis((long) ((double) getElapsed().toMillis() * remaining / processed));
+    }
+}
@@ -0,0 +1,9 @@
+package nl.ikea.warehouse.jobs;
+
+/** Background job lifecycle states. */
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
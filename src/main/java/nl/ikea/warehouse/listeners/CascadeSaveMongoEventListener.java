@@ -1,18 +1,43 @@
 package nl.ikea.warehouse.listeners;
 
-import nl.ikea.warehouse.listeners.callbacks.CascadeCallback;
 import nl.ikea.warehouse.annotations.CascadeSave;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mapping.Association;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
 import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
 import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
-import org.springframework.util.ReflectionUtils;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Mongo event listener. Triggered on cascade persistence of parent entity will explicitly trigger
- * persist for child entities annotated with
+ * persist for child entities annotated with {@link CascadeSave}. The cascaded properties of every
+ * class are resolved once from the mapping context and cached, their values are read through the
+ * mapping property accessors, and the children are upserted with one unordered bulk write per
+ * child class instead of one save per child. Lazy references are resolved and grouped under the
+ * mapped class rather than the class of their proxy.
  *
  * @see CascadeSave
  * @see AbstractMongoEventListener
@@ -20,6 +45,10 @@ import org.springframework.util.ReflectionUtils;
 public class CascadeSaveMongoEventListener extends AbstractMongoEventListener<Object> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(CascadeSaveMongoEventListener.class);
+  private static final String ID_FIELD = "_id";
+
+  private final ConcurrentMap<Class<?>, List<MongoPersistentProperty>> cascadedProperties =
+      new ConcurrentHashMap<>();
 
   @Autowired private MongoOperations mongoOperations;
 
@@ -30,9 +59,110 @@ public class CascadeSaveMongoEventListener extends AbstractMongoEventListener<Ob
    */
   @Override
   public void onBeforeConvert(BeforeConvertEvent<Object> event) {
-    LOGGER.info("Mongo event listener cascade save with: {}", event);
     Object source = event.getSource();
-    ReflectionUtils.doWithFields(
-        source.getClass(), new CascadeCallback(source, this.mongoOperations));
+    if (source == null || cascadedProperties(ClassUtils.getUserClass(source)).isEmpty()) {
+      return;
+    }
+    LOGGER.info("Mongo event listener cascade save with: {}", event);
+    Map<Class<?>, List<Object>> children = new LinkedHashMap<>();
+    collect(source, children, Collections.newSetFromMap(new IdentityHashMap<>()));
+    children.forEach(this::save);
+  }
+
+  /**
+   * Collect cascaded children of the entity, and of those children in turn, grouped by class.
+   *
+   * @param entity   entity to cascade from
+   * @param children collected children by class
+   * @param visited  entities already collected, guarding against cycles
+   */
+  private void collect(Object entity, Map<Class<?>, List<Object>> children, Set<Object> visited) {
+    Class<?> type = ClassUtils.getUserClass(entity);
+    List<MongoPersistentProperty> properties = cascadedProperties(type);
+    if (properties.isEmpty()) {
+      return;
+    }
+    PersistentPropertyAccessor accessor = persistentEntity(type).getPropertyAccessor(entity);
+    for (MongoPersistentProperty property : properties) {
+      Object value = accessor.getProperty(property);
+      Collection<?> values =
+          value instanceof Collection ? (Collection<?>) value
+              : value == null ? Collections.emptyList() : Collections.singletonList(value);
+      for (Object element : values) {
+        Object child =
+            element instanceof LazyLoadingProxy ? ((LazyLoadingProxy) element).getTarget() : element;
+        if (child != null && visited.add(child)) {
+          children
+              .computeIfAbsent(ClassUtils.getUserClass(child), key -> new ArrayList<>())
+              .add(child);
+          collect(child, children, visited);
+        }
+      }
+    }
+  }
+
+  /**
+   * Persist children of one class with a single bulk upsert. Children without identifier need one
+   * generated, which only a regular save provides.
+   *
+   * @param type     children class
+   * @param children children to persist
+   */
+  private void save(Class<?> type, List<Object> children) {
+    MongoPersistentEntity<?> entity = persistentEntity(type);
+    List<Pair<Query, Update>> upserts = new ArrayList<>(children.size());
+    for (Object child : children) {
+      Object id = entity.getIdentifierAccessor(child).getIdentifier();
+      if (id == null) {
+        this.mongoOperations.save(child);
+        continue;
+      }
+      Document document = new Document();
+      this.mongoOperations.getConverter().write(child, document);
+      Update update = new Update();
+      document.forEach(
+          (key, value) -> {
+            if (!ID_FIELD.equals(key)) {
+              update.set(key, value);
+            }
+          });
+      upserts.add(Pair.of(Query.query(Criteria.where(ID_FIELD).is(document.get(ID_FIELD))), update));
+    }
+    if (!upserts.isEmpty()) {
+      this.mongoOperations
+          .bulkOps(BulkOperations.BulkMode.UNORDERED, type)
+          .upsert(upserts)
+          .execute();
+    }
+  }
+
+  private List<MongoPersistentProperty> cascadedProperties(Class<?> type) {
+    return this.cascadedProperties.computeIfAbsent(
+        type,
+        key -> {
+          MongoPersistentEntity<?> entity = persistentEntity(key);
+          if (entity == null) {
+            return Collections.emptyList();
+          }
+          List<MongoPersistentProperty> properties = new ArrayList<>();
+          entity.doWithProperties(
+              (MongoPersistentProperty property) -> {
+                if (property.isDbReference() && property.isAnnotationPresent(CascadeSave.class)) {
+                  properties.add(property);
+                }
+              });
+          entity.doWithAssociations(
+              (Association<MongoPersistentProperty> association) -> {
+                MongoPersistentProperty property = association.getInverse();
+                if (property.isDbReference() && property.isAnnotationPresent(CascadeSave.class)) {
+                  properties.add(property);
+                }
+              });
+          return Collections.unmodifiableList(properties);
+        });
+  }
+
+  private MongoPersistentEntity<?> persistentEntity(Class<?> type) {
+    return this.mongoOperations.getConverter().getMappingContext().getPersistentEntity(type);
   }
 }
@@ -0,0 +1,106 @@
+package nl.ikea.warehouse.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import nl.ikea.warehouse.converters.IDataConverter;
+import nl.ikea.warehouse.services.IArticleService;
+import nl.ikea.warehouse.services.IProductService;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Instruments {@link IProductService} and {@link IArticleService} implementations,
+ * {@link IDataConverter} batch conversions and Spring Data {@link Repository} proxies with a
+ * {@link TimedInvocationInterceptor}. Services and converters are wrapped in class based proxies,
+ * as they are also injected by implementation type, while an advisor is added in front of the
+ * advice chain of repository proxies. Percentiles and histogram buckets are configured through the
+ * {@code management.metrics.distribution.*.warehouse} properties.
+ */
+@Component
+public class LayerMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * Dependency injection default constructor. The {@link MeterRegistry} is resolved on first use,
+     * so it is still configured by every post processor of the context.
+     *
+     * @param meterRegistryProvider {@link ObjectProvider} of {@link MeterRegistry}
+     */
+    @Autowired
+    public LayerMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param bean     bean instance
+     * @param beanName bean name
+     * @return instrumented bean, or the bean itself when not part of an instrumented layer
+     */
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof IProductService || bean instanceof IArticleService) {
+            Class<?> service = bean instanceof IProductService ? IProductService.class : IArticleService.class;
+            return proxy(bean, advisor(MetricsLayer.SERVICE, service.getSimpleName(), service));
+        }
+        if (bean instanceof IDataConverter) {
+            return proxy(bean, advisor(MetricsLayer.CONVERTER, ClassUtils.getUserClass(bean).getSimpleName(), null));
+        }
+        if (bean instanceof Repository && bean instanceof Advised && !((Advised) bean).isFrozen()) {
+            String component = Arrays.stream(AopProxyUtils.proxiedUserInterfaces(bean))
+                    .filter(Repository.class::isAssignableFrom)
+                    .findFirst()
+                    .map(Class::getSimpleName)
+                    .orElse(beanName);
+            ((Advised) bean).addAdvisor(0, advisor(MetricsLayer.REPOSITORY, component, null));
+        }
+        return bean;
+    }
+
+    private static Object proxy(Object bean, Advisor advisor) {
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(advisor);
+        return proxyFactory.getProxy(ClassUtils.getDefaultClassLoader());
+    }
+
+    /**
+     * Advisor timing the methods of the layer, restricted to the methods of the contract if any,
+     * e.g. leaving out event listener methods of services.
+     */
+    private Advisor advisor(MetricsLayer layer, String component, Class<?> contract) {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return layer.isTimed(method) && (contract == null
+                        || ClassUtils.hasMethod(contract, method.getName(), method.getParameterTypes()));
+            }
+        };
+        return new DefaultPointcutAdvisor(pointcut,
+                new TimedInvocationInterceptor(layer, component, this::getMeterRegistry));
+    }
+
+    private MeterRegistry getMeterRegistry() {
+        MeterRegistry registry = this.meterRegistry;
+        if (registry == null) {
+            registry = this.meterRegistryProvider.getIfAvailable();
+            this.meterRegistry = registry;
+        }
+        return registry;
+    }
+}
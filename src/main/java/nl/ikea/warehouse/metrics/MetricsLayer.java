@@ -0,0 +1,63 @@
+package nl.ikea.warehouse.metrics;
+
+import nl.ikea.warehouse.converters.IDataConverter;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+/**
+ * Application layers timed by {@link TimedInvocationInterceptor}, each publishing a single timer
+ * tagged by component, operation, outcome and exception.
+ */
+public enum MetricsLayer {
+
+    /** Product and article service methods. */
+    SERVICE("warehouse.service", "Service method invocations."),
+    /** {@link IDataConverter} batch conversions, single element conversions are not timed. */
+    CONVERTER("warehouse.converter", "Data converter batch conversions.") {
+        @Override
+        public boolean isTimed(Method method) {
+            return super.isTimed(method)
+                    && method.getParameterCount() == 1
+                    && Collection.class.isAssignableFrom(method.getParameterTypes()[0]);
+        }
+    },
+    /** Spring Data repository calls. Stream results are timed up to the opening of the cursor. */
+    REPOSITORY("warehouse.repository", "Repository calls.");
+
+    private final String metricName;
+    private final String description;
+
+    MetricsLayer(String metricName, String description) {
+        this.metricName = metricName;
+        this.description = description;
+    }
+
+    /**
+     * Get timer name.
+     *
+     * @return timer name
+     */
+    public String getMetricName() {
+        return this.metricName;
+    }
+
+    /**
+     * Get timer description.
+     *
+     * @return timer description
+     */
+    public String getDescription() {
+        return this.description;
+    }
+
+    /**
+     * Whether invocations of the method are timed, {@link Object} methods never are.
+     *
+     * @param method invoked {@link Method}
+     * @return true when timed
+     */
+    public boolean isTimed(Method method) {
+        return method.getDeclaringClass() != Object.class;
+    }
+}
@@ -0,0 +1,178 @@
+package nl.ikea.warehouse.metrics;
+
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MongoDb driver {@link CommandListener} timing every command into the {@code mongodb.driver.commands}
+ * timer, tagged {@code command}, {@code collection} and {@code status} ({@code SUCCESS} or
+ * {@code FAILED}). Commands slower than {@code warehouse.mongo.slow-command-ms} are logged together
+ * with the shape of their filter, i.e. field names and operators with every value replaced by
+ * {@code ?}, so slow queries can be matched against indexes without logging catalog data.
+ */
+@Component
+public class MongoCommandMetricsListener implements CommandListener {
+
+    public static final String METRIC_NAME = "mongodb.driver.commands";
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoCommandMetricsListener.class);
+    private static final String SUCCESS = "SUCCESS";
+    private static final String FAILED = "FAILED";
+    private static final String NONE = "none";
+    private static final String EXPLAIN = "explain";
+    private static final BsonString PLACEHOLDER = new BsonString("?");
+
+    private final MeterRegistry meterRegistry;
+    private final long slowCommandMillis;
+    private final Map<Integer, StartedCommand> startedCommands = new ConcurrentHashMap<>();
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param meterRegistry     {@link MeterRegistry}
+     * @param slowCommandMillis duration in milliseconds above which commands are logged
+     */
+    @Autowired
+    public MongoCommandMetricsListener(MeterRegistry meterRegistry,
+                                       @Value("${warehouse.mongo.slow-command-ms:100}") long slowCommandMillis) {
+        this.meterRegistry = meterRegistry;
+        this.slowCommandMillis = slowCommandMillis;
+    }
+
+    /**
+     * {@inheritDoc} The command document is only valid during the callback, so the collection and
+     * filter shape are extracted right away.
+     *
+     * @param event {@link CommandStartedEvent}
+     */
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        BsonDocument command = event.getCommand();
+        this.startedCommands.put(event.getRequestId(), new StartedCommand(collection(event.getCommandName(), command),
+                LOGGER.isWarnEnabled() ? filterShape(command) : null));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@link CommandSucceededEvent}
+     */
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event, event.getElapsedTime(TimeUnit.NANOSECONDS), SUCCESS);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@link CommandFailedEvent}
+     */
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event, event.getElapsedTime(TimeUnit.NANOSECONDS), FAILED);
+    }
+
+    private void record(CommandEvent event, long elapsedNanos, String status) {
+        StartedCommand started = this.startedCommands.remove(event.getRequestId());
+        String collection = started == null ? NONE : started.collection;
+        Timer.builder(METRIC_NAME)
+                .description("MongoDb driver commands.")
+                .tag("command", event.getCommandName())
+                .tag("collection", collection)
+                .tag("status", status)
+                .register(this.meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedMillis >= this.slowCommandMillis && started != null) {
+            LOGGER.warn("Slow MongoDb command {} on {} took {} ms ({}), filter {}.", event.getCommandName(),
+                    collection, elapsedMillis, status, started.filterShape == null ? NONE : started.filterShape);
+        }
+    }
+
+    /**
+     * Collection a command operates on: the value of the command name key for collection commands,
+     * the {@code collection} field for {@code getMore}, that of the explained command for
+     * {@code explain} and {@code none} for database commands.
+     */
+    static String collection(String commandName, BsonDocument command) {
+        if (EXPLAIN.equals(commandName) && command.isDocument(EXPLAIN) && !command.getDocument(EXPLAIN).isEmpty()) {
+            BsonDocument explained = command.getDocument(EXPLAIN);
+            return collection(explained.getFirstKey(), explained);
+        }
+        BsonValue value = command.get("getMore".equals(commandName) ? "collection" : commandName);
+        return value != null && value.isString() ? value.asString().getValue() : NONE;
+    }
+
+    /**
+     * Filter shape of queries, updates, deletes and aggregations, also when explained, null for
+     * commands without filter. Only the first statement of bulk updates and deletes is considered.
+     */
+    static String filterShape(BsonDocument command) {
+        if (command.isDocument(EXPLAIN)) {
+            return filterShape(command.getDocument(EXPLAIN));
+        }
+        BsonValue filter = null;
+        if (command.isDocument("filter")) {
+            filter = command.get("filter");
+        } else if (command.isDocument("query")) {
+            filter = command.get("query");
+        } else if (command.isArray("pipeline")) {
+            filter = command.get("pipeline");
+        } else if (command.isArray("updates") || command.isArray("deletes")) {
+            BsonArray statements = command.getArray(command.containsKey("updates") ? "updates" : "deletes");
+            if (!statements.isEmpty() && statements.get(0).isDocument()) {
+                filter = statements.get(0).asDocument().get("q");
+            }
+        }
+        return filter == null ? null : shape(filter).toString();
+    }
+
+    private static BsonValue shape(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument shape = new BsonDocument();
+            value.asDocument().forEach((key, child) -> shape.append(key, shape(child)));
+            return shape;
+        }
+        if (value.isArray()) {
+            // Arrays of operands, such as $and clauses or pipeline stages, keep their structure,
+            // while $in style value lists collapse into a single placeholder.
+            BsonArray array = value.asArray();
+            if (array.stream().anyMatch(BsonValue::isDocument)) {
+                BsonArray shape = new BsonArray();
+                array.forEach(element -> shape.add(shape(element)));
+                return shape;
+            }
+            return new BsonArray(Collections.singletonList(PLACEHOLDER));
+        }
+        return PLACEHOLDER;
+    }
+
+    private static final class StartedCommand {
+
+        private final String collection;
+        private final String filterShape;
+
+        private StartedCommand(String collection, String filterShape) {
+            this.collection = collection;
+            this.filterShape = filterShape;
+        }
+    }
+}
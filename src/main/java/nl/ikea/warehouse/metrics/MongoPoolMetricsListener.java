@@ -0,0 +1,191 @@
+package nl.ikea.warehouse.metrics;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolListenerAdapter;
+import com.mongodb.event.ConnectionPoolOpenedEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import com.mongodb.event.ConnectionRemovedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * MongoDb driver connection pool listener publishing, per server, the time spent waiting for a
+ * connection as the {@code mongodb.driver.pool.checkout} timer and the {@code mongodb.driver.pool.size},
+ * {@code mongodb.driver.pool.checkedout}, {@code mongodb.driver.pool.waitqueuesize} and
+ * {@code mongodb.driver.pool.max} gauges, all tagged {@code server.address}. A checked out count
+ * stuck at the maximum together with a growing checkout time means the pool is saturated.
+ * <p>
+ * The synchronous driver enters and leaves the wait queue on the requesting thread, which is what
+ * the checkout time is measured on.
+ */
+@Component
+public class MongoPoolMetricsListener extends ConnectionPoolListenerAdapter {
+
+    public static final String METRIC_PREFIX = "mongodb.driver.pool.";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<ServerId, PoolStats> pools = new ConcurrentHashMap<>();
+    private final ThreadLocal<Timer.Sample> checkouts = new ThreadLocal<>();
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param meterRegistry {@link MeterRegistry}
+     */
+    @Autowired
+    public MongoPoolMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@link ConnectionPoolOpenedEvent}
+     */
+    @Override
+    public void connectionPoolOpened(ConnectionPoolOpenedEvent event) {
+        ServerId serverId = event.getServerId();
+        Tags tags = Tags.of("server.address", serverId.getAddress().toString());
+        PoolStats stats = new PoolStats(event.getSettings().getMaxSize());
+        stats.meters.add(gauge("size", "Connections in the pool, in use or idle.", tags, stats.size));
+        stats.meters.add(gauge("checkedout", "Connections in use.", tags, stats.checkedOut));
+        stats.meters.add(gauge("waitqueuesize", "Threads waiting for a connection.", tags, stats.waitQueueSize));
+        stats.meters.add(gauge("max", "Maximum number of connections in the pool.", tags, stats.maxSize));
+        stats.checkout = Timer.builder(METRIC_PREFIX + "checkout")
+                .description("Time spent waiting for a pooled connection.")
+                .tags(tags)
+                .register(this.meterRegistry);
+        stats.meters.add(stats.checkout);
+        this.pools.put(serverId, stats);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@link ConnectionPoolClosedEvent}
+     */
+    @Override
+    public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+        PoolStats stats = this.pools.remove(event.getServerId());
+        if (stats != null) {
+            stats.meters.forEach(this.meterRegistry::remove);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@link ConnectionPoolWaitQueueEnteredEvent}
+     */
+    @Override
+    public void waitQueueEntered(ConnectionPoolWaitQueueEnteredEvent event) {
+        PoolStats stats = this.pools.get(event.getServerId());
+        if (stats != null) {
+            stats.waitQueueSize.incrementAndGet();
+            this.checkouts.set(Timer.start(this.meterRegistry));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@link ConnectionPoolWaitQueueExitedEvent}
+     */
+    @Override
+    public void waitQueueExited(ConnectionPoolWaitQueueExitedEvent event) {
+        PoolStats stats = this.pools.get(event.getServerId());
+        Timer.Sample sample = this.checkouts.get();
+        this.checkouts.remove();
+        if (stats != null) {
+            stats.waitQueueSize.decrementAndGet();
+            if (sample != null) {
+                sample.stop(stats.checkout);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@link ConnectionCheckedOutEvent}
+     */
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        update(event.getConnectionId().getServerId(), stats -> stats.checkedOut.incrementAndGet());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@link ConnectionCheckedInEvent}
+     */
+    @Override
+    public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+        update(event.getConnectionId().getServerId(), stats -> stats.checkedOut.decrementAndGet());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@link ConnectionAddedEvent}
+     */
+    @Override
+    public void connectionAdded(ConnectionAddedEvent event) {
+        update(event.getConnectionId().getServerId(), stats -> stats.size.incrementAndGet());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param event {@link ConnectionRemovedEvent}
+     */
+    @Override
+    public void connectionRemoved(ConnectionRemovedEvent event) {
+        update(event.getConnectionId().getServerId(), stats -> stats.size.decrementAndGet());
+    }
+
+    private void update(ServerId serverId, Consumer<PoolStats> update) {
+        PoolStats stats = this.pools.get(serverId);
+        if (stats != null) {
+            update.accept(stats);
+        }
+    }
+
+    private Meter gauge(String name, String description, Tags tags, AtomicInteger value) {
+        return Gauge.builder(METRIC_PREFIX + name, value, AtomicInteger::get)
+                .description(description)
+                .tags(tags)
+                .register(this.meterRegistry);
+    }
+
+    private static final class PoolStats {
+
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicInteger checkedOut = new AtomicInteger();
+        private final AtomicInteger waitQueueSize = new AtomicInteger();
+        private final AtomicInteger maxSize;
+        private final List<Meter> meters = new ArrayList<>();
+        private Timer checkout;
+
+        private PoolStats(int maxSize) {
+            this.maxSize = new AtomicInteger(maxSize);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package nl.ikea.warehouse.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * {@link MethodInterceptor} timing invocations of a single component into the {@link MetricsLayer}
+ * timer, tagged {@code component}, {@code operation} (method name), {@code outcome}
+ * ({@code SUCCESS} or {@code ERROR}) and {@code exception} (simple class name or {@code None}).
+ * Converter batch conversions also count the converted elements. Invocations are not timed while
+ * no {@link MeterRegistry} is available yet.
+ */
+public class TimedInvocationInterceptor implements MethodInterceptor {
+
+    public static final String ELEMENTS_METRIC_SUFFIX = ".elements";
+    private static final String SUCCESS = "SUCCESS";
+    private static final String ERROR = "ERROR";
+    private static final String NONE = "None";
+
+    private final MetricsLayer layer;
+    private final String component;
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    /**
+     * Default constructor
+     *
+     * @param layer         {@link MetricsLayer} of the component
+     * @param component     component name, used as tag value
+     * @param meterRegistry {@link Supplier} of {@link MeterRegistry}, returning null while unavailable
+     */
+    public TimedInvocationInterceptor(MetricsLayer layer, String component, Supplier<MeterRegistry> meterRegistry) {
+        this.layer = layer;
+        this.component = component;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param invocation {@link MethodInvocation}
+     * @return invocation result
+     * @throws Throwable thrown by the invocation
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        MeterRegistry registry = this.meterRegistry.get();
+        if (registry == null) {
+            return invocation.proceed();
+        }
+        Timer.Sample sample = Timer.start(registry);
+        String exception = null;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(this.layer.getMetricName())
+                    .description(this.layer.getDescription())
+                    .tag("component", this.component)
+                    .tag("operation", method.getName())
+                    .tag("outcome", exception == null ? SUCCESS : ERROR)
+                    .tag("exception", exception == null ? NONE : exception)
+                    .register(registry));
+            if (this.layer == MetricsLayer.CONVERTER && invocation.getArguments()[0] instanceof Collection) {
+                registry.counter(this.layer.getMetricName() + ELEMENTS_METRIC_SUFFIX, "component", this.component)
+                        .increment(((Collection<?>) invocation.getArguments()[0]).size());
+            }
+        }
+    }
+}
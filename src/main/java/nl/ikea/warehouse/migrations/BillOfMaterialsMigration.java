@@ -0,0 +1,150 @@
+package nl.ikea.warehouse.migrations;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.events.CatalogChangedEvent;
+import nl.ikea.warehouse.services.IAvailabilityService;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rewrites products persisted with the legacy layout, a list of {@link DBRef} to article documents,
+ * into an embedded bill of materials. In that layout the article document amount is the amount the
+ * product requires, so it is copied into the embedded entry. Products are migrated in batches: one
+ * query resolves the articles of a whole batch and one unordered bulk update rewrites it. Runs once
+ * the application is ready and is idempotent, migrated products no longer match.
+ */
+@Component
+public class BillOfMaterialsMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BillOfMaterialsMigration.class);
+    private static final String ID_FIELD = "_id";
+    private static final String AMOUNT_FIELD = "amount";
+    private static final String ARTICLES_FIELD = "articles";
+    private static final String ARTICLE_ID_FIELD = "articleId";
+    private static final String BILL_OF_MATERIALS_FIELD = "billOfMaterials";
+
+    private final MongoTemplate mongoTemplate;
+    private final LegacyBillOfMaterialsResolver legacyBillOfMaterialsResolver;
+    private final IAvailabilityService iAvailabilityService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param mongoTemplate                 {@link MongoTemplate}
+     * @param legacyBillOfMaterialsResolver {@link LegacyBillOfMaterialsResolver}
+     * @param iAvailabilityService          {@link IAvailabilityService}
+     * @param applicationEventPublisher     {@link ApplicationEventPublisher}
+     * @param enabled                       run the migration on startup
+     * @param batchSize                     number of products rewritten per bulk operation
+     */
+    @Autowired
+    public BillOfMaterialsMigration(
+            MongoTemplate mongoTemplate,
+            LegacyBillOfMaterialsResolver legacyBillOfMaterialsResolver,
+            IAvailabilityService iAvailabilityService,
+            ApplicationEventPublisher applicationEventPublisher,
+            @Value("${warehouse.migrations.bill-of-materials.enabled:true}") boolean enabled,
+            @Value("${warehouse.migrations.bill-of-materials.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.legacyBillOfMaterialsResolver = legacyBillOfMaterialsResolver;
+        this.iAvailabilityService = iAvailabilityService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Migrate on startup, unless disabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (this.enabled) {
+            migrate();
+        }
+    }
+
+    /**
+     * Migrate every product still referencing article documents.
+     *
+     * @return number of migrated products
+     */
+    public long migrate() {
+        long started = System.nanoTime();
+        long migrated = 0;
+        List<Document> batch = new ArrayList<>(this.batchSize);
+        try (MongoCursor<Document> cursor = this.mongoTemplate
+                .getCollection(this.mongoTemplate.getCollectionName(ProductEntity.class))
+                .find(Filters.and(Filters.exists(ARTICLES_FIELD), Filters.exists(BILL_OF_MATERIALS_FIELD, false)))
+                .projection(Projections.include(ARTICLES_FIELD))
+                .iterator()) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == this.batchSize) {
+                    migrated += migrate(batch);
+                    batch.clear();
+                }
+            }
+        }
+        migrated += migrate(batch);
+        if (migrated > 0) {
+            this.iAvailabilityService.invalidate();
+            this.applicationEventPublisher.publishEvent(new CatalogChangedEvent(this));
+        }
+        LOGGER.info("Migrated {} products to embedded bill of materials in {} ms.",
+                migrated, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return migrated;
+    }
+
+    private int migrate(List<Document> products) {
+        if (products.isEmpty()) {
+            return 0;
+        }
+        Set<Long> articleIds = new HashSet<>();
+        products.forEach(product -> articleIds.addAll(LegacyBillOfMaterialsResolver.references(product)));
+        Map<Long, Long> amounts = this.legacyBillOfMaterialsResolver.amounts(articleIds);
+        List<Pair<Query, Update>> updates = new ArrayList<>(products.size());
+        for (Document product : products) {
+            List<Document> billOfMaterials = new ArrayList<>();
+            for (Long articleId : LegacyBillOfMaterialsResolver.references(product)) {
+                billOfMaterials.add(new Document(ARTICLE_ID_FIELD, articleId).append(AMOUNT_FIELD, amounts.get(articleId)));
+            }
+            updates.add(Pair.of(
+                    // Guarded, a product saved meanwhile already carries its bill of materials.
+                    Query.query(Criteria.where(ID_FIELD).is(product.get(ID_FIELD))
+                            .and(BILL_OF_MATERIALS_FIELD).exists(false)),
+                    new Update().set(BILL_OF_MATERIALS_FIELD, billOfMaterials).unset(ARTICLES_FIELD)));
+        }
+        return this.mongoTemplate
+                .bulkOps(BulkOperations.BulkMode.UNORDERED, this.mongoTemplate.getCollectionName(ProductEntity.class))
+                .updateOne(updates)
+                .execute()
+                .getModifiedCount();
+    }
+}
@@ -0,0 +1,161 @@
+package nl.ikea.warehouse.migrations;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import nl.ikea.warehouse.entities.ArticleAmountEntity;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.utils.BatchLoader;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves bills of materials of products not migrated by {@link BillOfMaterialsMigration} yet.
+ * Following their lazy {@link DBRef} to article documents costs a query per product, repeating
+ * the articles products share. Instead, the references of every legacy product being read are
+ * collected through a {@link BatchLoader} and resolved with one {@code $in} query, then the
+ * articles they refer to with another one, shared across all products. Products already carrying
+ * their bill of materials take no query at all.
+ */
+@Component
+public class LegacyBillOfMaterialsResolver {
+
+    private static final String ID_FIELD = "_id";
+    private static final String AMOUNT_FIELD = "amount";
+    private static final String ARTICLES_FIELD = "articles";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param mongoTemplate {@link MongoTemplate}
+     */
+    @Autowired
+    public LegacyBillOfMaterialsResolver(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Set bill of materials of every legacy product whose article references were not followed
+     * yet, from the articles they refer to, whose amount doubles as the required amount in that
+     * layout. Products are updated in memory only.
+     *
+     * @param products {@link List} of {@link ProductEntity}
+     * @return same {@link List} of {@link ProductEntity}
+     */
+    public List<ProductEntity> resolve(List<ProductEntity> products) {
+        List<Long> legacy = new ArrayList<>();
+        for (ProductEntity product : products) {
+            if (unresolved(product)) {
+                legacy.add(product.getProductId());
+            }
+        }
+        if (legacy.isEmpty()) {
+            return products;
+        }
+        BatchLoader<Long, List<Long>> references = new BatchLoader<>(this::findReferences).queue(legacy);
+        BatchLoader<Long, Long> amounts = new BatchLoader<>(this::amounts);
+        legacy.forEach(productId -> {
+            List<Long> articleIds = references.get(productId);
+            if (articleIds != null) {
+                amounts.queue(articleIds);
+            }
+        });
+        for (ProductEntity product : products) {
+            if (unresolved(product)) {
+                List<Long> articleIds = references.get(product.getProductId());
+                List<ArticleAmountEntity> billOfMaterials = new ArrayList<>();
+                if (articleIds != null) {
+                    articleIds.forEach(articleId ->
+                            billOfMaterials.add(new ArticleAmountEntity(articleId, amounts.get(articleId))));
+                }
+                product.setBillOfMaterials(billOfMaterials);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Check whether the product still refers to article documents not read yet.
+     */
+    private static boolean unresolved(ProductEntity product) {
+        return product != null
+                && product.getBillOfMaterials() == null
+                && product.getArticles() instanceof LazyLoadingProxy;
+    }
+
+    /**
+     * Get amounts of articles with one query.
+     *
+     * @param articleIds {@link Collection} of article unique identifiers
+     * @return {@link Map} of article unique identifier to amount, omitting unknown articles
+     */
+    Map<Long, Long> amounts(Collection<Long> articleIds) {
+        Map<Long, Long> amounts = new HashMap<>(articleIds.size());
+        try (MongoCursor<Document> cursor = this.mongoTemplate
+                .getCollection(this.mongoTemplate.getCollectionName(ArticleEntity.class))
+                .find(Filters.in(ID_FIELD, articleIds))
+                .projection(Projections.include(AMOUNT_FIELD))
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document article = cursor.next();
+                Object id = article.get(ID_FIELD);
+                Object amount = article.get(AMOUNT_FIELD);
+                if (id instanceof Number && amount instanceof Number) {
+                    amounts.put(((Number) id).longValue(), ((Number) amount).longValue());
+                }
+            }
+        }
+        return amounts;
+    }
+
+    /**
+     * Get referenced article unique identifiers of a legacy product document.
+     *
+     * @param product {@link Document} holding the legacy article references
+     * @return {@link List} of article unique identifiers
+     */
+    static List<Long> references(Document product) {
+        List<?> references = product.get(ARTICLES_FIELD, List.class);
+        List<Long> articleIds = new ArrayList<>();
+        if (references != null) {
+            for (Object reference : references) {
+                if (reference instanceof DBRef && ((DBRef) reference).getId() instanceof Number) {
+                    articleIds.add(((Number) ((DBRef) reference).getId()).longValue());
+                }
+            }
+        }
+        return articleIds;
+    }
+
+    private Map<Long, List<Long>> findReferences(Set<Long> productIds) {
+        Map<Long, List<Long>> references = new HashMap<>(productIds.size());
+        try (MongoCursor<Document> cursor = this.mongoTemplate
+                .getCollection(this.mongoTemplate.getCollectionName(ProductEntity.class))
+                .find(Filters.in(ID_FIELD, productIds))
+                .projection(Projections.include(ARTICLES_FIELD))
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document product = cursor.next();
+                Object id = product.get(ID_FIELD);
+                if (id instanceof Number) {
+                    references.put(((Number) id).longValue(), references(product));
+                }
+            }
+        }
+        return references;
+    }
+}
@@ -0,0 +1,25 @@
+package nl.ikea.warehouse.pipelines;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/** Outcome of a single bulk write batch. */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class BatchReport {
+
+    private final int batch;
+    private final int rows;
+    private final int written;
+    private final int failed;
+    private final long latencyMillis;
+
+    /** Rejected rows, capped to keep reports of systematically failing uploads bounded. */
+    private final List<RowFailure> failures;
+}
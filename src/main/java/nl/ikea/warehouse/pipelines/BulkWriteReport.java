@@ -0,0 +1,53 @@
+package nl.ikea.warehouse.pipelines;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/** Aggregated outcome of a bulk ingestion, collected batch by batch. */
+@Getter
+@ToString(exclude = "batches")
+public class BulkWriteReport {
+
+    private final String collection;
+    private long rows;
+    private long written;
+    private long failed;
+    private long latencyMillis;
+    private final List<BatchReport> batches = new ArrayList<>();
+
+    /**
+     * Constructor
+     *
+     * @param collection {@link String} target collection name
+     */
+    public BulkWriteReport(String collection) {
+        this.collection = collection;
+    }
+
+    /**
+     * Account {@link BatchReport} in the totals.
+     *
+     * @param batchReport {@link BatchReport}
+     */
+    void add(BatchReport batchReport) {
+        this.rows += batchReport.getRows();
+        this.written += batchReport.getWritten();
+        this.failed += batchReport.getFailed();
+        this.latencyMillis += batchReport.getLatencyMillis();
+        this.batches.add(batchReport);
+    }
+
+    /**
+     * Get reported batches.
+     *
+     * @return {@link List} of {@link BatchReport}
+     */
+    public List<BatchReport> getBatches() {
+        return ImmutableList.copyOf(this.batches);
+    }
+}
@@ -0,0 +1,212 @@
+package nl.ikea.warehouse.pipelines;
+
+import com.mongodb.BulkWriteError;
+import nl.ikea.warehouse.converters.IDataConverter;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bulk ingestion stage. Converts streamed {@link V} views into {@link E} entities, groups them into
+ * batches of configurable size and persists every batch with a single unordered
+ * {@link BulkOperations} upsert instead of one round trip per entity. Not thread safe, a writer
+ * instance is meant to serve a single ingestion.
+ *
+ * @param <E> entity data type
+ * @param <V> view data type
+ */
+public class BulkWriter<E, V extends Serializable> implements Consumer<V> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkWriter.class);
+    private static final int MAX_REPORTED_FAILURES = 100;
+    private static final String ID_FIELD = "_id";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final IDataConverter<E, V> converter;
+    private final Class<E> entityClass;
+    private final String collectionName;
+    private final int batchSize;
+    private final Consumer<BatchReport> batchListener;
+    private final BulkWriteReport report;
+
+    private final List<Pair<Query, Update>> upserts;
+    private final List<Object> ids;
+    private final List<Long> upsertRows;
+    private final List<RowFailure> failures = new ArrayList<>();
+    private int rejected;
+    private int batch;
+    private long row;
+
+    /**
+     * Constructor
+     *
+     * @param mongoTemplate             {@link MongoTemplate}
+     * @param applicationEventPublisher {@link ApplicationEventPublisher} used to emit mapping
+     *                                  lifecycle events, as {@link MongoTemplate#save} would do
+     * @param converter                 {@link IDataConverter} transforming {@link V} into {@link E}
+     * @param entityClass               {@link Class} of {@link E}
+     * @param batchSize                 number of rows written per bulk operation
+     * @param batchListener             {@link Consumer} notified with every written {@link BatchReport}
+     */
+    public BulkWriter(
+            MongoTemplate mongoTemplate,
+            ApplicationEventPublisher applicationEventPublisher,
+            IDataConverter<E, V> converter,
+            Class<E> entityClass,
+            int batchSize,
+            Consumer<BatchReport> batchListener) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.converter = converter;
+        this.entityClass = entityClass;
+        this.collectionName = mongoTemplate.getCollectionName(entityClass);
+        this.batchSize = batchSize;
+        this.batchListener = batchListener;
+        this.report = new BulkWriteReport(this.collectionName);
+        this.upserts = new ArrayList<>(batchSize);
+        this.ids = new ArrayList<>(batchSize);
+        this.upsertRows = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * Convert and buffer {@link V}. Flushes the buffer once it reaches the batch size.
+     *
+     * @param view {@link V}
+     */
+    @Override
+    public void accept(V view) {
+        long current = this.row++;
+        try {
+            E entity = this.converter.from(view).orElse(null);
+            if (entity == null) {
+                reject(current, null, "Empty entry.");
+            } else {
+                this.applicationEventPublisher.publishEvent(new BeforeConvertEvent<>(entity, this.collectionName));
+                Document document = new Document();
+                this.mongoTemplate.getConverter().write(entity, document);
+                Object id = document.get(ID_FIELD);
+                if (id == null) {
+                    reject(current, null, "Missing unique identifier.");
+                } else {
+                    Update update = new Update();
+                    document.forEach((key, value) -> {
+                        if (!ID_FIELD.equals(key)) {
+                            update.set(key, value);
+                        }
+                    });
+                    this.upserts.add(Pair.of(Query.query(Criteria.where(ID_FIELD).is(id)), update));
+                    this.ids.add(id);
+                    this.upsertRows.add(current);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Rejected row {} of {}: {}", current, this.collectionName, e.getMessage());
+            reject(current, null, e.getMessage());
+        }
+        if (this.upserts.size() + this.rejected >= this.batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Flush remaining buffered rows.
+     *
+     * @return {@link BulkWriteReport} of the whole ingestion
+     */
+    public BulkWriteReport complete() {
+        flush();
+        LOGGER.info("Bulk write into {} completed: {}", this.collectionName, this.report);
+        return this.report;
+    }
+
+    /**
+     * Get ingestion report collected so far.
+     *
+     * @return {@link BulkWriteReport}
+     */
+    public BulkWriteReport getReport() {
+        return this.report;
+    }
+
+    private void flush() {
+        int rows = this.upserts.size() + this.rejected;
+        if (rows == 0) {
+            return;
+        }
+        long started = System.nanoTime();
+        int written = 0;
+        int failed = this.rejected;
+        if (!this.upserts.isEmpty()) {
+            try {
+                this.mongoTemplate
+                        .bulkOps(BulkOperations.BulkMode.UNORDERED, this.entityClass, this.collectionName)
+                        .upsert(this.upserts)
+                        .execute();
+                written = this.upserts.size();
+            } catch (BulkOperationException e) {
+                written = this.upserts.size() - e.getErrors().size();
+                failed += e.getErrors().size();
+                for (BulkWriteError error : e.getErrors()) {
+                    addFailure(new RowFailure(
+                            this.upsertRows.get(error.getIndex()), this.ids.get(error.getIndex()), error.getMessage()));
+                }
+            } catch (DataAccessException e) {
+                LOGGER.error("Bulk write of batch {} into {} failed.", this.batch, this.collectionName, e);
+                failed += this.upserts.size();
+                for (int index = 0; index < this.upserts.size(); index++) {
+                    addFailure(new RowFailure(this.upsertRows.get(index), this.ids.get(index), e.getMessage()));
+                }
+            }
+        }
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        BatchReport batchReport =
+                new BatchReport(this.batch++, rows, written, failed, latency, new ArrayList<>(this.failures));
+        if (failed > 0) {
+            LOGGER.warn("Batch {} into {}: {} rows, {} written, {} failed in {} ms, failures: {}",
+                    batchReport.getBatch(), this.collectionName, rows, written, failed, latency, batchReport.getFailures());
+        } else {
+            LOGGER.info("Batch {} into {}: {} rows written in {} ms",
+                    batchReport.getBatch(), this.collectionName, written, latency);
+        }
+        this.report.add(batchReport);
+        this.upserts.clear();
+        this.ids.clear();
+        this.upsertRows.clear();
+        this.failures.clear();
+        this.rejected = 0;
+        if (this.batchListener != null) {
+            this.batchListener.accept(batchReport);
+        }
+    }
+
+    private void reject(long current, Object id, String message) {
+        this.rejected++;
+        addFailure(new RowFailure(current, id, message));
+    }
+
+    private void addFailure(RowFailure failure) {
+        if (this.failures.size() < MAX_REPORTED_FAILURES) {
+            this.failures.add(failure);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package nl.ikea.warehouse.pipelines;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Streaming serialization stage. Writes every accepted value as one or more RFC 4180 CSV records
+ * straight to the output stream, after a header record, so a listing is never held in memory as a
+ * whole. Nested values are flattened by the row mapping, e.g. one record per bill of materials
+ * entry. Flushing is left to the buffering of the writer. Not thread safe.
+ *
+ * @param <V> written data type
+ */
+public class CsvWriter<V> implements Consumer<V>, Closeable {
+
+    private final Writer writer;
+    private final Function<V, List<Object[]>> rows;
+
+    /**
+     * Constructor
+     *
+     * @param outputStream {@link OutputStream} written to, left open on close
+     * @param header       {@link List} of column names
+     * @param rows         {@link Function} mapping a value to its records, aligned with the header
+     * @throws IOException if the header can not be written
+     */
+    public CsvWriter(OutputStream outputStream, List<String> header, Function<V, List<Object[]>> rows)
+            throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        this.rows = rows;
+        write(header.toArray());
+    }
+
+    /**
+     * Write value as records.
+     *
+     * @param value {@link V}
+     */
+    @Override
+    public void accept(V value) {
+        try {
+            for (Object[] row : this.rows.apply(value)) {
+                write(row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flush buffered records, leaving the output stream open.
+     *
+     * @throws IOException if flushing fails
+     */
+    @Override
+    public void close() throws IOException {
+        this.writer.flush();
+    }
+
+    private void write(Object[] row) throws IOException {
+        for (int column = 0; column < row.length; column++) {
+            if (column > 0) {
+                this.writer.write(',');
+            }
+            if (row[column] != null) {
+                writeField(row[column].toString());
+            }
+        }
+        this.writer.write("\r\n");
+    }
+
+    private void writeField(String field) throws IOException {
+        boolean quoted = false;
+        for (int index = 0; index < field.length() && !quoted; index++) {
+            char character = field.charAt(index);
+            quoted = character == ',' || character == '"' || character == '\r' || character == '\n';
+        }
+        if (!quoted) {
+            this.writer.write(field);
+            return;
+        }
+        this.writer.write('"');
+        this.writer.write(field.replace("\"", "\"\""));
+        this.writer.write('"');
+    }
+}
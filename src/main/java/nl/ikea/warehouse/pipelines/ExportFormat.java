@@ -0,0 +1,35 @@
+package nl.ikea.warehouse.pipelines;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import nl.ikea.warehouse.constants.ApplicationConstants;
+import org.springframework.http.MediaType;
+
+/** Full listing export formats. */
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+    NDJSON(ApplicationConstants.APPLICATION_NDJSON, "ndjson"),
+    CSV(ApplicationConstants.TEXT_CSV, "csv");
+
+    /** Regular expression of the format request parameter values. */
+    public static final String PATTERN = "^(ndjson|csv)$";
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    /**
+     * Resolve format from its request parameter value.
+     *
+     * @param value {@link String} file extension of the format
+     * @return {@link ExportFormat}
+     */
+    public static ExportFormat fromValue(String value) {
+        for (ExportFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + value);
+    }
+}
@@ -0,0 +1,66 @@
+package nl.ikea.warehouse.pipelines;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Streaming serialization stage. Writes every accepted value as one line of newline delimited JSON
+ * straight to the output stream, through a single generator, so a listing is never held in memory
+ * as a whole. Flushing is left to the buffering of the output stream. Not thread safe.
+ *
+ * @param <V> written data type
+ */
+public class NdjsonWriter<V> implements Consumer<V>, Closeable {
+
+    private final ObjectWriter objectWriter;
+    private final JsonGenerator generator;
+
+    /**
+     * Constructor
+     *
+     * @param objectMapper {@link ObjectMapper}
+     * @param outputStream {@link OutputStream} written to, left open on close
+     * @throws IOException if the generator can not be created
+     */
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory()
+                .createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are delimited explicitly, without the space Jackson puts between root values.
+        this.generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Write value as a line.
+     *
+     * @param value {@link V}
+     */
+    @Override
+    public void accept(V value) {
+        try {
+            this.objectWriter.writeValue(this.generator, value);
+            this.generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flush buffered lines, leaving the output stream open.
+     *
+     * @throws IOException if flushing fails
+     */
+    @Override
+    public void close() throws IOException {
+        this.generator.close();
+    }
+}
@@ -0,0 +1,22 @@
+package nl.ikea.warehouse.pipelines;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/** Single rejected row of a bulk ingestion. */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class RowFailure {
+
+    /** Zero based position of the row in the ingested document. */
+    private final long row;
+
+    /** Unique identifier of the row, if it could be resolved. */
+    private final Object id;
+
+    private final String message;
+}
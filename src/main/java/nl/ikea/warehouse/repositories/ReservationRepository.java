@@ -0,0 +1,10 @@
+package nl.ikea.warehouse.repositories;
+
+import nl.ikea.warehouse.entities.ReservationEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+/**
+ * Reservation repository
+ */
+public interface ReservationRepository extends MongoRepository<ReservationEntity, String> {
+}
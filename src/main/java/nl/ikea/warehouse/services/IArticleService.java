@@ -2,10 +2,14 @@ package nl.ikea.warehouse.services;
 
 import nl.ikea.warehouse.views.impl.ArticleView;
 import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.MultiGetView;
 import nl.ikea.warehouse.views.impl.ProductView;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Article service contract definition
@@ -62,4 +66,64 @@ public interface IArticleService {
      * @return {@link List} of {@link InventoryView}
      */
     List<InventoryView> getArticles();
+
+    /**
+     * Get page of {@link InventoryView} following an article, in unique identifier order.
+     *
+     * @param after {@link Long} last article unique identifier seen, null for the first page
+     * @param limit maximum number of articles
+     * @return {@link List} of {@link InventoryView}
+     */
+    List<InventoryView> getArticles(Long after, int limit);
+
+    /**
+     * Get several {@link InventoryView} by unique identifier with a single query.
+     *
+     * @param ids {@link Collection} of article unique identifiers
+     * @return {@link MultiGetView} of {@link InventoryView}, in the order of the identifiers
+     */
+    MultiGetView<InventoryView> getArticles(Collection<Long> ids);
+
+    /**
+     * Stream {@link InventoryView} following an article, in unique identifier order, straight from
+     * the database cursor.
+     *
+     * @param after    {@link Long} last article unique identifier seen, null to start from the first
+     * @param limit    {@link Integer} maximum number of articles, null for all of them
+     * @param consumer {@link Consumer} of every {@link InventoryView}
+     * @return number of streamed articles
+     */
+    long streamArticles(Long after, Integer limit, Consumer<InventoryView> consumer);
+
+    /**
+     * Withdraw stock of several articles, all or nothing. Every article is decremented with a
+     * conditional update, so concurrent withdrawals never drive available stock below zero.
+     *
+     * @param amounts {@link Map} of article unique identifier to amount to withdraw
+     * @throws nl.ikea.warehouse.exceptions.ConflictException in case of insufficient stock
+     */
+    void withdraw(Map<Long, Long> amounts);
+
+    /**
+     * Hold stock of several articles, all or nothing. Held stock stays on hand but is no longer
+     * available for sale or other reservations.
+     *
+     * @param amounts {@link Map} of article unique identifier to amount to reserve
+     * @throws nl.ikea.warehouse.exceptions.ConflictException in case of insufficient stock
+     */
+    void reserve(Map<Long, Long> amounts);
+
+    /**
+     * Return held stock of several articles to available stock.
+     *
+     * @param amounts {@link Map} of article unique identifier to reserved amount to release
+     */
+    void release(Map<Long, Long> amounts);
+
+    /**
+     * Remove held stock of several articles from stock on hand, finalizing a reservation.
+     *
+     * @param amounts {@link Map} of article unique identifier to reserved amount to consume
+     */
+    void consume(Map<Long, Long> amounts);
 }
@@ -0,0 +1,71 @@
+package nl.ikea.warehouse.services;
+
+import nl.ikea.warehouse.views.impl.ArticleView;
+import nl.ikea.warehouse.views.impl.AvailabilityView;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Product availability service contract definition. Answers how many units of each product can be
+ * built from current stock without resolving product articles one by one.
+ */
+public interface IAvailabilityService {
+
+    /**
+     * Retrieve availability of every product.
+     *
+     * @return {@link List} of {@link AvailabilityView}
+     */
+    List<AvailabilityView> getAvailability();
+
+    /**
+     * Retrieve unique identifiers of products of which more units than given can be built, one page
+     * at a time.
+     *
+     * @param quantity units the availability must exceed
+     * @param after    unique identifier the products must follow, null to start from the first one
+     * @param limit    maximum number of unique identifiers
+     * @return {@link List} of product unique identifiers, in ascending order
+     */
+    List<Long> getProductIds(long quantity, Long after, int limit);
+
+    /**
+     * Retrieve availability of a single product.
+     *
+     * @param productId {@link Long}
+     * @return {@link Optional} of {@link AvailabilityView}
+     */
+    Optional<AvailabilityView> getAvailability(Long productId);
+
+    /**
+     * Compute units of a bill of materials that can be built from current stock. Unlike
+     * {@link #getAvailability(Long)}, it does not depend on the product being indexed, so it holds
+     * for products created or changed since the model was last built.
+     *
+     * @param billOfMaterials {@link List} of {@link ArticleView} required per product unit
+     * @return sellable quantity
+     */
+    long getAvailable(List<ArticleView> billOfMaterials);
+
+    /**
+     * Apply a stock change of a single article, recomputing only the products using it. Changes
+     * older than the version already applied for the article are ignored.
+     *
+     * @param articleId {@link Long} article unique identifier
+     * @param stock     {@link Long} new stock
+     * @param version   stock version of the article after the change
+     */
+    void updateStock(Long articleId, Long stock, long version);
+
+    /**
+     * Mark the in memory model as outdated. The next read schedules a background rebuild and is
+     * served from the outdated model meanwhile.
+     */
+    void invalidate();
+
+    /**
+     * Rebuild the in memory model from the persisted state before returning.
+     */
+    void refresh();
+}
@@ -0,0 +1,46 @@
+package nl.ikea.warehouse.services;
+
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.pipelines.BatchReport;
+import nl.ikea.warehouse.pipelines.BulkWriter;
+import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.ProductView;
+
+import java.util.function.Consumer;
+
+/**
+ * Bulk ingestion service contract definition.
+ */
+public interface IBulkWriteService {
+
+    /**
+     * Create {@link BulkWriter} persisting {@link InventoryView} entries.
+     *
+     * @return {@link BulkWriter} of {@link ArticleEntity}
+     */
+    BulkWriter<ArticleEntity, InventoryView> inventoryWriter();
+
+    /**
+     * Create {@link BulkWriter} persisting {@link InventoryView} entries.
+     *
+     * @param batchListener {@link Consumer} notified with every written {@link BatchReport}
+     * @return {@link BulkWriter} of {@link ArticleEntity}
+     */
+    BulkWriter<ArticleEntity, InventoryView> inventoryWriter(Consumer<BatchReport> batchListener);
+
+    /**
+     * Create {@link BulkWriter} persisting {@link ProductView} entries.
+     *
+     * @return {@link BulkWriter} of {@link ProductEntity}
+     */
+    BulkWriter<ProductEntity, ProductView> productWriter();
+
+    /**
+     * Create {@link BulkWriter} persisting {@link ProductView} entries.
+     *
+     * @param batchListener {@link Consumer} notified with every written {@link BatchReport}
+     * @return {@link BulkWriter} of {@link ProductEntity}
+     */
+    BulkWriter<ProductEntity, ProductView> productWriter(Consumer<BatchReport> batchListener);
+}
@@ -0,0 +1,31 @@
+package nl.ikea.warehouse.services;
+
+import nl.ikea.warehouse.jobs.Job;
+import nl.ikea.warehouse.views.impl.JobView;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Background job service contract definition.
+ */
+public interface IJobService {
+
+    /**
+     * Submit work to the bounded job executor.
+     *
+     * @param type  {@link String} job type
+     * @param total expected amount of work units, 0 if unknown
+     * @param work  {@link Consumer} performing the work and reporting progress on the {@link Job}
+     * @return {@link JobView} of the queued job
+     */
+    JobView submit(String type, long total, Consumer<Job> work);
+
+    /**
+     * Retrieve job progress by unique identifier.
+     *
+     * @param jobId {@link String}
+     * @return {@link Optional} of {@link JobView}
+     */
+    Optional<JobView> getJob(String jobId);
+}
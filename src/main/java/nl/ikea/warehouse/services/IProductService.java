@@ -1,10 +1,18 @@
 package nl.ikea.warehouse.services;
 
 
+import nl.ikea.warehouse.filters.ProductFilter;
+import nl.ikea.warehouse.utils.KeysetPage;
+import nl.ikea.warehouse.views.impl.ArticleView;
+import nl.ikea.warehouse.views.impl.AvailabilityView;
+import nl.ikea.warehouse.views.impl.JobView;
+import nl.ikea.warehouse.views.impl.MultiGetView;
 import nl.ikea.warehouse.views.impl.ProductView;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Product service layer contract definition.
@@ -26,6 +34,37 @@ public interface IProductService {
      */
     List<ProductView> getProducts();
 
+    /**
+     * Retrieve page of {@link ProductView} matching a filter expression and following a product, in
+     * unique identifier order. The work spent on a page is bounded, so a page filtered on
+     * availability may come back short with a cursor to go on from.
+     *
+     * @param filter {@link String} filter expression, see {@link ProductFilter}, null for all products
+     * @param after  {@link Long} last product unique identifier seen, null for the first page
+     * @param limit  maximum number of products
+     * @return {@link KeysetPage} of {@link ProductView}
+     */
+    KeysetPage<ProductView> getProducts(String filter, Long after, int limit);
+
+    /**
+     * Retrieve several persisted {@link ProductView} by unique identifier with a single query.
+     *
+     * @param ids {@link Collection} of product unique identifiers
+     * @return {@link MultiGetView} of {@link ProductView}, in the order of the identifiers
+     */
+    MultiGetView<ProductView> getProducts(Collection<Long> ids);
+
+    /**
+     * Stream {@link ProductView} following a product, in unique identifier order, straight from the
+     * database cursor.
+     *
+     * @param after    {@link Long} last product unique identifier seen, null to start from the first
+     * @param limit    {@link Integer} maximum number of products, null for all of them
+     * @param consumer {@link Consumer} of every {@link ProductView}
+     * @return number of streamed products
+     */
+    long streamProducts(Long after, Integer limit, Consumer<ProductView> consumer);
+
     /**
      * Retrieve persisted {@link ProductView} by unique identifier.
      *
@@ -35,7 +74,31 @@ public interface IProductService {
     Optional<ProductView> getProduct(Long productId);
 
     /**
-     * Delete all entries.
+     * Retrieve bill of materials of a product as persisted, bypassing caches and the availability
+     * model, so stock is moved for the articles the product is made of right now.
+     *
+     * @param productId {@link Long}
+     * @return {@link Optional} of {@link List} of {@link ArticleView} required per product unit
+     */
+    Optional<List<ArticleView>> getBillOfMaterials(Long productId);
+
+    /**
+     * Delete all products server side. Catalogs above the asynchronous threshold are purged by a
+     * background job in batches, reporting progress; a reset drops the collection and rebuilds its
+     * indexes instead.
+     *
+     * @param reset drop the collection and rebuild its indexes
+     * @return {@link Optional} of {@link JobView} of the purge job, empty if purged already
+     */
+    Optional<JobView> deleteAll(boolean reset);
+
+    /**
+     * Sell units of a product, withdrawing every article of its bill of materials from stock.
+     *
+     * @param productId {@link Long}
+     * @param quantity  {@link Long} units to sell
+     * @return {@link Optional} of {@link AvailabilityView} after the sale
+     * @throws nl.ikea.warehouse.exceptions.ConflictException in case of insufficient stock
      */
-    void deleteAll();
+    Optional<AvailabilityView> sell(Long productId, Long quantity);
 }
@@ -0,0 +1,55 @@
+package nl.ikea.warehouse.services;
+
+import nl.ikea.warehouse.views.impl.ReservationView;
+
+import java.util.Optional;
+
+/**
+ * Stock reservation service contract definition. Reservations hold the articles of a product for
+ * a limited time, until the checkout confirms or releases them.
+ */
+public interface IReservationService {
+
+    /**
+     * Hold stock for units of a product.
+     *
+     * @param reservationView {@link ReservationView} product, quantity and optional time to live
+     * @return {@link ReservationView} of the active reservation
+     * @throws nl.ikea.warehouse.exceptions.ConflictException in case of insufficient stock
+     */
+    ReservationView reserve(ReservationView reservationView);
+
+    /**
+     * Retrieve reservation by unique identifier.
+     *
+     * @param reservationId {@link String}
+     * @return {@link Optional} of {@link ReservationView}
+     */
+    Optional<ReservationView> getReservation(String reservationId);
+
+    /**
+     * Confirm an active reservation, removing the held stock from inventory.
+     *
+     * @param reservationId {@link String}
+     * @return {@link ReservationView} of the confirmed reservation
+     * @throws nl.ikea.warehouse.exceptions.ConflictException if the reservation is no longer active
+     */
+    ReservationView confirm(String reservationId);
+
+    /**
+     * Release an active reservation, returning the held stock to available stock.
+     *
+     * @param reservationId {@link String}
+     * @return {@link ReservationView} of the released reservation
+     * @throws nl.ikea.warehouse.exceptions.ConflictException if the reservation is no longer active
+     */
+    ReservationView release(String reservationId);
+
+    /**
+     * Expire active and pending reservations past their expiry time, returning the stock of the
+     * active ones only, as pending ones are not known to hold any.
+     *
+     * @return number of expired reservations
+     */
+    int expire();
+}
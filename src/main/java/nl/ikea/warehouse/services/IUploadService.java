@@ -0,0 +1,28 @@
+package nl.ikea.warehouse.services;
+
+import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.JobView;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Upload service contract definition. Uploads are ingested asynchronously as background jobs.
+ */
+public interface IUploadService {
+
+    /**
+     * Schedule ingestion of a JSON array of {@link InventoryView}.
+     *
+     * @param file {@link MultipartFile} uploaded file
+     * @return {@link JobView} of the scheduled job
+     */
+    JobView uploadInventory(MultipartFile file);
+
+    /**
+     * Schedule ingestion of a JSON array of {@link ProductView}.
+     *
+     * @param file {@link MultipartFile} uploaded file
+     * @return {@link JobView} of the scheduled job
+     */
+    JobView uploadProducts(MultipartFile file);
+}
@@ -2,43 +2,93 @@ package nl.ikea.warehouse.services.impl;
 
 import nl.ikea.warehouse.converters.impl.ArticleConverter;
 import nl.ikea.warehouse.converters.impl.InventoryConverter;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.events.CatalogChangedEvent;
+import nl.ikea.warehouse.events.InventoryChangedEvent;
+import nl.ikea.warehouse.exceptions.ConflictException;
 import nl.ikea.warehouse.repositories.ArticleRepository;
 import nl.ikea.warehouse.services.IArticleService;
+import nl.ikea.warehouse.services.IAvailabilityService;
+import nl.ikea.warehouse.utils.KeysetPaginationUtils;
+import nl.ikea.warehouse.utils.SingleFlight;
 import nl.ikea.warehouse.views.impl.ArticleView;
 import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.MultiGetView;
 import nl.ikea.warehouse.views.impl.ProductView;
 import nl.ikea.warehouse.exceptions.ResourceNotFoundException;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
- * {@inheritDoc}
+ * Concurrent identical inventory reads share a single database query through {@link SingleFlight},
+ * while each caller converts the shared entities into views of its own.
+ *
+ * @see IArticleService
  */
 @Component
 public class ArticleService implements IArticleService {
     private static final Logger LOGGER = LoggerFactory.getLogger(ArticleService.class);
+    private static final String ID_FIELD = "_id";
+    private static final String NAME_FIELD = "name";
+    private static final String AMOUNT_FIELD = "amount";
+    private static final String RESERVED_FIELD = "reserved";
+    private static final String STOCK_VERSION_FIELD = "stockVersion";
+    private static final String PRODUCT_ID_FIELD = "productId";
 
     private final ArticleConverter articleConverter;
     private final InventoryConverter inventoryConverter;
     private final ArticleRepository articleRepository;
+    private final IAvailabilityService iAvailabilityService;
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final SingleFlight<List<Object>, List<ArticleEntity>> pageReads = new SingleFlight<>();
 
     /**
      * Dependency injection default constructor
      *
-     * @param articleRepository  {@link ArticleRepository}
-     * @param inventoryConverter {@link InventoryConverter}
-     * @param articleConverter   {@link ArticleConverter}
+     * @param articleRepository         {@link ArticleRepository}
+     * @param inventoryConverter        {@link InventoryConverter}
+     * @param articleConverter          {@link ArticleConverter}
+     * @param iAvailabilityService      {@link IAvailabilityService}
+     * @param mongoTemplate             {@link MongoTemplate}
+     * @param applicationEventPublisher {@link ApplicationEventPublisher}
      */
     @Autowired
-    public ArticleService(ArticleRepository articleRepository, InventoryConverter inventoryConverter, ArticleConverter articleConverter) {
+    public ArticleService(
+            ArticleRepository articleRepository,
+            InventoryConverter inventoryConverter,
+            ArticleConverter articleConverter,
+            IAvailabilityService iAvailabilityService,
+            MongoTemplate mongoTemplate,
+            ApplicationEventPublisher applicationEventPublisher) {
         this.articleConverter = articleConverter;
         this.inventoryConverter = inventoryConverter;
         this.articleRepository = articleRepository;
+        this.iAvailabilityService = iAvailabilityService;
+        this.mongoTemplate = mongoTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -51,11 +101,7 @@ public class ArticleService implements IArticleService {
     @Override
     public Optional<ArticleView> save(Long productId, ArticleView articleView) {
         LOGGER.info("Entered save() method with: {}", articleView);
-        return this.articleConverter.from(
-                this.articleConverter
-                        .from(productId, articleView)
-                        .map(this.articleRepository::save)
-                        .orElse(null));
+        return this.articleConverter.from(save(this.articleConverter.from(productId, articleView)).orElse(null));
     }
 
     /**
@@ -67,11 +113,7 @@ public class ArticleService implements IArticleService {
     @Override
     public Optional<ArticleView> save(ArticleView articleView) {
         LOGGER.info("Entered save() method with: {}", articleView);
-        return this.articleConverter.from(
-                this.articleConverter
-                        .from(articleView)
-                        .map(this.articleRepository::save)
-                        .orElse(null));
+        return this.articleConverter.from(save(this.articleConverter.from(articleView)).orElse(null));
     }
 
     /**
@@ -83,11 +125,24 @@ public class ArticleService implements IArticleService {
     @Override
     public Optional<InventoryView> save(InventoryView inventoryView) {
         LOGGER.info("Entered save() method with: {}", inventoryView);
-        return this.inventoryConverter.from(
-                this.inventoryConverter
-                        .from(inventoryView)
-                        .map(this.articleRepository::save)
-                        .orElse(null));
+        return this.inventoryConverter.from(save(this.inventoryConverter.from(inventoryView)).orElse(null));
+    }
+
+    /**
+     * Upsert the article, rather than replacing the whole document, and propagate its stock change.
+     *
+     * @param articleEntity {@link Optional} of {@link ArticleEntity} to save
+     * @return {@link Optional} of persisted {@link ArticleEntity}
+     */
+    private Optional<ArticleEntity> save(Optional<ArticleEntity> articleEntity) {
+        Map<Long, Document> updated = new LinkedHashMap<>();
+        Optional<ArticleEntity> saved = articleEntity.map(entity -> {
+            Document document = upsert(entity);
+            track(updated, entity.getArticleId(), document);
+            return this.mongoTemplate.getConverter().read(ArticleEntity.class, document);
+        });
+        changed(updated);
+        return saved;
     }
 
     /**
@@ -133,6 +188,245 @@ public class ArticleService implements IArticleService {
     public List<InventoryView> getArticles() {
         LOGGER.info("Entered getArticles()");
         return this.inventoryConverter.from(
-                this.articleRepository.findAll());
+                this.pageReads.execute(Arrays.asList(null, null), this.articleRepository::findAll));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param after {@link Long}
+     * @param limit maximum number of articles
+     * @return {@link List} of {@link InventoryView}
+     */
+    @Override
+    public List<InventoryView> getArticles(Long after, int limit) {
+        LOGGER.info("Entered getArticles() method with after: {} and limit: {}", after, limit);
+        return this.inventoryConverter.from(this.pageReads.execute(Arrays.asList(after, limit),
+                () -> this.mongoTemplate.find(KeysetPaginationUtils.query(after, limit), ArticleEntity.class)));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param ids {@link Collection} of article unique identifiers
+     * @return {@link MultiGetView} of {@link InventoryView}
+     */
+    @Override
+    public MultiGetView<InventoryView> getArticles(Collection<Long> ids) {
+        LOGGER.info("Entered getArticles(Collection) method with ids: {}", ids);
+        return MultiGetView.of(ids, this.inventoryConverter.from(
+                this.mongoTemplate.find(Query.query(Criteria.where(ID_FIELD).in(ids)), ArticleEntity.class)),
+                InventoryView::getArticleId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param after    {@link Long}
+     * @param limit    {@link Integer}
+     * @param consumer {@link Consumer} of {@link InventoryView}
+     * @return number of streamed articles
+     */
+    @Override
+    public long streamArticles(Long after, Integer limit, Consumer<InventoryView> consumer) {
+        LOGGER.info("Entered streamArticles() method with after: {} and limit: {}", after, limit);
+        long streamed = 0;
+        try (CloseableIterator<ArticleEntity> cursor =
+                     this.mongoTemplate.stream(KeysetPaginationUtils.query(after, limit), ArticleEntity.class)) {
+            while (cursor.hasNext()) {
+                this.inventoryConverter.from(cursor.next()).ifPresent(consumer);
+                streamed++;
+            }
+        }
+        return streamed;
+    }
+
+    /**
+     * Let reads arriving after a catalog change start over instead of joining reads in flight.
+     *
+     * @param event {@link CatalogChangedEvent}
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        this.pageReads.forgetAll();
+    }
+
+    /**
+     * Let reads arriving after an inventory change start over instead of joining reads in flight.
+     *
+     * @param event {@link InventoryChangedEvent}
+     */
+    @EventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        this.pageReads.forgetAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param amounts {@link Map} of article unique identifier to amount to withdraw
+     */
+    @Override
+    public void withdraw(Map<Long, Long> amounts) {
+        LOGGER.info("Entered withdraw() method with: {}", amounts);
+        applyGuarded(amounts, amount -> new Update().inc(AMOUNT_FIELD, -amount),
+                amount -> new Update().inc(AMOUNT_FIELD, amount));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param amounts {@link Map} of article unique identifier to amount to reserve
+     */
+    @Override
+    public void reserve(Map<Long, Long> amounts) {
+        LOGGER.info("Entered reserve() method with: {}", amounts);
+        applyGuarded(amounts, amount -> new Update().inc(RESERVED_FIELD, amount),
+                amount -> new Update().inc(RESERVED_FIELD, -amount));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param amounts {@link Map} of article unique identifier to reserved amount to release
+     */
+    @Override
+    public void release(Map<Long, Long> amounts) {
+        LOGGER.info("Entered release() method with: {}", amounts);
+        Map<Long, Document> updated = new LinkedHashMap<>();
+        amounts.forEach((articleId, amount) -> track(updated, articleId,
+                update(articleId, new Update().inc(RESERVED_FIELD, -amount), null)));
+        changed(updated);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param amounts {@link Map} of article unique identifier to reserved amount to consume
+     */
+    @Override
+    public void consume(Map<Long, Long> amounts) {
+        LOGGER.info("Entered consume() method with: {}", amounts);
+        Map<Long, Document> updated = new LinkedHashMap<>();
+        amounts.forEach((articleId, amount) -> track(updated, articleId,
+                update(articleId, new Update().inc(AMOUNT_FIELD, -amount).inc(RESERVED_FIELD, -amount), null)));
+        changed(updated);
+    }
+
+    /**
+     * Apply the update to every article, all or nothing. Articles are updated one by one, in
+     * identifier order, with a {@code findAndModify} guarded by {@code amount - reserved >= n}. No
+     * lock is taken: a failing guard compensates the updates already applied and rejects the
+     * whole operation.
+     *
+     * @param amounts      {@link Map} of article unique identifier to amount
+     * @param update       {@link Function} creating the guarded {@link Update} for an amount
+     * @param compensation {@link Function} creating the {@link Update} reverting it
+     */
+    private void applyGuarded(
+            Map<Long, Long> amounts, Function<Long, Update> update, Function<Long, Update> compensation) {
+        Map<Long, Long> applied = new LinkedHashMap<>();
+        Map<Long, Document> updated = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Long, Long> entry : new TreeMap<>(amounts).entrySet()) {
+                Document document = update(entry.getKey(), update.apply(entry.getValue()), entry.getValue());
+                if (document == null) {
+                    throw new ConflictException(
+                            "MSG_IKEA_409", "Insufficient stock of article " + entry.getKey() + ".");
+                }
+                applied.put(entry.getKey(), entry.getValue());
+                track(updated, entry.getKey(), document);
+            }
+        } catch (RuntimeException e) {
+            applied.forEach((articleId, amount) -> {
+                Document restored = update(articleId, compensation.apply(amount), null);
+                if (restored == null) {
+                    LOGGER.error("Unable to compensate {} of article {}.", amount, articleId);
+                }
+                track(updated, articleId, restored);
+            });
+            throw e;
+        } finally {
+            changed(updated);
+        }
+    }
+
+    /**
+     * Propagate available amounts of updated articles, along with the stock version Mongo assigned
+     * to each update, so updates reaching the availability engine out of order are not applied over
+     * newer ones.
+     *
+     * @param updated {@link Map} of article unique identifier to updated article {@link Document}
+     */
+    private void changed(Map<Long, Document> updated) {
+        if (!updated.isEmpty()) {
+            updated.forEach((articleId, document) -> {
+                Number amount = (Number) document.get(AMOUNT_FIELD);
+                Number reserved = (Number) document.get(RESERVED_FIELD);
+                Number version = (Number) document.get(STOCK_VERSION_FIELD);
+                this.iAvailabilityService.updateStock(articleId,
+                        (amount == null ? 0 : amount.longValue()) - (reserved == null ? 0 : reserved.longValue()),
+                        version == null ? 0 : version.longValue());
+            });
+            this.applicationEventPublisher.publishEvent(new InventoryChangedEvent(this));
+        }
+    }
+
+    /**
+     * Atomically update the article, incrementing its stock version.
+     *
+     * @param articleId {@link Long} article unique identifier
+     * @param update    {@link Update} to apply
+     * @param minimum   {@link Long} amount that must be available for the update to apply, if any
+     * @return {@link Document} holding the updated amounts or null if the guard did not match
+     */
+    private Document update(Long articleId, Update update, Long minimum) {
+        Document filter = new Document(ID_FIELD, articleId);
+        if (minimum != null) {
+            // amount - reserved >= minimum, comparing two fields of the document requires $expr.
+            filter.append("$expr", new Document("$gte", Arrays.asList(
+                    new Document("$subtract", Arrays.asList(
+                            "$" + AMOUNT_FIELD, new Document("$ifNull", Arrays.asList("$" + RESERVED_FIELD, 0)))),
+                    minimum)));
+        }
+        Query query = new BasicQuery(filter);
+        query.fields().include(AMOUNT_FIELD).include(RESERVED_FIELD).include(STOCK_VERSION_FIELD);
+        return this.mongoTemplate.findAndModify(
+                query,
+                update.inc(STOCK_VERSION_FIELD, 1),
+                FindAndModifyOptions.options().returnNew(true),
+                Document.class,
+                this.mongoTemplate.getCollectionName(ArticleEntity.class));
+    }
+
+    /**
+     * Upsert article amount, along with name and product when given, keeping the amount held by
+     * reservations and incrementing the stock version.
+     *
+     * @param articleEntity {@link ArticleEntity}
+     * @return persisted article {@link Document}
+     */
+    private Document upsert(ArticleEntity articleEntity) {
+        Update update = new Update().set(AMOUNT_FIELD, articleEntity.getAmount()).inc(STOCK_VERSION_FIELD, 1);
+        if (articleEntity.getName() != null) {
+            update.set(NAME_FIELD, articleEntity.getName());
+        }
+        if (articleEntity.getProductId() != null) {
+            update.set(PRODUCT_ID_FIELD, articleEntity.getProductId());
+        }
+        return this.mongoTemplate.findAndModify(
+                Query.query(Criteria.where(ID_FIELD).is(articleEntity.getArticleId())),
+                update,
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                Document.class,
+                this.mongoTemplate.getCollectionName(ArticleEntity.class));
+    }
+
+    private static void track(Map<Long, Document> updated, Long articleId, Document document) {
+        if (document == null) {
+            updated.remove(articleId);
+        } else {
+            updated.put(articleId, document);
+        }
     }
 }
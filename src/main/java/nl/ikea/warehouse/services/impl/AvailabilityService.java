@@ -0,0 +1,391 @@
+package nl.ikea.warehouse.services.impl;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Projections;
+import nl.ikea.warehouse.availability.AvailabilityIndex;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.events.AvailabilityChangedEvent;
+import nl.ikea.warehouse.services.IAvailabilityService;
+import nl.ikea.warehouse.utils.LongLongHashMap;
+import nl.ikea.warehouse.views.impl.ArticleView;
+import nl.ikea.warehouse.views.impl.AvailabilityView;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In memory availability engine. Article stock and embedded product bills of materials are loaded
+ * with two cursor scans into an {@link AvailabilityIndex}. Single article stock changes are applied
+ * incrementally and published as {@link AvailabilityChangedEvent}, other writes mark the index as
+ * outdated and the next read schedules a rebuild in the background. Reads keep being served from the
+ * previous snapshot until the rebuilt index is swapped in; only the very first read loads synchronously.
+ *
+ * @see IAvailabilityService
+ */
+@Component
+public class AvailabilityService implements IAvailabilityService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AvailabilityService.class);
+    private static final String ID_FIELD = "_id";
+    private static final String AMOUNT_FIELD = "amount";
+    private static final String RESERVED_FIELD = "reserved";
+    private static final String STOCK_VERSION_FIELD = "stockVersion";
+    private static final String NAME_FIELD = "name";
+    private static final String ARTICLES_FIELD = "articles";
+    private static final String BILL_OF_MATERIALS_FIELD = "billOfMaterials";
+    private static final String ARTICLE_ID_FIELD = "articleId";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TaskExecutor taskExecutor;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Stock changes applied while a rebuild is loading, replayed onto the rebuilt index before the swap.
+    private final List<long[]> pending = new ArrayList<>();
+    private boolean recording;
+    private volatile AvailabilityIndex index;
+    private volatile boolean stale = true;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param mongoTemplate             {@link MongoTemplate}
+     * @param applicationEventPublisher {@link ApplicationEventPublisher}
+     * @param taskExecutor              {@link TaskExecutor} running background index rebuilds
+     */
+    @Autowired
+    public AvailabilityService(
+            MongoTemplate mongoTemplate,
+            ApplicationEventPublisher applicationEventPublisher,
+            @Qualifier("indexExecutor") TaskExecutor taskExecutor) {
+        this.mongoTemplate = mongoTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@link List} of {@link AvailabilityView}
+     */
+    @Override
+    public List<AvailabilityView> getAvailability() {
+        LOGGER.info("Entered getAvailability() method.");
+        Lock readLock = readLock();
+        try {
+            List<AvailabilityView> views = new ArrayList<>(this.index.size());
+            for (int position = 0; position < this.index.size(); position++) {
+                views.add(toView(this.index, position));
+            }
+            return views;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param quantity units the availability must exceed
+     * @param after    unique identifier the products must follow, null to start from the first one
+     * @param limit    maximum number of unique identifiers
+     * @return {@link List} of product unique identifiers
+     */
+    @Override
+    public List<Long> getProductIds(long quantity, Long after, int limit) {
+        LOGGER.info("Entered getProductIds() method with quantity: {}, after: {} and limit: {}.",
+                quantity, after, limit);
+        long[] productIds;
+        Lock readLock = readLock();
+        try {
+            productIds = this.index.getProductIds(quantity, after == null ? Long.MIN_VALUE : after, limit);
+        } finally {
+            readLock.unlock();
+        }
+        List<Long> ids = new ArrayList<>(productIds.length);
+        for (long productId : productIds) {
+            ids.add(productId);
+        }
+        return ids;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param productId {@link Long}
+     * @return {@link Optional} of {@link AvailabilityView}
+     */
+    @Override
+    public Optional<AvailabilityView> getAvailability(Long productId) {
+        LOGGER.info("Entered getAvailability(Long) method with productId: {}.", productId);
+        Lock readLock = readLock();
+        try {
+            int position = this.index.indexOf(productId);
+            return position < 0 ? Optional.empty() : Optional.of(toView(this.index, position));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param billOfMaterials {@link List} of {@link ArticleView}
+     * @return sellable quantity
+     */
+    @Override
+    public long getAvailable(List<ArticleView> billOfMaterials) {
+        LOGGER.info("Entered getAvailable() method with billOfMaterials: {}.", billOfMaterials);
+        long[] articleIds = new long[billOfMaterials.size()];
+        long[] amounts = new long[billOfMaterials.size()];
+        for (int entry = 0; entry < articleIds.length; entry++) {
+            ArticleView articleView = billOfMaterials.get(entry);
+            articleIds[entry] = articleView.getArticleId() == null ? 0 : articleView.getArticleId();
+            amounts[entry] = articleView.getAmount() == null ? 0 : articleView.getAmount();
+        }
+        Lock readLock = readLock();
+        try {
+            return this.index.getAvailable(articleIds, amounts);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param articleId {@link Long} article unique identifier
+     * @param stock     {@link Long} new stock
+     * @param version   stock version of the article after the change
+     */
+    @Override
+    public void updateStock(Long articleId, Long stock, long version) {
+        LOGGER.info("Entered updateStock() method with articleId: {}, stock: {} and version: {}.",
+                articleId, stock, version);
+        if (articleId == null) {
+            return;
+        }
+        Map<Long, Long> changed = new HashMap<>();
+        long amount = stock == null ? 0 : stock;
+        this.lock.writeLock().lock();
+        try {
+            if (this.recording) {
+                this.pending.add(new long[]{articleId, amount, version});
+            }
+            if (this.index == null) {
+                // The first read loads the persisted stock anyway.
+                return;
+            }
+            for (int position : this.index.updateStock(articleId, amount, version)) {
+                changed.put(this.index.getProductId(position), this.index.getAvailable(position));
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        if (!changed.isEmpty()) {
+            this.applicationEventPublisher.publishEvent(new AvailabilityChangedEvent(this, changed));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidate() {
+        this.stale = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void refresh() {
+        LOGGER.info("Entered refresh() method.");
+        loadNow(true);
+    }
+
+    /**
+     * Acquire the read lock over the current index. An outdated index keeps being served while a
+     * background rebuild is scheduled, only a missing index is loaded before returning.
+     */
+    private Lock readLock() {
+        if (this.index == null) {
+            loadNow(false);
+        } else if (this.stale) {
+            scheduleRebuild();
+        }
+        this.lock.readLock().lock();
+        return this.lock.readLock();
+    }
+
+    private void scheduleRebuild() {
+        if (!this.rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            this.taskExecutor.execute(this::rebuild);
+        } catch (TaskRejectedException e) {
+            this.rebuilding.set(false);
+            LOGGER.warn("Availability index rebuild rejected, serving the outdated index.", e);
+        }
+    }
+
+    private void rebuild() {
+        boolean failed = false;
+        try {
+            // Writes invalidating the index while loading trigger another round.
+            while (this.stale) {
+                this.stale = false;
+                reload();
+            }
+        } catch (RuntimeException e) {
+            failed = true;
+            this.stale = true;
+            LOGGER.error("Availability index rebuild failed, serving the outdated index.", e);
+        } finally {
+            this.rebuilding.set(false);
+        }
+        if (!failed && this.stale) {
+            // Invalidated between the last round and releasing the flag.
+            scheduleRebuild();
+        }
+    }
+
+    private synchronized void loadNow(boolean force) {
+        if (force || this.index == null) {
+            // Cleared before loading, so writes racing with the load trigger another rebuild.
+            this.stale = false;
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                this.stale = true;
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Load a new index and swap it in, replaying the stock changes applied meanwhile. Synchronized so
+     * that concurrent reloads do not share the pending changes.
+     */
+    private synchronized void reload() {
+        this.lock.writeLock().lock();
+        try {
+            this.pending.clear();
+            this.recording = true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+        AvailabilityIndex loaded = null;
+        try {
+            loaded = load();
+        } finally {
+            this.lock.writeLock().lock();
+            try {
+                if (loaded != null) {
+                    // Stock versions discard the changes the load already observed.
+                    for (long[] change : this.pending) {
+                        loaded.updateStock(change[0], change[1], change[2]);
+                    }
+                    this.index = loaded;
+                }
+                this.pending.clear();
+                this.recording = false;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private AvailabilityIndex load() {
+        long started = System.nanoTime();
+        AvailabilityIndex.Builder builder = AvailabilityIndex.builder();
+        // Products not migrated yet reference article documents, whose amount doubles as the
+        // required amount in that layout, hence the article amounts are kept for them.
+        LongLongHashMap amounts = new LongLongHashMap();
+        try (MongoCursor<Document> cursor = this.mongoTemplate
+                .getCollection(this.mongoTemplate.getCollectionName(ArticleEntity.class))
+                .find()
+                .projection(Projections.include(AMOUNT_FIELD, RESERVED_FIELD, STOCK_VERSION_FIELD))
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                Object id = document.get(ID_FIELD);
+                Object amount = document.get(AMOUNT_FIELD);
+                Object reserved = document.get(RESERVED_FIELD);
+                Object version = document.get(STOCK_VERSION_FIELD);
+                if (id instanceof Number && amount instanceof Number) {
+                    amounts.put(((Number) id).longValue(), ((Number) amount).longValue());
+                    // Stock held by active reservations is not available to build products.
+                    builder.stock(((Number) id).longValue(), ((Number) amount).longValue()
+                                    - (reserved instanceof Number ? ((Number) reserved).longValue() : 0),
+                            version instanceof Number ? ((Number) version).longValue() : 0);
+                }
+            }
+        }
+        try (MongoCursor<Document> cursor = this.mongoTemplate
+                .getCollection(this.mongoTemplate.getCollectionName(ProductEntity.class))
+                .find()
+                .projection(Projections.include(NAME_FIELD, BILL_OF_MATERIALS_FIELD, ARTICLES_FIELD))
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                Object id = document.get(ID_FIELD);
+                if (id instanceof Number) {
+                    List<?> billOfMaterials = document.get(BILL_OF_MATERIALS_FIELD, List.class);
+                    List<?> entries = billOfMaterials != null ? billOfMaterials : document.get(ARTICLES_FIELD, List.class);
+                    int size = entries == null ? 0 : entries.size();
+                    long[] articleIds = new long[size];
+                    long[] required = new long[size];
+                    for (int entry = 0; entry < size; entry++) {
+                        Object value = entries.get(entry);
+                        if (value instanceof Document) {
+                            Object articleId = ((Document) value).get(ARTICLE_ID_FIELD);
+                            Object amount = ((Document) value).get(AMOUNT_FIELD);
+                            if (articleId instanceof Number) {
+                                articleIds[entry] = ((Number) articleId).longValue();
+                                required[entry] = amount instanceof Number ? ((Number) amount).longValue() : 0;
+                            }
+                        } else if (value instanceof DBRef && ((DBRef) value).getId() instanceof Number) {
+                            articleIds[entry] = ((Number) ((DBRef) value).getId()).longValue();
+                            required[entry] = amounts.get(articleIds[entry], 0);
+                        }
+                    }
+                    builder.product(((Number) id).longValue(), document.getString(NAME_FIELD), articleIds, required);
+                }
+            }
+        }
+        AvailabilityIndex loaded = builder.build();
+        LOGGER.info("Availability index of {} products loaded in {} ms.",
+                loaded.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return loaded;
+    }
+
+    private static AvailabilityView toView(AvailabilityIndex index, int position) {
+        return AvailabilityView.builder()
+                .productId(index.getProductId(position))
+                .name(index.getName(position))
+                .available(index.getAvailable(position))
+                .build();
+    }
+}
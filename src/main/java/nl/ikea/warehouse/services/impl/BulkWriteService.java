@@ -0,0 +1,104 @@
+package nl.ikea.warehouse.services.impl;
+
+import nl.ikea.warehouse.converters.impl.InventoryConverter;
+import nl.ikea.warehouse.converters.impl.ProductConverter;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.pipelines.BatchReport;
+import nl.ikea.warehouse.pipelines.BulkWriter;
+import nl.ikea.warehouse.services.IBulkWriteService;
+import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * @see IBulkWriteService
+ */
+@Component
+public class BulkWriteService implements IBulkWriteService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkWriteService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final InventoryConverter inventoryConverter;
+    private final ProductConverter productConverter;
+    private final int batchSize;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param mongoTemplate             {@link MongoTemplate}
+     * @param applicationEventPublisher {@link ApplicationEventPublisher}
+     * @param inventoryConverter        {@link InventoryConverter}
+     * @param productConverter          {@link ProductConverter}
+     * @param batchSize                 number of entries persisted per bulk operation
+     */
+    @Autowired
+    public BulkWriteService(
+            MongoTemplate mongoTemplate,
+            ApplicationEventPublisher applicationEventPublisher,
+            InventoryConverter inventoryConverter,
+            ProductConverter productConverter,
+            @Value("${warehouse.upload.batch-size:1000}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.inventoryConverter = inventoryConverter;
+        this.productConverter = productConverter;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@link BulkWriter} of {@link ArticleEntity}
+     */
+    @Override
+    public BulkWriter<ArticleEntity, InventoryView> inventoryWriter() {
+        return inventoryWriter(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param batchListener {@link Consumer} notified with every written {@link BatchReport}
+     * @return {@link BulkWriter} of {@link ArticleEntity}
+     */
+    @Override
+    public BulkWriter<ArticleEntity, InventoryView> inventoryWriter(Consumer<BatchReport> batchListener) {
+        LOGGER.info("Entered inventoryWriter() method with batch size: {}", this.batchSize);
+        return new BulkWriter<>(this.mongoTemplate, this.applicationEventPublisher,
+                this.inventoryConverter, ArticleEntity.class, this.batchSize, batchListener);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@link BulkWriter} of {@link ProductEntity}
+     */
+    @Override
+    public BulkWriter<ProductEntity, ProductView> productWriter() {
+        return productWriter(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param batchListener {@link Consumer} notified with every written {@link BatchReport}
+     * @return {@link BulkWriter} of {@link ProductEntity}
+     */
+    @Override
+    public BulkWriter<ProductEntity, ProductView> productWriter(Consumer<BatchReport> batchListener) {
+        LOGGER.info("Entered productWriter() method with batch size: {}", this.batchSize);
+        return new BulkWriter<>(this.mongoTemplate, this.applicationEventPublisher,
+                this.productConverter, ProductEntity.class, this.batchSize, batchListener);
+    }
+}
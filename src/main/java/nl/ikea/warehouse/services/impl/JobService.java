@@ -0,0 +1,124 @@
+package nl.ikea.warehouse.services.impl;
+
+import nl.ikea.warehouse.exceptions.ServiceUnavailableException;
+import nl.ikea.warehouse.jobs.Job;
+import nl.ikea.warehouse.services.IJobService;
+import nl.ikea.warehouse.views.impl.JobView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * @see IJobService
+ */
+@Component
+public class JobService implements IJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobService.class);
+
+    private final TaskExecutor taskExecutor;
+    private final Duration retention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param taskExecutor     {@link TaskExecutor} bounded job executor
+     * @param retentionMinutes minutes a finished job stays available for polling
+     */
+    @Autowired
+    public JobService(
+            @Qualifier("jobExecutor") TaskExecutor taskExecutor,
+            @Value("${warehouse.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.taskExecutor = taskExecutor;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param type  {@link String} job type
+     * @param total expected amount of work units, 0 if unknown
+     * @param work  {@link Consumer} performing the work and reporting progress on the {@link Job}
+     * @return {@link JobView} of the queued job
+     */
+    @Override
+    public JobView submit(String type, long total, Consumer<Job> work) {
+        LOGGER.info("Entered submit() method with type: {}", type);
+        evictFinished();
+        Job job = new Job(UUID.randomUUID().toString(), type, total);
+        this.jobs.put(job.getId(), job);
+        try {
+            this.taskExecutor.execute(() -> run(job, work));
+        } catch (TaskRejectedException e) {
+            this.jobs.remove(job.getId());
+            throw new ServiceUnavailableException("MSG_IKEA_503", "Job capacity exhausted, retry later.", e);
+        }
+        return toView(job);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param jobId {@link String}
+     * @return {@link Optional} of {@link JobView}
+     */
+    @Override
+    public Optional<JobView> getJob(String jobId) {
+        LOGGER.info("Entered getJob() method with jobId: {}", jobId);
+        return Optional.ofNullable(this.jobs.get(jobId)).map(this::toView);
+    }
+
+    private void run(Job job, Consumer<Job> work) {
+        job.start();
+        LOGGER.info("Job {} of type {} started.", job.getId(), job.getType());
+        try {
+            work.accept(job);
+            job.complete();
+            LOGGER.info("Job {} completed in {} ms.", job.getId(), job.getElapsed().toMillis());
+        } catch (RuntimeException e) {
+            LOGGER.error("Job {} failed.", job.getId(), e);
+            job.fail(e.getMessage());
+        } catch (Error e) {
+            // Fail the job rather than leaving it running forever, but let the error propagate.
+            LOGGER.error("Job {} failed.", job.getId(), e);
+            job.fail(e.toString());
+            throw e;
+        }
+    }
+
+    private void evictFinished() {
+        Instant threshold = Instant.now().minus(this.retention);
+        this.jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+
+    private JobView toView(Job job) {
+        Duration eta = job.getEta();
+        return JobView.builder()
+                .jobId(job.getId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .rowsParsed(job.getRowsParsed().get())
+                .rowsWritten(job.getRowsWritten().get())
+                .rowsFailed(job.getRowsFailed().get())
+                .throughput(job.getThroughput())
+                .etaSeconds(eta != null ? eta.getSeconds() : null)
+                .startedAt(job.getStartedAt() != null ? job.getStartedAt().toString() : null)
+                .finishedAt(job.getFinishedAt() != null ? job.getFinishedAt().toString() : null)
+                .message(job.getMessage())
+                .build();
+    }
+}
@@ -1,41 +1,143 @@
 package nl.ikea.warehouse.services.impl;
 
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.querydsl.core.BooleanBuilder;
+import nl.ikea.warehouse.caches.ProductViewCache;
+import nl.ikea.warehouse.constants.ApplicationConstants;
 import nl.ikea.warehouse.converters.impl.ProductConverter;
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.entities.QProductEntity;
+import nl.ikea.warehouse.events.CatalogChangedEvent;
+import nl.ikea.warehouse.events.InventoryChangedEvent;
+import nl.ikea.warehouse.exceptions.ConflictException;
+import nl.ikea.warehouse.exceptions.ResourceNotFoundException;
+import nl.ikea.warehouse.filters.ProductFilter;
+import nl.ikea.warehouse.jobs.Job;
+import nl.ikea.warehouse.migrations.LegacyBillOfMaterialsResolver;
 import nl.ikea.warehouse.repositories.ProductRepository;
+import nl.ikea.warehouse.services.IArticleService;
+import nl.ikea.warehouse.services.IAvailabilityService;
+import nl.ikea.warehouse.services.IJobService;
 import nl.ikea.warehouse.services.IProductService;
+import nl.ikea.warehouse.utils.KeysetPage;
+import nl.ikea.warehouse.utils.KeysetPaginationUtils;
+import nl.ikea.warehouse.utils.SingleFlight;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import nl.ikea.warehouse.views.impl.ArticleView;
+import nl.ikea.warehouse.views.impl.AvailabilityView;
+import nl.ikea.warehouse.views.impl.JobView;
+import nl.ikea.warehouse.views.impl.MultiGetView;
 import nl.ikea.warehouse.views.impl.ProductView;
+import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.SpringDataMongodbQuery;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.stereotype.Component;
 
 /**
+ * Concurrent identical reads share a single database query through {@link SingleFlight}, while
+ * each caller converts the shared entities into views of its own. Products not migrated to an
+ * embedded bill of materials yet are resolved in batches by {@link LegacyBillOfMaterialsResolver}
+ * before being shared. Purges delete server side, in batches on a background job for large
+ * catalogs, so products are never loaded to be deleted.
+ *
  * @see IProductService
  */
 @Component
 public class ProductService implements IProductService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProductService.class);
+    private static final QProductEntity PRODUCT = QProductEntity.productEntity;
+    private static final int STREAM_BATCH_SIZE = Integer.parseInt(ApplicationConstants.DEFAULT_PAGE_SIZE);
+    private static final String ID_FIELD = "_id";
+    // Bounds of the availability windows scanned for a page.
+    private static final int MAX_WINDOWS = 8;
+    private static final int MAX_WINDOW_SIZE = 4096;
 
     private final ProductRepository productRepository;
     private final ProductConverter productConverter;
+    private final IAvailabilityService iAvailabilityService;
+    private final IArticleService iArticleService;
+    private final MongoTemplate mongoTemplate;
+    private final ProductViewCache productViewCache;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final LegacyBillOfMaterialsResolver legacyBillOfMaterialsResolver;
+    private final ProductFilter productFilter;
+    private final IJobService iJobService;
+    private final long purgeAsyncThreshold;
+    private final int purgeBatchSize;
+    private final SingleFlight<Long, Optional<ProductEntity>> productReads = new SingleFlight<>();
+    private final SingleFlight<List<Object>, KeysetPage<ProductEntity>> pageReads = new SingleFlight<>();
+    // Pages filtered on availability, which an inventory change outdates as well.
+    private final SingleFlight<List<Object>, KeysetPage<ProductEntity>> stockPageReads = new SingleFlight<>();
 
     /**
      * Dependency injection default constructor
      *
-     * @param productRepository {@link ProductRepository}
-     * @param productConverter  {@link ProductConverter}
+     * @param productRepository             {@link ProductRepository}
+     * @param productConverter              {@link ProductConverter}
+     * @param iAvailabilityService          {@link IAvailabilityService}
+     * @param iArticleService               {@link IArticleService}
+     * @param mongoTemplate                 {@link MongoTemplate}
+     * @param productViewCache              {@link ProductViewCache}
+     * @param applicationEventPublisher     {@link ApplicationEventPublisher}
+     * @param legacyBillOfMaterialsResolver {@link LegacyBillOfMaterialsResolver}
+     * @param productFilter                 {@link ProductFilter}
+     * @param iJobService                   {@link IJobService}
+     * @param purgeAsyncThreshold           number of products above which purges run as a background job
+     * @param purgeBatchSize                number of products deleted per batch by purge jobs
      */
     @Autowired
     public ProductService(
             ProductRepository productRepository,
-            ProductConverter productConverter) {
+            ProductConverter productConverter,
+            IAvailabilityService iAvailabilityService,
+            IArticleService iArticleService,
+            MongoTemplate mongoTemplate,
+            ProductViewCache productViewCache,
+            ApplicationEventPublisher applicationEventPublisher,
+            LegacyBillOfMaterialsResolver legacyBillOfMaterialsResolver,
+            ProductFilter productFilter,
+            IJobService iJobService,
+            @Value("${warehouse.products.purge.async-threshold:10000}") long purgeAsyncThreshold,
+            @Value("${warehouse.products.purge.batch-size:10000}") int purgeBatchSize) {
         this.productRepository = productRepository;
         this.productConverter = productConverter;
+        this.iAvailabilityService = iAvailabilityService;
+        this.iArticleService = iArticleService;
+        this.mongoTemplate = mongoTemplate;
+        this.productViewCache = productViewCache;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.legacyBillOfMaterialsResolver = legacyBillOfMaterialsResolver;
+        this.productFilter = productFilter;
+        this.iJobService = iJobService;
+        this.purgeAsyncThreshold = purgeAsyncThreshold;
+        this.purgeBatchSize = purgeBatchSize;
     }
 
     /**
@@ -46,11 +148,14 @@ public class ProductService implements IProductService {
      */
     @Override
     public Optional<ProductView> save(ProductView productView) {
-        return this.productConverter.from(
+        Optional<ProductView> saved = this.productConverter.from(
                 this.productConverter
                         .from(productView)
                         .map(this.productRepository::save)
                         .orElse(null));
+        this.iAvailabilityService.invalidate();
+        this.applicationEventPublisher.publishEvent(new CatalogChangedEvent(this));
+        return saved;
     }
 
     /**
@@ -61,7 +166,109 @@ public class ProductService implements IProductService {
     @Override
     public List<ProductView> getProducts() {
         LOGGER.info("Entered getProducts() method.");
-        return this.productConverter.from(this.productRepository.findAll());
+        return this.productConverter.from(
+                this.pageReads.execute(Arrays.asList(null, null), () -> new KeysetPage<>(
+                        this.legacyBillOfMaterialsResolver.resolve(this.productRepository.findAll()), null))
+                        .getItems());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param filter {@link String}
+     * @param after  {@link Long}
+     * @param limit  maximum number of products
+     * @return {@link KeysetPage} of {@link ProductView}
+     */
+    @Override
+    public KeysetPage<ProductView> getProducts(String filter, Long after, int limit) {
+        LOGGER.info("Entered getProducts() method with filter: {}, after: {} and limit: {}.", filter, after, limit);
+        BooleanBuilder predicate = new BooleanBuilder(this.productFilter.parse(filter));
+        if (after != null) {
+            predicate.and(PRODUCT.productId.gt(after));
+        }
+        SingleFlight<List<Object>, KeysetPage<ProductEntity>> reads =
+                ProductFilter.dependsOnStock(filter) ? this.stockPageReads : this.pageReads;
+        KeysetPage<ProductEntity> page = reads.execute(Arrays.asList(filter, after, limit), () -> {
+            List<Long> window = this.productFilter.getAvailableProductIds(filter, after, limit);
+            if (window == null) {
+                return KeysetPage.of(fetch(predicate, limit), limit, ProductEntity::getProductId);
+            }
+            // Available products are pushed down one window at a time, following the keyset cursor,
+            // until the page is full or the products available run out. Windows double in size, so
+            // sparse matches take few queries, and are bounded in number: a page still short then
+            // is returned as is, its cursor the last product scanned.
+            List<ProductEntity> products = new ArrayList<>(limit);
+            int size = limit;
+            for (int windows = 1; ; windows++) {
+                if (!window.isEmpty()) {
+                    products.addAll(fetch(new BooleanBuilder(predicate).and(PRODUCT.productId.in(window)),
+                            limit - products.size()));
+                }
+                if (products.size() == limit) {
+                    return KeysetPage.of(products, limit, ProductEntity::getProductId);
+                }
+                if (window.size() < size) {
+                    return new KeysetPage<>(products, null);
+                }
+                Long scanned = window.get(window.size() - 1);
+                if (windows == MAX_WINDOWS) {
+                    return new KeysetPage<>(products, scanned);
+                }
+                size = Math.max(limit, Math.min(size * 2, MAX_WINDOW_SIZE));
+                window = this.productFilter.getAvailableProductIds(filter, scanned, size);
+            }
+        });
+        return new KeysetPage<>(this.productConverter.from(page.getItems()), page.getNext());
+    }
+
+    private List<ProductEntity> fetch(BooleanBuilder predicate, int limit) {
+        SpringDataMongodbQuery<ProductEntity> query = new SpringDataMongodbQuery<>(this.mongoTemplate, ProductEntity.class);
+        if (predicate.hasValue()) {
+            query.where(predicate);
+        }
+        return this.legacyBillOfMaterialsResolver.resolve(query.orderBy(PRODUCT.productId.asc()).limit(limit).fetch());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param ids {@link Collection} of product unique identifiers
+     * @return {@link MultiGetView} of {@link ProductView}
+     */
+    @Override
+    public MultiGetView<ProductView> getProducts(Collection<Long> ids) {
+        LOGGER.info("Entered getProducts(Collection) method with ids: {}.", ids);
+        return MultiGetView.of(ids, this.productConverter.from(this.legacyBillOfMaterialsResolver.resolve(
+                this.mongoTemplate.find(Query.query(Criteria.where(ID_FIELD).in(ids)), ProductEntity.class))),
+                ProductView::getProductId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param after    {@link Long}
+     * @param limit    {@link Integer}
+     * @param consumer {@link Consumer} of {@link ProductView}
+     * @return number of streamed products
+     */
+    @Override
+    public long streamProducts(Long after, Integer limit, Consumer<ProductView> consumer) {
+        LOGGER.info("Entered streamProducts() method with after: {} and limit: {}.", after, limit);
+        long streamed = 0;
+        List<ProductEntity> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+        try (CloseableIterator<ProductEntity> cursor =
+                     this.mongoTemplate.stream(KeysetPaginationUtils.query(after, limit), ProductEntity.class)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == STREAM_BATCH_SIZE || !cursor.hasNext()) {
+                    this.productConverter.from(this.legacyBillOfMaterialsResolver.resolve(batch)).forEach(consumer);
+                    streamed += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        return streamed;
     }
 
     /**
@@ -73,17 +280,145 @@ public class ProductService implements IProductService {
     @Override
     public Optional<ProductView> getProduct(Long productId) {
         LOGGER.info("Entered getProduct(String) with productId: {}.", productId);
-        return this.productRepository
-                .findById(productId)
-                .flatMap(this.productConverter::from);
+        return this.productViewCache.get(productId, id -> this.productReads
+                .execute(id, () -> findProduct(id))
+                .flatMap(this.productConverter::from));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param productId {@link Long}
+     * @return {@link Optional} of {@link List} of {@link ArticleView}
+     */
+    @Override
+    public Optional<List<ArticleView>> getBillOfMaterials(Long productId) {
+        LOGGER.info("Entered getBillOfMaterials() method with productId: {}.", productId);
+        return findProduct(productId).flatMap(this.productConverter::from).map(ProductService::articles);
+    }
+
+    private Optional<ProductEntity> findProduct(Long productId) {
+        return this.productRepository.findById(productId).map(product ->
+                this.legacyBillOfMaterialsResolver.resolve(Collections.singletonList(product)).get(0));
+    }
+
+    private static List<ArticleView> articles(ProductView productView) {
+        return productView.getArticles() == null ? Collections.emptyList() : productView.getArticles();
     }
 
     /**
      * {@inheritDoc}
+     *
+     * @param reset drop the collection and rebuild its indexes
+     * @return {@link Optional} of {@link JobView} of the purge job, empty if purged already
+     */
+    @Override
+    public Optional<JobView> deleteAll(boolean reset) {
+        LOGGER.info("Entered deleteAll() method with reset: {}.", reset);
+        if (reset) {
+            this.mongoTemplate.dropCollection(ProductEntity.class);
+            // Entity indexes are only created when the mapping context first meets the entity.
+            IndexOperations indexOperations = this.mongoTemplate.indexOps(ProductEntity.class);
+            new MongoPersistentEntityIndexResolver(
+                    (MongoMappingContext) this.mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(ClassTypeInformation.from(ProductEntity.class))
+                    .forEach(indexOperations::ensureIndex);
+            catalogDeleted();
+            return Optional.empty();
+        }
+        MongoCollection<Document> collection =
+                this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(ProductEntity.class));
+        long products = collection.estimatedDocumentCount();
+        if (products <= this.purgeAsyncThreshold) {
+            LOGGER.info("Deleted {} products.", collection.deleteMany(new Document()).getDeletedCount());
+            catalogDeleted();
+            return Optional.empty();
+        }
+        return Optional.of(this.iJobService.submit("product-purge", products, job -> purge(collection, job)));
+    }
+
+    /**
+     * Delete products in unique identifier ranges of the batch size, each range bound found by
+     * skipping over the identifier index, so neither documents nor identifiers are loaded.
+     */
+    private void purge(MongoCollection<Document> collection, Job job) {
+        long deleted = 0;
+        Document bound;
+        do {
+            bound = collection.find()
+                    .projection(Projections.include(ID_FIELD))
+                    .sort(Sorts.ascending(ID_FIELD))
+                    .skip(this.purgeBatchSize - 1)
+                    .first();
+            long batch = collection
+                    .deleteMany(bound == null ? new Document() : Filters.lte(ID_FIELD, bound.get(ID_FIELD)))
+                    .getDeletedCount();
+            deleted += batch;
+            job.rows(batch, 0);
+            job.progress(deleted);
+            // Caches must not serve products deleted so far while the purge goes on.
+            catalogDeleted();
+        } while (bound != null);
+        LOGGER.info("Purged {} products.", deleted);
+    }
+
+    private void catalogDeleted() {
+        this.iAvailabilityService.invalidate();
+        this.applicationEventPublisher.publishEvent(new CatalogChangedEvent(this));
+    }
+
+    /**
+     * Let reads arriving after a catalog change start over instead of joining reads in flight.
+     *
+     * @param event {@link CatalogChangedEvent}
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        this.productReads.forgetAll();
+        this.pageReads.forgetAll();
+        this.stockPageReads.forgetAll();
+    }
+
+    /**
+     * Let reads of pages filtered on availability arriving after an inventory change start over
+     * instead of joining reads in flight.
+     *
+     * @param event {@link InventoryChangedEvent}
+     */
+    @EventListener
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        this.stockPageReads.forgetAll();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param productId {@link Long}
+     * @param quantity  {@link Long} units to sell
+     * @return {@link Optional} of {@link AvailabilityView}
      */
     @Override
-    public void deleteAll() {
-        LOGGER.info("Entered deleteAll() method.");
-        this.productRepository.deleteAll(this.productRepository.findAll());
+    public Optional<AvailabilityView> sell(Long productId, Long quantity) {
+        LOGGER.info("Entered sell() method with productId: {} and quantity: {}.", productId, quantity);
+        // Read as persisted: the availability model may lag behind products created or changed lately.
+        ProductView productView = findProduct(productId)
+                .flatMap(this.productConverter::from)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "MSG_IKEA_404", "There is no persisted entry with unique identifier"));
+        List<ArticleView> articles = articles(productView);
+        Map<Long, Long> amounts = new HashMap<>();
+        articles.stream()
+                .filter(articleView -> articleView.getAmount() != null && articleView.getAmount() > 0)
+                .forEach(articleView -> amounts.merge(
+                        articleView.getArticleId(), Math.multiplyExact(articleView.getAmount(), quantity), Long::sum));
+        if (amounts.isEmpty()) {
+            throw new ConflictException("MSG_IKEA_409", "Product has no articles to sell.");
+        }
+        this.iArticleService.withdraw(amounts);
+        return Optional.of(AvailabilityView.builder()
+                .productId(productId)
+                .name(productView.getName())
+                .available(this.iAvailabilityService.getAvailable(articles))
+                .build());
     }
 }
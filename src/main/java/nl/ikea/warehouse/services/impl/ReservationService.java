@@ -0,0 +1,262 @@
+package nl.ikea.warehouse.services.impl;
+
+import nl.ikea.warehouse.converters.impl.ReservationConverter;
+import nl.ikea.warehouse.entities.ArticleAmountEntity;
+import nl.ikea.warehouse.entities.ReservationEntity;
+import nl.ikea.warehouse.entities.ReservationStatus;
+import nl.ikea.warehouse.exceptions.ApplicationException;
+import nl.ikea.warehouse.exceptions.ConflictException;
+import nl.ikea.warehouse.exceptions.ResourceNotFoundException;
+import nl.ikea.warehouse.repositories.ReservationRepository;
+import nl.ikea.warehouse.services.IArticleService;
+import nl.ikea.warehouse.services.IProductService;
+import nl.ikea.warehouse.services.IReservationService;
+import nl.ikea.warehouse.views.impl.ArticleView;
+import nl.ikea.warehouse.views.impl.ReservationView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reservation ledger. Held stock is tracked per article in {@code reserved}, next to the amount on
+ * hand, through {@link IArticleService}; every reservation is a ledger entry whose status changes
+ * with a single conditional {@code findAndModify}, so concurrent confirm, release and expiry of the
+ * same reservation return its stock exactly once. The entry is recorded as
+ * {@link ReservationStatus#PENDING} before any stock is held and only activated once it is, so stock
+ * is never returned for an entry that may not hold any: the expiry sweep expires pending entries
+ * without touching stock, and a request finding its entry expired while holding returns the stock
+ * itself. A request dying between holding and activating keeps its stock held, under selling rather
+ * than overselling.
+ *
+ * @see IReservationService
+ */
+@Component
+public class ReservationService implements IReservationService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReservationService.class);
+    private static final String ID_FIELD = "_id";
+    private static final String STATUS_FIELD = "status";
+    private static final String EXPIRES_AT_FIELD = "expiresAt";
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationConverter reservationConverter;
+    private final IArticleService iArticleService;
+    private final IProductService iProductService;
+    private final MongoTemplate mongoTemplate;
+    private final Duration defaultTtl;
+    private final int sweepBatchSize;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param reservationRepository {@link ReservationRepository}
+     * @param reservationConverter  {@link ReservationConverter}
+     * @param iArticleService       {@link IArticleService}
+     * @param iProductService       {@link IProductService}
+     * @param mongoTemplate         {@link MongoTemplate}
+     * @param ttlSeconds            seconds stock is held when the request does not specify it
+     * @param sweepBatchSize        maximum number of reservations expired per sweep
+     */
+    @Autowired
+    public ReservationService(
+            ReservationRepository reservationRepository,
+            ReservationConverter reservationConverter,
+            IArticleService iArticleService,
+            IProductService iProductService,
+            MongoTemplate mongoTemplate,
+            @Value("${warehouse.reservations.ttl-seconds:300}") long ttlSeconds,
+            @Value("${warehouse.reservations.sweep-batch-size:500}") int sweepBatchSize) {
+        this.reservationRepository = reservationRepository;
+        this.reservationConverter = reservationConverter;
+        this.iArticleService = iArticleService;
+        this.iProductService = iProductService;
+        this.mongoTemplate = mongoTemplate;
+        this.defaultTtl = Duration.ofSeconds(ttlSeconds);
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param reservationView {@link ReservationView}
+     * @return {@link ReservationView}
+     */
+    @Override
+    public ReservationView reserve(ReservationView reservationView) {
+        LOGGER.info("Entered reserve() method with: {}", reservationView);
+        List<ArticleView> billOfMaterials = this.iProductService
+                .getBillOfMaterials(reservationView.getProductId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "MSG_IKEA_404", "There is no persisted entry with unique identifier"));
+        Map<Long, Long> amounts = new LinkedHashMap<>();
+        billOfMaterials.stream()
+                .filter(articleView -> articleView.getAmount() != null && articleView.getAmount() > 0)
+                .forEach(articleView -> amounts.merge(articleView.getArticleId(),
+                        Math.multiplyExact(articleView.getAmount(), reservationView.getQuantity()), Long::sum));
+        if (amounts.isEmpty()) {
+            throw new ConflictException("MSG_IKEA_409", "Product has no articles to reserve.");
+        }
+        ReservationEntity reservationEntity = this.reservationConverter.from(reservationView)
+                .orElseThrow(() -> new ConflictException("MSG_IKEA_409", "Empty reservation."));
+        Instant now = Instant.now();
+        List<ArticleAmountEntity> articles = new ArrayList<>(amounts.size());
+        amounts.forEach((articleId, amount) -> articles.add(new ArticleAmountEntity(articleId, amount)));
+        reservationEntity.setReservationId(UUID.randomUUID().toString());
+        reservationEntity.setArticles(articles);
+        reservationEntity.setStatus(ReservationStatus.PENDING);
+        reservationEntity.setCreatedAt(now);
+        reservationEntity.setExpiresAt(now.plus(reservationView.getTtlSeconds() == null
+                ? this.defaultTtl : Duration.ofSeconds(reservationView.getTtlSeconds())));
+        String reservationId = this.reservationRepository.insert(reservationEntity).getReservationId();
+        try {
+            this.iArticleService.reserve(amounts);
+        } catch (RuntimeException e) {
+            // Nothing is held, the guarded reserve compensated its partial updates.
+            transition(Criteria.where(ID_FIELD).is(reservationId), ReservationStatus.PENDING,
+                    ReservationStatus.RELEASED);
+            throw e;
+        }
+        Optional<ReservationEntity> active = transition(Criteria.where(ID_FIELD).is(reservationId),
+                ReservationStatus.PENDING, ReservationStatus.ACTIVE);
+        if (!active.isPresent()) {
+            // Expired by the sweep in the meantime, which leaves the stock of pending entries alone.
+            this.iArticleService.release(amounts);
+            throw notActive(reservationId);
+        }
+        return this.reservationConverter.from(active.get()).orElse(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param reservationId {@link String}
+     * @return {@link Optional} of {@link ReservationView}
+     */
+    @Override
+    public Optional<ReservationView> getReservation(String reservationId) {
+        LOGGER.info("Entered getReservation() method with reservationId: {}", reservationId);
+        return this.reservationRepository.findById(reservationId).flatMap(this.reservationConverter::from);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param reservationId {@link String}
+     * @return {@link ReservationView}
+     */
+    @Override
+    public ReservationView confirm(String reservationId) {
+        LOGGER.info("Entered confirm() method with reservationId: {}", reservationId);
+        // An expired reservation may not have been swept yet, it must not be confirmed anyway.
+        ReservationEntity reservationEntity = transition(
+                Criteria.where(ID_FIELD).is(reservationId).and(EXPIRES_AT_FIELD).gt(Instant.now()),
+                ReservationStatus.ACTIVE, ReservationStatus.CONFIRMED)
+                .orElseThrow(() -> notActive(reservationId));
+        this.iArticleService.consume(amounts(reservationEntity));
+        return this.reservationConverter.from(reservationEntity).orElse(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param reservationId {@link String}
+     * @return {@link ReservationView}
+     */
+    @Override
+    public ReservationView release(String reservationId) {
+        LOGGER.info("Entered release() method with reservationId: {}", reservationId);
+        ReservationEntity reservationEntity = transition(
+                Criteria.where(ID_FIELD).is(reservationId), ReservationStatus.ACTIVE, ReservationStatus.RELEASED)
+                .orElseThrow(() -> notActive(reservationId));
+        this.iArticleService.release(amounts(reservationEntity));
+        return this.reservationConverter.from(reservationEntity).orElse(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return number of expired reservations
+     */
+    @Override
+    @Scheduled(
+            initialDelayString = "${warehouse.reservations.sweep-interval-ms:10000}",
+            fixedDelayString = "${warehouse.reservations.sweep-interval-ms:10000}")
+    public int expire() {
+        Instant now = Instant.now();
+        // Pending entries past their expiry belong to requests that died or are late activating them.
+        Query query = Query.query(Criteria.where(STATUS_FIELD).in(ReservationStatus.ACTIVE, ReservationStatus.PENDING)
+                .and(EXPIRES_AT_FIELD).lte(now))
+                .limit(this.sweepBatchSize);
+        query.fields().include(ID_FIELD).include(STATUS_FIELD);
+        int expired = 0;
+        for (ReservationEntity candidate : this.mongoTemplate.find(query, ReservationEntity.class)) {
+            Optional<ReservationEntity> reservationEntity = transition(
+                    Criteria.where(ID_FIELD).is(candidate.getReservationId()).and(EXPIRES_AT_FIELD).lte(now),
+                    candidate.getStatus(), ReservationStatus.EXPIRED);
+            if (reservationEntity.isPresent()) {
+                if (candidate.getStatus() == ReservationStatus.ACTIVE) {
+                    this.iArticleService.release(amounts(reservationEntity.get()));
+                }
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            LOGGER.info("Expired {} reservations.", expired);
+        }
+        return expired;
+    }
+
+    /**
+     * Move a reservation from a status to the next one.
+     *
+     * @param criteria {@link Criteria} identifying the reservation
+     * @param from     {@link ReservationStatus} the reservation must be in
+     * @param to       {@link ReservationStatus} to move to
+     * @return {@link Optional} of the updated {@link ReservationEntity}, empty if it was not in {@code from}
+     */
+    private Optional<ReservationEntity> transition(Criteria criteria, ReservationStatus from, ReservationStatus to) {
+        return Optional.ofNullable(this.mongoTemplate.findAndModify(
+                Query.query(criteria.and(STATUS_FIELD).is(from)),
+                new Update().set(STATUS_FIELD, to),
+                FindAndModifyOptions.options().returnNew(true),
+                ReservationEntity.class));
+    }
+
+    /**
+     * Explain why a reservation could not change status.
+     *
+     * @param reservationId {@link String}
+     * @return {@link ApplicationException} to throw
+     */
+    private ApplicationException notActive(String reservationId) {
+        return this.reservationRepository.findById(reservationId)
+                .<ApplicationException>map(reservationEntity -> new ConflictException("MSG_IKEA_409",
+                        "Reservation is " + (reservationEntity.getStatus() == ReservationStatus.ACTIVE
+                                ? ReservationStatus.EXPIRED : reservationEntity.getStatus()) + "."))
+                .orElseGet(() -> new ResourceNotFoundException(
+                        "MSG_IKEA_404", "There is no persisted entry with unique identifier"));
+    }
+
+    private static Map<Long, Long> amounts(ReservationEntity reservationEntity) {
+        Map<Long, Long> amounts = new LinkedHashMap<>();
+        reservationEntity.getArticles().forEach(article -> amounts.put(article.getArticleId(), article.getAmount()));
+        return amounts;
+    }
+}
@@ -0,0 +1,162 @@
+package nl.ikea.warehouse.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.CountingInputStream;
+import nl.ikea.warehouse.events.CatalogChangedEvent;
+import nl.ikea.warehouse.events.InventoryChangedEvent;
+import nl.ikea.warehouse.exceptions.BadRequestException;
+import nl.ikea.warehouse.exceptions.ServiceException;
+import nl.ikea.warehouse.jobs.Job;
+import nl.ikea.warehouse.pipelines.BatchReport;
+import nl.ikea.warehouse.pipelines.BulkWriter;
+import nl.ikea.warehouse.services.IAvailabilityService;
+import nl.ikea.warehouse.services.IBulkWriteService;
+import nl.ikea.warehouse.services.IJobService;
+import nl.ikea.warehouse.services.IUploadService;
+import nl.ikea.warehouse.utils.FileReadUtils;
+import nl.ikea.warehouse.views.IView;
+import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.JobView;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * @see IUploadService
+ */
+@Component
+public class UploadService implements IUploadService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UploadService.class);
+
+    private final IJobService iJobService;
+    private final IBulkWriteService iBulkWriteService;
+    private final IAvailabilityService iAvailabilityService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Dependency injection default constructor
+     *
+     * @param iJobService               {@link IJobService}
+     * @param iBulkWriteService         {@link IBulkWriteService}
+     * @param iAvailabilityService      {@link IAvailabilityService}
+     * @param objectMapper              {@link ObjectMapper}
+     * @param applicationEventPublisher {@link ApplicationEventPublisher}
+     */
+    @Autowired
+    public UploadService(
+            IJobService iJobService,
+            IBulkWriteService iBulkWriteService,
+            IAvailabilityService iAvailabilityService,
+            ObjectMapper objectMapper,
+            ApplicationEventPublisher applicationEventPublisher) {
+        this.iJobService = iJobService;
+        this.iBulkWriteService = iBulkWriteService;
+        this.iAvailabilityService = iAvailabilityService;
+        this.objectMapper = objectMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param file {@link MultipartFile} uploaded file
+     * @return {@link JobView} of the scheduled job
+     */
+    @Override
+    public JobView uploadInventory(MultipartFile file) {
+        LOGGER.info("Entered uploadInventory() method with file: {}", file.getOriginalFilename());
+        return submit("inventory-upload", file, InventoryView.class,
+                this.iBulkWriteService::inventoryWriter, () -> new InventoryChangedEvent(this));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param file {@link MultipartFile} uploaded file
+     * @return {@link JobView} of the scheduled job
+     */
+    @Override
+    public JobView uploadProducts(MultipartFile file) {
+        LOGGER.info("Entered uploadProducts() method with file: {}", file.getOriginalFilename());
+        return submit("product-upload", file, ProductView.class,
+                this.iBulkWriteService::productWriter, () -> new CatalogChangedEvent(this));
+    }
+
+    /**
+     * Spool the multipart content to a temporary file, as the request backed upload does not
+     * outlive the request, and ingest it on the job executor. The changed event is published for
+     * every batch written, so versions and caches do not lag behind committed data while the upload
+     * goes on, and once more when the upload ends, as a failing batch may have been partly written.
+     */
+    private <E, V extends Serializable & IView> JobView submit(String type, MultipartFile file, Class<V> clazz,
+            Function<Consumer<BatchReport>, BulkWriter<E, V>> writerFactory, Supplier<ApplicationEvent> changed) {
+        Path path = spool(file);
+        try {
+            return this.iJobService.submit(type, file.getSize(), job -> ingest(job, path, clazz,
+                    writerFactory.apply(batchReport -> {
+                        job.batch(batchReport);
+                        if (batchReport.getWritten() > 0) {
+                            changed(changed);
+                        }
+                    }), changed));
+        } catch (RuntimeException e) {
+            delete(path);
+            throw e;
+        }
+    }
+
+    private <E, V extends Serializable & IView> void ingest(
+            Job job, Path path, Class<V> clazz, BulkWriter<E, V> writer, Supplier<ApplicationEvent> changed) {
+        try (CountingInputStream inputStream = new CountingInputStream(Files.newInputStream(path))) {
+            FileReadUtils.stream(this.objectMapper, inputStream, clazz, view -> {
+                job.parsed();
+                job.progress(inputStream.getCount());
+                writer.accept(view);
+            });
+            writer.complete();
+        } catch (IOException e) {
+            throw new BadRequestException("MSG_IKEA_400", "Invalid or malformed JSON document.", e);
+        } finally {
+            changed(changed);
+            delete(path);
+        }
+    }
+
+    private void changed(Supplier<ApplicationEvent> changed) {
+        this.iAvailabilityService.invalidate();
+        this.applicationEventPublisher.publishEvent(changed.get());
+    }
+
+    private Path spool(MultipartFile file) {
+        try {
+            Path path = Files.createTempFile("warehouse-upload-", ".json");
+            file.transferTo(path.toFile());
+            return path;
+        } catch (IOException e) {
+            throw new ServiceException("MSG_IKEA_500", "Unable to store uploaded file.", e);
+        }
+    }
+
+    private void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to delete spooled upload {}.", path, e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package nl.ikea.warehouse.utils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Collects the keys needed to build a response and resolves them with a single batch call, on the
+ * first lookup of a key not resolved yet. Resolved values, absent ones included, are kept and
+ * shared by every later lookup, so a key is never resolved twice. Meant to live as long as one
+ * response is being built. Not thread safe.
+ *
+ * @param <K> key data type
+ * @param <V> value data type
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    private final Set<K> queued = new LinkedHashSet<>();
+    private final Map<K, V> resolved = new HashMap<>();
+    private int dispatches;
+
+    /**
+     * Constructor
+     *
+     * @param batchFunction {@link Function} resolving a {@link Set} of keys, omitting absent ones
+     */
+    public BatchLoader(Function<Set<K>, Map<K, V>> batchFunction) {
+        this.batchFunction = batchFunction;
+    }
+
+    /**
+     * Queue keys for the next batch, unless resolved already.
+     *
+     * @param keys {@link Collection} of {@link K}
+     * @return {@link BatchLoader}
+     */
+    public BatchLoader<K, V> queue(Collection<? extends K> keys) {
+        for (K key : keys) {
+            if (!this.resolved.containsKey(key)) {
+                this.queued.add(key);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Get value of the key, resolving it along with every queued key if not resolved yet.
+     *
+     * @param key {@link K}
+     * @return {@link V} value or null if absent
+     */
+    public V get(K key) {
+        if (!this.resolved.containsKey(key)) {
+            this.queued.add(key);
+            dispatch();
+        }
+        return this.resolved.get(key);
+    }
+
+    /**
+     * Resolve every queued key with a single batch call.
+     */
+    public void dispatch() {
+        if (this.queued.isEmpty()) {
+            return;
+        }
+        Set<K> keys = Collections.unmodifiableSet(new LinkedHashSet<>(this.queued));
+        this.queued.clear();
+        this.dispatches++;
+        Map<K, V> values = this.batchFunction.apply(keys);
+        for (K key : keys) {
+            this.resolved.put(key, values.get(key));
+        }
+    }
+
+    /**
+     * Get number of batch calls made so far.
+     *
+     * @return number of dispatched batches
+     */
+    public int getDispatches() {
+        return this.dispatches;
+    }
+}
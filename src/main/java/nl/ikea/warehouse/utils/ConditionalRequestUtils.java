@@ -0,0 +1,50 @@
+package nl.ikea.warehouse.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Conditional GET support. Responses carry a strong {@code ETag} derived from the version of the
+ * collection they were read from, and a request whose {@code If-None-Match} lists it is answered
+ * {@code 304 Not Modified} before anything is read.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ConditionalRequestUtils {
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+
+    /**
+     * Build strong entity tag.
+     *
+     * @param tag opaque tag, free of double quotes
+     * @return {@link String} quoted entity tag
+     */
+    public static String etag(String tag) {
+        return '"' + tag + '"';
+    }
+
+    /**
+     * Check whether the client already holds the representation, comparing entity tags weakly as
+     * {@code If-None-Match} requires.
+     *
+     * @param ifNoneMatch {@code If-None-Match} request header, possibly null
+     * @param etag        quoted entity tag of the current representation
+     * @return true if the request is to be answered {@code 304 Not Modified}
+     */
+    public static boolean notModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith(WEAK_PREFIX)) {
+                value = value.substring(WEAK_PREFIX.length());
+            }
+            if (ANY.equals(value) || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package nl.ikea.warehouse.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import nl.ikea.warehouse.pipelines.ExportFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full listing exports. The body is written while the database cursor is read, so memory use does
+ * not depend on the size of the listing and the first records leave before the last are read.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ExportUtils {
+
+    public static final String FORMAT_PARAMETER = "format";
+    public static final String GZIP_ENCODING = "gzip";
+    private static final String X_GZIP_ENCODING = "x-gzip";
+    private static final String WILDCARD_ENCODING = "*";
+    private static final String QUALITY_PARAMETER = "q=";
+
+    /**
+     * Whether the client accepts gzip compressed content. The header is parsed per coding, a gzip
+     * coding, or else a wildcard, with a quality value of 0 is not acceptable.
+     *
+     * @param acceptEncoding {@link String} value of the {@code Accept-Encoding} header, may be null
+     * @return {@link Boolean}
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double wildcard = 0;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parameters = token.split(";");
+            String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (GZIP_ENCODING.equals(coding) || X_GZIP_ENCODING.equals(coding)) {
+                return quality(parameters) > 0;
+            }
+            if (WILDCARD_ENCODING.equals(coding)) {
+                wildcard = quality(parameters);
+            }
+        }
+        return wildcard > 0;
+    }
+
+    /**
+     * Build the export response, downloaded as an attachment and gzip compressed on the fly when
+     * accepted.
+     *
+     * @param name           {@link String} file name without extension
+     * @param format         {@link ExportFormat}
+     * @param acceptEncoding {@link String} value of the {@code Accept-Encoding} header, may be null
+     * @param body           {@link StreamingResponseBody} writing the uncompressed export
+     * @return {@link ResponseEntity} wrapping {@link StreamingResponseBody}
+     */
+    public static ResponseEntity<StreamingResponseBody> export(
+            String name, ExportFormat format, String acceptEncoding, StreamingResponseBody body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format.getMediaType());
+        headers.setContentDisposition(
+                ContentDisposition.builder("attachment").filename(name + "." + format.getExtension()).build());
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(acceptEncoding)) {
+            return ResponseEntity.ok().headers(headers).body(body);
+        }
+        headers.add(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+        return ResponseEntity.ok().headers(headers).body(outputStream -> {
+            // Finished rather than closed, the container owns the response stream.
+            GZIPOutputStream gzip = new GZIPOutputStream(outputStream, true);
+            body.writeTo(gzip);
+            gzip.finish();
+        });
+    }
+
+    /**
+     * Read the quality value of an {@code Accept-Encoding} entry, 1 when absent and 0 when
+     * malformed.
+     */
+    private static double quality(String[] parameters) {
+        for (int index = 1; index < parameters.length; index++) {
+            String parameter = parameters[index].trim().toLowerCase(Locale.ROOT);
+            if (parameter.startsWith(QUALITY_PARAMETER)) {
+                try {
+                    return Double.parseDouble(parameter.substring(QUALITY_PARAMETER.length()).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -1,10 +1,14 @@
 package nl.ikea.warehouse.utils;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import nl.ikea.warehouse.exceptions.BadRequestException;
 import nl.ikea.warehouse.views.IView;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,4 +36,57 @@ public final class FileReadUtils {
             LOGGER.error("Error reading file.");
         }
     }
+
+    /**
+     * Streaming counterpart of {@link #read(ObjectMapper, MultipartFile, Class, Consumer)}. Walks
+     * the {@link JsonParser} token stream of a top level JSON array and binds elements one at a
+     * time, so only a single {@link T} is held in memory regardless of the document size.
+     *
+     * @param objectMapper {@link ObjectMapper}
+     * @param file         {@link MultipartFile} uploaded JSON array document
+     * @param clazz        {@link Class} of {@link T} array elements
+     * @param consumer     {@link Consumer} invoked for every bound element
+     * @param <T>          type parameter
+     * @return number of elements handed to the {@link Consumer}
+     */
+    public static <T extends IView> long stream(ObjectMapper objectMapper, MultipartFile file, Class<T> clazz, Consumer<T> consumer) {
+        try (InputStream inputStream = file.getInputStream()) {
+            return stream(objectMapper, inputStream, clazz, consumer);
+        } catch (IOException e) {
+            LOGGER.error("Error reading file.", e);
+            throw new BadRequestException("MSG_IKEA_400", "Invalid or malformed JSON document.", e);
+        }
+    }
+
+    /**
+     * {@see FileReadUtils#stream(ObjectMapper, MultipartFile, Class, Consumer)}
+     *
+     * @param objectMapper {@link ObjectMapper}
+     * @param inputStream  {@link InputStream} of a JSON array document, not closed by this method
+     * @param clazz        {@link Class} of {@link T} array elements
+     * @param consumer     {@link Consumer} invoked for every bound element
+     * @param <T>          type parameter
+     * @return number of elements handed to the {@link Consumer}
+     * @throws IOException in case of malformed document
+     */
+    public static <T extends IView> long stream(ObjectMapper objectMapper, InputStream inputStream, Class<T> clazz, Consumer<T> consumer)
+            throws IOException {
+        ObjectReader reader = objectMapper.readerFor(clazz);
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("MSG_IKEA_400", "JSON document is expected to be an array.");
+            }
+            long count = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                T element = reader.readValue(parser);
+                consumer.accept(element);
+                count++;
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new BadRequestException("MSG_IKEA_400", "JSON array is expected to contain objects only.");
+            }
+            return count;
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package nl.ikea.warehouse.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page of a keyset pagination, along with the cursor the next page follows. A page may be short
+ * and still have a next one, when reading it stopped before the entries ran out.
+ *
+ * @param <V> type of the entries
+ * @see KeysetPaginationUtils
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetPage<V> {
+
+    private final List<V> items;
+    private final Long next;
+
+    /**
+     * Build page of entries read up to the limit, which is the last one when short.
+     *
+     * @param items      {@link List} of entries, in identifier order
+     * @param limit      requested page size
+     * @param identifier {@link Function} providing the identifier of an entry
+     * @param <V>        type of the entries
+     * @return {@link KeysetPage}
+     */
+    public static <V> KeysetPage<V> of(List<V> items, int limit, Function<V, Long> identifier) {
+        return new KeysetPage<>(items,
+                items.isEmpty() || items.size() < limit ? null : identifier.apply(items.get(items.size() - 1)));
+    }
+}
@@ -0,0 +1,72 @@
+package nl.ikea.warehouse.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Keyset pagination over the unique identifier. A page is requested as the entries following the
+ * last identifier seen, which the {@code _id} index serves directly, however deep the page is,
+ * unlike an offset that is skipped entry by entry.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class KeysetPaginationUtils {
+
+    public static final String AFTER_PARAMETER = "after";
+    public static final String LIMIT_PARAMETER = "limit";
+    private static final String ID_FIELD = "_id";
+
+    /**
+     * Build query of the entries following an identifier, in identifier order.
+     *
+     * @param after last identifier seen, null to start from the first entry
+     * @param limit maximum number of entries, null for all of them
+     * @return {@link Query}
+     */
+    public static Query query(Long after, Integer limit) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, ID_FIELD));
+        if (after != null) {
+            query.addCriteria(Criteria.where(ID_FIELD).gt(after));
+        }
+        if (limit != null) {
+            query.limit(limit);
+        }
+        return query;
+    }
+
+    /**
+     * Build response headers linking the next page of the current request, when the current page
+     * is full. A short page is the last one.
+     *
+     * @param lastId identifier of the last entry of the page
+     * @param size   number of entries of the page
+     * @param limit  requested page size
+     * @return {@link HttpHeaders}, with a {@code Link} header if there may be a next page
+     */
+    public static HttpHeaders nextPageHeaders(Long lastId, int size, int limit) {
+        return nextPageHeaders(size >= limit ? lastId : null, limit);
+    }
+
+    /**
+     * Build response headers linking the next page of the current request, following a cursor.
+     *
+     * @param after identifier the next page follows, null if the current page is the last one
+     * @param limit requested page size
+     * @return {@link HttpHeaders}, with a {@code Link} header if there is a cursor
+     */
+    public static HttpHeaders nextPageHeaders(Long after, int limit) {
+        HttpHeaders headers = new HttpHeaders();
+        if (after != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam(AFTER_PARAMETER, after)
+                    .replaceQueryParam(LIMIT_PARAMETER, limit)
+                    .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
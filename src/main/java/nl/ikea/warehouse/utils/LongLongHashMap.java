@@ -0,0 +1,202 @@
+package nl.ikea.warehouse.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map of primitive {@code long} keys to primitive {@code long} values. Avoids
+ * the boxing and per entry node allocation of a {@link java.util.HashMap}, which matters for maps
+ * holding the stock of every article in memory. Not thread safe.
+ */
+public class LongLongHashMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+    private int mask;
+    private int threshold;
+
+    /**
+     * Constructor
+     */
+    public LongLongHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param expectedSize number of entries the map should hold without resizing
+     */
+    public LongLongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Get value mapped to the key.
+     *
+     * @param key          key
+     * @param defaultValue value returned when the key is absent
+     * @return mapped value or default value
+     */
+    public long get(long key, long defaultValue) {
+        int slot = find(key);
+        return slot < 0 ? defaultValue : this.values[slot];
+    }
+
+    /**
+     * Check key presence.
+     *
+     * @param key key
+     * @return true if the key is mapped
+     */
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Map the key to the value, replacing any previous mapping.
+     *
+     * @param key   key
+     * @param value value
+     */
+    public void put(long key, long value) {
+        int slot = slot(key);
+        if (!this.used[slot]) {
+            this.used[slot] = true;
+            this.keys[slot] = key;
+            this.size++;
+        }
+        this.values[slot] = value;
+        if (this.size > this.threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Add the delta to the value mapped to the key, an absent key counts as 0.
+     *
+     * @param key   key
+     * @param delta value to add
+     * @return resulting value
+     */
+    public long addTo(long key, long delta) {
+        int slot = slot(key);
+        if (!this.used[slot]) {
+            this.used[slot] = true;
+            this.keys[slot] = key;
+            this.values[slot] = 0;
+            this.size++;
+        }
+        long value = this.values[slot] += delta;
+        if (this.size > this.threshold) {
+            resize();
+        }
+        return value;
+    }
+
+    /**
+     * Remove the mapping of the key, if present.
+     *
+     * @param key key
+     */
+    public void remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return;
+        }
+        this.used[slot] = false;
+        this.size--;
+        // Backward shift deletion keeps probe sequences intact without tombstones.
+        int next = (slot + 1) & this.mask;
+        while (this.used[next]) {
+            int home = hash(this.keys[next]) & this.mask;
+            if (((next - home) & this.mask) >= ((next - slot) & this.mask)) {
+                this.keys[slot] = this.keys[next];
+                this.values[slot] = this.values[next];
+                this.used[slot] = true;
+                this.used[next] = false;
+                slot = next;
+            }
+            next = (next + 1) & this.mask;
+        }
+    }
+
+    /**
+     * Get number of mappings.
+     *
+     * @return number of mappings
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Remove all mappings.
+     */
+    public void clear() {
+        Arrays.fill(this.used, false);
+        this.size = 0;
+    }
+
+    private int find(long key) {
+        int slot = hash(key) & this.mask;
+        while (this.used[slot]) {
+            if (this.keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    private int slot(long key) {
+        int slot = hash(key) & this.mask;
+        while (this.used[slot] && this.keys[slot] != key) {
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        long[] oldKeys = this.keys;
+        long[] oldValues = this.values;
+        boolean[] oldUsed = this.used;
+        allocate(oldKeys.length << 1);
+        for (int index = 0; index < oldKeys.length; index++) {
+            if (oldUsed[index]) {
+                int slot = slot(oldKeys[index]);
+                this.used[slot] = true;
+                this.keys[slot] = oldKeys[index];
+                this.values[slot] = oldValues[index];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(long key) {
+        // Murmur3 finalizer, sequential identifiers would otherwise cluster in neighbouring slots.
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
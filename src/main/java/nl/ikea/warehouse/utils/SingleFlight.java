@@ -0,0 +1,80 @@
+package nl.ikea.warehouse.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations of the same key. The first caller computes the value while
+ * callers arriving during the computation wait for and share its result, or its failure. Once the
+ * computation completes the key is released, so a later caller never receives a value computed
+ * before it arrived and, after {@link #forgetAll()}, never joins a computation started before.
+ * Shared values must be treated as read only. Thread safe.
+ *
+ * @param <K> key data type
+ * @param <V> value data type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Compute the value of the key, or join the computation already in flight.
+     *
+     * @param key      {@link K} identifying the computation
+     * @param supplier {@link Supplier} computing the value
+     * @return {@link V} computed value
+     */
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = this.calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        V value;
+        try {
+            value = supplier.get();
+        } catch (RuntimeException | Error e) {
+            this.calls.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+        // Released before completion, callers arriving from now on start a new computation.
+        this.calls.remove(key, call);
+        call.complete(value);
+        return value;
+    }
+
+    /**
+     * Let callers arriving from now on start new computations instead of joining the ones in
+     * flight, which may have read data that is now outdated.
+     */
+    public void forgetAll() {
+        this.calls.clear();
+    }
+
+    /**
+     * Get number of computations in flight.
+     *
+     * @return number of keys being computed
+     */
+    public int size() {
+        return this.calls.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
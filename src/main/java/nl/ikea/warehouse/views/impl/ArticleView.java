@@ -3,11 +3,13 @@ package nl.ikea.warehouse.views.impl;
 import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.*;
 import nl.ikea.warehouse.views.IView;
+import nl.ikea.warehouse.views.RenderGroupView;
 import nl.ikea.warehouse.validators.groups.DefaultValidationGroup;
 import org.springframework.hateoas.ResourceSupport;
 
@@ -36,12 +38,14 @@ public class ArticleView extends ResourceSupport implements Serializable, IView
     @JsonAlias(value = {"articleId", "article_id", "artId"})
     @NotNull(groups = DefaultValidationGroup.class)
     @ApiModelProperty(example = "1", notes = "Article ID")
+    @JsonView(value = {RenderGroupView.Public.class, RenderGroupView.Restricted.class})
     private final Long articleId;
 
     @JsonProperty(value = "amount_of", required = true)
     @JsonAlias(value = {"amount", "amountOf"})
     @NotNull(groups = DefaultValidationGroup.class)
     @ApiModelProperty(example = "4", notes = "Amount of current article")
+    @JsonView(value = {RenderGroupView.Public.class, RenderGroupView.Restricted.class})
     private final Long amount;
 
     /**
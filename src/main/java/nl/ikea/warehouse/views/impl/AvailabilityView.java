@@ -0,0 +1,52 @@
+package nl.ikea.warehouse.views.impl;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+import nl.ikea.warehouse.views.IView;
+import org.springframework.hateoas.ResourceSupport;
+
+import java.io.Serializable;
+
+/**
+ * Data model describing how many units of a product can be built from current stock.
+ * Implementation of {@link IView} for definition standards. Extending {@link ResourceSupport} for
+ * HAL.
+ *
+ * @see IView
+ * @see ResourceSupport
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder(builderClassName = "AvailabilityViewBuilder")
+@JsonDeserialize(builder = AvailabilityView.AvailabilityViewBuilder.class)
+public class AvailabilityView extends ResourceSupport implements Serializable, IView {
+
+    private static final long serialVersionUID = 4712093361526042871L;
+
+    @JsonProperty(value = "productId")
+    @ApiModelProperty(example = "1", notes = "Product Id")
+    private final Long productId;
+
+    @JsonProperty(value = "name")
+    @ApiModelProperty(example = "Dining Chair", notes = "Product name")
+    private final String name;
+
+    @JsonProperty(value = "available")
+    @ApiModelProperty(example = "2", notes = "Amount of products that can be built from current stock")
+    private final Long available;
+
+    /**
+     * Builder pattern, used to provide immutability through application layers.
+     */
+    @JsonPOJOBuilder(withPrefix = "")
+    public static class AvailabilityViewBuilder {
+        // Lombok will add constructor, setters, build method
+    }
+}
@@ -56,6 +56,16 @@ public class InventoryView extends ResourceSupport implements Serializable, IVie
   @JsonView(value = {RenderGroupView.Public.class, RenderGroupView.Restricted.class})
   private final Long stock;
 
+  @JsonProperty(value = "reserved", access = JsonProperty.Access.READ_ONLY)
+  @ApiModelProperty(example = "2", notes = "Article stock held by active reservations")
+  @JsonView(value = {RenderGroupView.Public.class, RenderGroupView.Restricted.class})
+  private final Long reserved;
+
+  @JsonProperty(value = "available", access = JsonProperty.Access.READ_ONLY)
+  @ApiModelProperty(example = "10", notes = "Article stock available for sale, stock minus reserved")
+  @JsonView(value = {RenderGroupView.Public.class, RenderGroupView.Restricted.class})
+  private final Long available;
+
   /** Builder pattern, used to provide immutability through application layers. */
   @JsonPOJOBuilder(withPrefix = "")
   public static class InventoryViewBuilder {
@@ -0,0 +1,84 @@
+package nl.ikea.warehouse.views.impl;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+import nl.ikea.warehouse.jobs.JobStatus;
+import nl.ikea.warehouse.views.IView;
+import org.springframework.hateoas.ResourceSupport;
+
+import java.io.Serializable;
+
+/**
+ * Data model describing background job progress. Implementation of {@link IView} for definition
+ * standards. Extending {@link ResourceSupport} for HAL.
+ *
+ * @see IView
+ * @see ResourceSupport
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder(builderClassName = "JobViewBuilder")
+@JsonDeserialize(builder = JobView.JobViewBuilder.class)
+public class JobView extends ResourceSupport implements Serializable, IView {
+
+    private static final long serialVersionUID = -3195846215474624783L;
+
+    @JsonProperty(value = "jobId")
+    @ApiModelProperty(example = "5b1d6f5e-3c4f-4f57-9d1c-1f0b7f1f2a4e", notes = "Job unique identifier")
+    private final String jobId;
+
+    @JsonProperty(value = "type")
+    @ApiModelProperty(example = "inventory-upload", notes = "Job type")
+    private final String type;
+
+    @JsonProperty(value = "status")
+    @ApiModelProperty(example = "RUNNING", notes = "Job status")
+    private final JobStatus status;
+
+    @JsonProperty(value = "rows_parsed")
+    @ApiModelProperty(example = "120000", notes = "Rows parsed so far")
+    private final Long rowsParsed;
+
+    @JsonProperty(value = "rows_written")
+    @ApiModelProperty(example = "119000", notes = "Rows persisted so far")
+    private final Long rowsWritten;
+
+    @JsonProperty(value = "rows_failed")
+    @ApiModelProperty(example = "3", notes = "Rows rejected so far")
+    private final Long rowsFailed;
+
+    @JsonProperty(value = "throughput")
+    @ApiModelProperty(example = "25000.5", notes = "Processed rows per second")
+    private final Double throughput;
+
+    @JsonProperty(value = "eta_seconds")
+    @ApiModelProperty(example = "42", notes = "Estimated remaining time in seconds")
+    private final Long etaSeconds;
+
+    @JsonProperty(value = "started_at")
+    @ApiModelProperty(example = "2019-06-01T10:15:30Z", notes = "Job start time")
+    private final String startedAt;
+
+    @JsonProperty(value = "finished_at")
+    @ApiModelProperty(example = "2019-06-01T10:16:12Z", notes = "Job completion time")
+    private final String finishedAt;
+
+    @JsonProperty(value = "message")
+    @ApiModelProperty(notes = "Failure reason")
+    private final String message;
+
+    /**
+     * Builder pattern, used to provide immutability through application layers.
+     */
+    @JsonPOJOBuilder(withPrefix = "")
+    public static class JobViewBuilder {
+        // Lombok will add constructor, setters, build method
+    }
+}
@@ -0,0 +1,72 @@
+package nl.ikea.warehouse.views.impl;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+import nl.ikea.warehouse.views.IView;
+import org.springframework.hateoas.ResourceSupport;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Data model describing the outcome of looking up several records by unique identifier at once.
+ * Implementation of {@link IView} for definition standards. Extending {@link ResourceSupport} for
+ * HAL.
+ *
+ * @param <V> type of the looked up records
+ * @see IView
+ * @see ResourceSupport
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder(builderClassName = "MultiGetViewBuilder")
+public class MultiGetView<V extends IView> extends ResourceSupport implements Serializable, IView {
+
+    private static final long serialVersionUID = 3346198817203465120L;
+
+    @JsonProperty(value = "items")
+    @ApiModelProperty(notes = "Records found, in the order of the requested unique identifiers")
+    private final List<V> items;
+
+    @JsonProperty(value = "missing")
+    @ApiModelProperty(example = "[3]", notes = "Requested unique identifiers without a record, in request order")
+    private final List<Long> missing;
+
+    /**
+     * Arrange records found by a lookup in the order of the requested unique identifiers, listing the
+     * identifiers without a record as missing. Repeated identifiers are answered once.
+     *
+     * @param ids        {@link Collection} of requested unique identifiers
+     * @param found      {@link Collection} of records found, in any order
+     * @param identifier {@link Function} providing the unique identifier of a record
+     * @param <V>        type of the looked up records
+     * @return {@link MultiGetView}
+     */
+    public static <V extends IView> MultiGetView<V> of(
+            Collection<Long> ids, Collection<V> found, Function<V, Long> identifier) {
+        Map<Long, V> records = found.stream()
+                .collect(Collectors.toMap(identifier, Function.identity(), (first, second) -> first));
+        List<V> items = new ArrayList<>(records.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            V record = records.get(id);
+            if (record != null) {
+                items.add(record);
+            } else {
+                missing.add(id);
+            }
+        }
+        return MultiGetView.<V>builder().items(items).missing(missing).build();
+    }
+}
@@ -4,11 +4,13 @@ import com.fasterxml.jackson.annotation.JsonAlias;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.*;
 import nl.ikea.warehouse.views.IView;
+import nl.ikea.warehouse.views.RenderGroupView;
 import nl.ikea.warehouse.validators.groups.DefaultValidationGroup;
 import org.springframework.hateoas.ResourceSupport;
 
@@ -38,18 +40,21 @@ public class ProductView extends ResourceSupport implements Serializable, IView
     @JsonAlias(value = {"product_id", "prod_id"})
     @NotNull(groups = DefaultValidationGroup.class)
     @ApiModelProperty(example = "1", notes = "Product Id")
+    @JsonView(value = {RenderGroupView.Public.class, RenderGroupView.Restricted.class})
     private final Long productId;
 
     @JsonProperty(value = "name", required = true)
     @JsonAlias(value = {"productName", "product_name"})
     @NotNull(groups = DefaultValidationGroup.class)
     @ApiModelProperty(example = "Ikea Round Table", notes = "Product name")
+    @JsonView(value = {RenderGroupView.Public.class, RenderGroupView.Restricted.class})
     private final String name;
 
     @JsonProperty(value = "contain_articles", required = true)
     @JsonAlias(value = {"containArticles", "articles"})
     @NotNull(groups = DefaultValidationGroup.class)
     @ApiModelProperty(notes = "List of available articles")
+    @JsonView(value = {RenderGroupView.Public.class, RenderGroupView.Restricted.class})
     private final List<ArticleView> articles;
 
     /**
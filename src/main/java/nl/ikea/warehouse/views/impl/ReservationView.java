@@ -0,0 +1,79 @@
+package nl.ikea.warehouse.views.impl;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.*;
+import nl.ikea.warehouse.entities.ReservationStatus;
+import nl.ikea.warehouse.validators.groups.PersistValidationGroup;
+import nl.ikea.warehouse.views.IView;
+import org.springframework.hateoas.ResourceSupport;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Data model describing stock held for a product during checkout. Implementation of {@link IView}
+ * for definition standards. Extending {@link ResourceSupport} for HAL.
+ *
+ * @see IView
+ * @see ResourceSupport
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Getter
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder(builderClassName = "ReservationViewBuilder")
+@JsonDeserialize(builder = ReservationView.ReservationViewBuilder.class)
+public class ReservationView extends ResourceSupport implements Serializable, IView {
+
+    private static final long serialVersionUID = 2291746320561740189L;
+
+    @JsonProperty(value = "reservationId", access = JsonProperty.Access.READ_ONLY)
+    @ApiModelProperty(example = "5b1d6f5e-3c4f-4f57-9d1c-1f0b7f1f2a4e", notes = "Reservation unique identifier")
+    private final String reservationId;
+
+    @JsonProperty(value = "productId", required = true)
+    @JsonAlias(value = {"product_id", "prod_id"})
+    @NotNull(groups = PersistValidationGroup.class)
+    @ApiModelProperty(example = "1", notes = "Product Id")
+    private final Long productId;
+
+    @JsonProperty(value = "quantity", required = true)
+    @NotNull(groups = PersistValidationGroup.class)
+    @Min(value = 1, groups = PersistValidationGroup.class)
+    @ApiModelProperty(example = "2", notes = "Reserved units of the product")
+    private final Long quantity;
+
+    @JsonProperty(value = "ttl_seconds")
+    @JsonAlias(value = {"ttlSeconds", "ttl"})
+    @Min(value = 1, groups = PersistValidationGroup.class)
+    @ApiModelProperty(example = "300", notes = "Seconds the stock is held, server default if omitted")
+    private final Long ttlSeconds;
+
+    @JsonProperty(value = "status", access = JsonProperty.Access.READ_ONLY)
+    @ApiModelProperty(example = "ACTIVE", notes = "Reservation status")
+    private final ReservationStatus status;
+
+    @JsonProperty(value = "expires_at", access = JsonProperty.Access.READ_ONLY)
+    @ApiModelProperty(example = "2019-06-01T10:20:30Z", notes = "Time the held stock is released")
+    private final String expiresAt;
+
+    @JsonProperty(value = "contain_articles", access = JsonProperty.Access.READ_ONLY)
+    @ApiModelProperty(notes = "Held amount per article")
+    private final List<ArticleView> articles;
+
+    /**
+     * Builder pattern, used to provide immutability through application layers.
+     */
+    @JsonPOJOBuilder(withPrefix = "")
+    public static class ReservationViewBuilder {
+        // Lombok will add constructor, setters, build method
+    }
+}
@@ -0,0 +1,105 @@
+package nl.ikea.warehouse.availability;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Availability index test definition
+ */
+public class AvailabilityIndexTest {
+
+    @Test
+    public void givenStockAndBillOfMaterials_whenBuilding_thenMinimumRatioIsAvailable() {
+        AvailabilityIndex index = AvailabilityIndex.builder()
+                .stock(1L, 12L)
+                .stock(2L, 17L)
+                .stock(3L, 2L)
+                .product(10L, "Dining Chair", new long[]{1L, 2L, 3L}, new long[]{4L, 8L, 1L})
+                .product(20L, "Dinning Table", new long[]{1L, 2L, 4L}, new long[]{4L, 8L, 1L})
+                .build();
+        assertEquals(2, index.size());
+        assertEquals(2L, index.getAvailable(index.indexOf(10L)));
+        assertEquals("Dining Chair", index.getName(index.indexOf(10L)));
+        assertEquals(0L, index.getAvailable(index.indexOf(20L)));
+        assertEquals(-1, index.indexOf(30L));
+    }
+
+    @Test
+    public void givenBillOfMaterialsNotIndexed_whenComputing_thenCurrentStockIsUsed() {
+        AvailabilityIndex index = AvailabilityIndex.builder()
+                .stock(1L, 12L)
+                .product(10L, "Dining Chair", new long[]{1L}, new long[]{4L})
+                .build();
+        index.updateStock(2L, 17L);
+        assertEquals(2L, index.getAvailable(new long[]{1L, 2L}, new long[]{4L, 8L}));
+        assertEquals(0L, index.getAvailable(new long[]{1L, 3L}, new long[]{4L, 1L}));
+        assertEquals(0L, index.getAvailable(new long[0], new long[0]));
+    }
+
+    @Test
+    public void givenManyProducts_whenBuilding_thenArraysGrow() {
+        AvailabilityIndex.Builder builder = AvailabilityIndex.builder().stock(1L, 100L);
+        for (long productId = 0; productId < 1000; productId++) {
+            builder.product(productId, "product" + productId, new long[]{1L, 1L}, new long[]{productId + 1, 1L});
+        }
+        AvailabilityIndex index = builder.build();
+        assertEquals(1000, index.size());
+        assertEquals(100L, index.getAvailable(index.indexOf(0L)));
+        assertEquals(1L, index.getAvailable(index.indexOf(99L)));
+        assertEquals(0L, index.getAvailable(index.indexOf(999L)));
+    }
+
+    @Test
+    public void givenStockChange_whenUpdating_thenOnlyAffectedProductsAreRecomputed() {
+        AvailabilityIndex index = AvailabilityIndex.builder()
+                .stock(1L, 12L)
+                .stock(2L, 17L)
+                .stock(3L, 5L)
+                .product(10L, "Dining Chair", new long[]{1L, 2L}, new long[]{4L, 8L})
+                .product(20L, "Dinning Table", new long[]{1L, 3L}, new long[]{4L, 1L})
+                .product(30L, "Stool", new long[]{3L}, new long[]{1L})
+                .build();
+        assertArrayEquals(new int[]{index.indexOf(10L)}, index.updateStock(2L, 8L));
+        assertEquals(1L, index.getAvailable(index.indexOf(10L)));
+        int[] changed = index.updateStock(1L, 40L);
+        assertArrayEquals(new int[]{index.indexOf(20L)}, changed);
+        assertEquals(5L, index.getAvailable(index.indexOf(20L)));
+        assertEquals(0, index.updateStock(4L, 100L).length);
+        assertEquals(100L, index.getStock(4L));
+    }
+
+    @Test
+    public void givenOutOfOrderStockChanges_whenUpdating_thenOutdatedChangesAreIgnored() {
+        AvailabilityIndex index = AvailabilityIndex.builder()
+                .stock(1L, 12L, 3L)
+                .product(10L, "Stool", new long[]{1L}, new long[]{1L})
+                .build();
+        assertEquals(1, index.updateStock(1L, 8L, 5L).length);
+        assertEquals(0, index.updateStock(1L, 10L, 4L).length);
+        assertEquals(0, index.updateStock(1L, 10L, 5L).length);
+        assertEquals(8L, index.getStock(1L));
+        assertEquals(8L, index.getAvailable(index.indexOf(10L)));
+        index.updateStock(2L, 4L, 1L);
+        assertEquals(4L, index.getStock(2L));
+    }
+
+    @Test
+    public void givenUnorderedProducts_whenPagingAvailableIds_thenIdsFollowCursorInOrder() {
+        AvailabilityIndex index = AvailabilityIndex.builder()
+                .stock(1L, 10L)
+                .stock(2L, 0L)
+                .product(50L, "Bench", new long[]{1L}, new long[]{1L})
+                .product(10L, "Stool", new long[]{1L}, new long[]{2L})
+                .product(30L, "Shelf", new long[]{2L}, new long[]{1L})
+                .product(20L, "Chair", new long[]{1L}, new long[]{4L})
+                .product(40L, "Table", new long[]{1L}, new long[]{5L})
+                .build();
+        assertArrayEquals(new long[]{10L, 20L}, index.getProductIds(0L, Long.MIN_VALUE, 2));
+        assertArrayEquals(new long[]{40L, 50L}, index.getProductIds(0L, 20L, 2));
+        assertArrayEquals(new long[]{50L}, index.getProductIds(0L, 45L, 2));
+        assertArrayEquals(new long[]{10L, 50L}, index.getProductIds(2L, Long.MIN_VALUE, 10));
+        assertEquals(0, index.getProductIds(0L, 50L, 2).length);
+    }
+}
@@ -0,0 +1,83 @@
+package nl.ikea.warehouse.caches;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nl.ikea.warehouse.events.CatalogChangedEvent;
+import nl.ikea.warehouse.utils.KeysetPage;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Product page cache test definition
+ */
+public class ProductPageCacheTest {
+
+    private static final String ORIGIN = "http://localhost";
+
+    private CatalogVersion catalogVersion;
+    private ProductPageCache productPageCache;
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() {
+        this.catalogVersion = new CatalogVersion();
+        this.productPageCache = new ProductPageCache(
+                new ObjectMapper(), new SimpleMeterRegistry(), 1 << 20);
+        this.loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testEncodedOnce() {
+        ProductPageCache.EncodedPage first =
+                this.productPageCache.get(page(), ProductPageCache.Representation.JSON, this::load);
+        ProductPageCache.EncodedPage second =
+                this.productPageCache.get(page(), ProductPageCache.Representation.JSON, this::load);
+        assertSame(first, second);
+        assertEquals(1, this.loads.get());
+        assertEquals(Long.valueOf(7L), first.getNext());
+    }
+
+    @Test
+    public void testGzipDerivedFromJson() throws IOException {
+        ProductPageCache.EncodedPage json =
+                this.productPageCache.get(page(), ProductPageCache.Representation.JSON, this::load);
+        ProductPageCache.EncodedPage gzip =
+                this.productPageCache.get(page(), ProductPageCache.Representation.GZIP, this::load);
+        assertEquals(1, this.loads.get());
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+            assertArrayEquals(json.getBody(), ByteStreams.toByteArray(inputStream));
+        }
+    }
+
+    @Test
+    public void testCatalogChangeOutdatesPages() {
+        this.productPageCache.get(page(), ProductPageCache.Representation.JSON, this::load);
+        this.catalogVersion.onCatalogChanged(new CatalogChangedEvent(this));
+        this.productPageCache.get(page(), ProductPageCache.Representation.JSON, this::load);
+        assertEquals(2, this.loads.get());
+    }
+
+    private List<Object> page() {
+        return Arrays.asList(this.catalogVersion.tag(), ORIGIN, null, null, 10);
+    }
+
+    private KeysetPage<ProductView> load() {
+        this.loads.incrementAndGet();
+        return new KeysetPage<>(
+                Collections.singletonList(ProductView.builder().productId(7L).name("Dining Chair").build()), 7L);
+    }
+}
@@ -0,0 +1,72 @@
+package nl.ikea.warehouse.caches;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nl.ikea.warehouse.events.CatalogChangedEvent;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Product view cache test definition
+ */
+public class ProductViewCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductViewCache productViewCache;
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.productViewCache = new ProductViewCache(this.meterRegistry, 100, 600);
+        this.loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testReadThrough() {
+        ProductView first = this.productViewCache.get(1L, this::load).orElse(null);
+        ProductView second = this.productViewCache.get(1L, this::load).orElse(null);
+        assertSame(first, second);
+        assertEquals(1, this.loads.get());
+        assertEquals(1.0, this.meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count(), 0);
+        assertEquals(1.0, this.meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count(), 0);
+    }
+
+    @Test
+    public void testAbsentProductsAreNotCached() {
+        assertFalse(this.productViewCache.get(1L, id -> Optional.empty()).isPresent());
+        this.productViewCache.get(1L, this::load);
+        assertEquals(1, this.loads.get());
+    }
+
+    @Test
+    public void testCatalogChangeInvalidates() {
+        this.productViewCache.get(1L, this::load);
+        this.productViewCache.onCatalogChanged(new CatalogChangedEvent(this));
+        this.productViewCache.get(1L, this::load);
+        assertEquals(2, this.loads.get());
+    }
+
+    @Test
+    public void testLoadRacingWithInvalidationIsNotCached() {
+        this.productViewCache.get(1L, id -> {
+            // The catalog changes after the product was read.
+            this.productViewCache.invalidateAll();
+            return load(id);
+        });
+        this.productViewCache.get(1L, this::load);
+        assertEquals(2, this.loads.get());
+    }
+
+    private Optional<ProductView> load(Long productId) {
+        this.loads.incrementAndGet();
+        return Optional.of(ProductView.builder().productId(productId).name("product " + productId).build());
+    }
+}
@@ -0,0 +1,89 @@
+package nl.ikea.warehouse.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.querydsl.core.BooleanBuilder;
+import nl.ikea.warehouse.entities.QProductEntity;
+import nl.ikea.warehouse.exceptions.BadRequestException;
+import nl.ikea.warehouse.services.IAvailabilityService;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+
+/**
+ * Product filter test definition
+ */
+public class ProductFilterTest {
+
+    private static final QProductEntity PRODUCT = QProductEntity.productEntity;
+
+    private IAvailabilityService iAvailabilityService;
+    private ProductFilter productFilter;
+
+    @Before
+    public void setUp() {
+        this.iAvailabilityService = Mockito.mock(IAvailabilityService.class);
+        this.productFilter = new ProductFilter(this.iAvailabilityService);
+    }
+
+    @Test
+    public void testDefaultMatchesEverything() {
+        assertNull(new BooleanBuilder(this.productFilter.parse(ProductFilter.ACTIVE)).getValue());
+        assertNull(new BooleanBuilder(this.productFilter.parse(null)).getValue());
+    }
+
+    @Test
+    public void testTermsCombined() {
+        assertEquals(
+                new BooleanBuilder()
+                        .and(PRODUCT.name.startsWith("Din"))
+                        .and(PRODUCT.billOfMaterials.any().articleId.eq(1L))
+                        .and(PRODUCT.productId.goe(3L))
+                        .and(PRODUCT.productId.loe(9L))
+                        .getValue(),
+                new BooleanBuilder(this.productFilter.parse("name:Din, article:1, id:3..9, available:2")).getValue());
+        Mockito.verifyZeroInteractions(this.iAvailabilityService);
+    }
+
+    @Test
+    public void testAvailableProductIdsWindow() {
+        Mockito.when(this.iAvailabilityService.getProductIds(5L, 3L, 2)).thenReturn(Arrays.asList(4L, 6L));
+
+        assertEquals(Arrays.asList(4L, 6L),
+                this.productFilter.getAvailableProductIds("name:Din, available:2, available:5", 3L, 2));
+        assertNull(this.productFilter.getAvailableProductIds("name:Din", 3L, 2));
+        assertNull(this.productFilter.getAvailableProductIds(null, null, 2));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testMalformedAvailability() {
+        this.productFilter.parse("available:many");
+    }
+
+    @Test
+    public void testOpenRange() {
+        assertEquals(new BooleanBuilder().and(PRODUCT.productId.loe(9L)).getValue(),
+                new BooleanBuilder(this.productFilter.parse("id:..9")).getValue());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testUnknownTerm() {
+        this.productFilter.parse("colour:red");
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testMalformedNumber() {
+        this.productFilter.parse("article:one");
+    }
+
+    @Test
+    public void testDependsOnStock() {
+        assertTrue(ProductFilter.dependsOnStock("name:Din,available:0"));
+        assertFalse(ProductFilter.dependsOnStock("name:available"));
+    }
+}
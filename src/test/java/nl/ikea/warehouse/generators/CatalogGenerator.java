@@ -0,0 +1,254 @@
+package nl.ikea.warehouse.generators;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.Builder;
+import lombok.Getter;
+import nl.ikea.warehouse.views.impl.ArticleView;
+import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.ProductView;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic catalog generator, writing inventory and product upload documents in the
+ * {@link InventoryView} and {@link ProductView} JSON shapes. Documents are written element by
+ * element through a {@link JsonGenerator}, so catalogs of any size are produced in constant memory.
+ * <p>
+ * Bill of materials lengths follow a Poisson distribution around {@code bomMean}, clamped to
+ * {@code [bomMin, bomMax]}. Articles are drawn by rank from a bounded power law with exponent
+ * {@code skew}: {@code 0} picks articles uniformly, around {@code 1} a few hot articles (the lowest
+ * identifiers) are reused by most products. The same seed always yields byte identical documents,
+ * inventory and products being drawn from independent streams.
+ * <p>
+ * Command line usage, from the test classpath:
+ * <pre>
+ * java -Dcatalog.articles=1000000 -Dcatalog.products=200000 -Dcatalog.skew=1.1 \
+ *     nl.ikea.warehouse.generators.CatalogGenerator target/catalog
+ * </pre>
+ */
+@Getter
+public class CatalogGenerator {
+
+    private static final String[] NAMES = {"leg", "screw", "seat", "table top", "shelf", "door", "hinge", "drawer"};
+    private static final long PRODUCTS_STREAM = 0x9E3779B97F4A7C15L;
+    private static final int MAX_DRAWS = 16;
+
+    private final long seed;
+    private final long articles;
+    private final long products;
+    private final int bomMin;
+    private final double bomMean;
+    private final int bomMax;
+    private final double skew;
+    private final long maxStock;
+    private final long maxAmount;
+
+    @Builder
+    private CatalogGenerator(long seed, long articles, long products, int bomMin, double bomMean, int bomMax,
+                             double skew, long maxStock, long maxAmount) {
+        if (articles < 1 || products < 0) {
+            throw new IllegalArgumentException("Catalog needs at least one article and a non negative product count.");
+        }
+        if (bomMin < 1 || bomMax < bomMin || bomMean < bomMin || bomMean > bomMax) {
+            throw new IllegalArgumentException("Bill of materials lengths must satisfy 1 <= min <= mean <= max.");
+        }
+        if (skew < 0 || maxStock < 0 || maxAmount < 1) {
+            throw new IllegalArgumentException("Skew and stock must be non negative, amounts at least one.");
+        }
+        this.seed = seed;
+        this.articles = articles;
+        this.products = products;
+        // A bill of materials references distinct articles, so it never outgrows the inventory.
+        this.bomMax = (int) Math.min(bomMax, articles);
+        this.bomMin = Math.min(bomMin, this.bomMax);
+        this.bomMean = bomMean;
+        this.skew = skew;
+        this.maxStock = maxStock;
+        this.maxAmount = maxAmount;
+    }
+
+    /**
+     * Write the inventory document, one {@link InventoryView} per article.
+     *
+     * @param outputStream {@link OutputStream} receiving the document, not closed by this method
+     * @return number of written articles
+     * @throws IOException in case of write failure
+     */
+    public long writeInventory(OutputStream outputStream) throws IOException {
+        SplittableRandom random = new SplittableRandom(this.seed);
+        try (JsonGenerator generator = createGenerator(outputStream)) {
+            generator.writeStartArray();
+            for (long articleId = 1; articleId <= this.articles; articleId++) {
+                generator.writeStartObject();
+                generator.writeStringField("art_id", Long.toString(articleId));
+                generator.writeStringField("name", name(articleId));
+                generator.writeStringField("stock", Long.toString(nextLong(random, 0, this.maxStock)));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        return this.articles;
+    }
+
+    /**
+     * Write the products document, one {@link ProductView} per product, with {@link ArticleView}
+     * bill of materials entries referencing distinct articles of the inventory document.
+     *
+     * @param outputStream {@link OutputStream} receiving the document, not closed by this method
+     * @return number of written products
+     * @throws IOException in case of write failure
+     */
+    public long writeProducts(OutputStream outputStream) throws IOException {
+        SplittableRandom random = new SplittableRandom(this.seed ^ PRODUCTS_STREAM);
+        long[] bom = new long[this.bomMax];
+        try (JsonGenerator generator = createGenerator(outputStream)) {
+            generator.writeStartArray();
+            for (long productId = 1; productId <= this.products; productId++) {
+                int length = nextBomLength(random);
+                generator.writeStartObject();
+                generator.writeStringField("productId", Long.toString(productId));
+                generator.writeStringField("name", "product " + productId);
+                generator.writeArrayFieldStart("contain_articles");
+                for (int entry = 0; entry < length; entry++) {
+                    bom[entry] = nextArticleId(random, bom, entry);
+                    generator.writeStartObject();
+                    generator.writeStringField("art_id", Long.toString(bom[entry]));
+                    generator.writeStringField("amount_of", Long.toString(nextLong(random, 1, this.maxAmount)));
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        return this.products;
+    }
+
+    /**
+     * Write {@code inventory.json} and {@code products.json} into a directory.
+     *
+     * @param directory {@link Path} of the target directory, created when missing
+     * @throws IOException in case of write failure
+     */
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try (OutputStream outputStream = newOutputStream(directory.resolve("inventory.json"))) {
+            writeInventory(outputStream);
+        }
+        try (OutputStream outputStream = newOutputStream(directory.resolve("products.json"))) {
+            writeProducts(outputStream);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "target/catalog");
+        CatalogGenerator generator = builder()
+                .seed(Long.getLong("catalog.seed", 42))
+                .articles(Long.getLong("catalog.articles", 1_000_000))
+                .products(Long.getLong("catalog.products", 100_000))
+                .bomMin(Integer.getInteger("catalog.bom.min", 1))
+                .bomMean(Double.parseDouble(System.getProperty("catalog.bom.mean", "4")))
+                .bomMax(Integer.getInteger("catalog.bom.max", 32))
+                .skew(Double.parseDouble(System.getProperty("catalog.skew", "1")))
+                .maxStock(Long.getLong("catalog.stock.max", 1000))
+                .maxAmount(Long.getLong("catalog.amount.max", 10))
+                .build();
+        generator.write(directory);
+        System.out.printf("Generated %d articles and %d products into %s%n",
+                generator.getArticles(), generator.getProducts(), directory.toAbsolutePath());
+    }
+
+    private static JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        JsonGenerator generator = new JsonFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private static OutputStream newOutputStream(Path path) throws IOException {
+        return new BufferedOutputStream(Files.newOutputStream(path));
+    }
+
+    private static String name(long articleId) {
+        return NAMES[(int) (articleId % NAMES.length)] + " " + articleId;
+    }
+
+    private static long nextLong(SplittableRandom random, long from, long to) {
+        return from == to ? from : random.nextLong(from, to + 1);
+    }
+
+    /**
+     * Poisson draw (Knuth) around the mean, clamped to the configured bounds.
+     */
+    private int nextBomLength(SplittableRandom random) {
+        double limit = Math.exp(-this.bomMean);
+        double product = random.nextDouble();
+        int length = 0;
+        while (product > limit && length < this.bomMax) {
+            product *= random.nextDouble();
+            length++;
+        }
+        return Math.max(this.bomMin, Math.min(this.bomMax, length));
+    }
+
+    /**
+     * Article rank drawn through the inverse distribution of a continuous power law over
+     * {@code [1, articles + 1)}, redrawn a bounded number of times when already part of the bill
+     * of materials and otherwise replaced by the next unused identifier.
+     */
+    private long nextArticleId(SplittableRandom random, long[] bom, int length) {
+        long articleId = 1;
+        for (int draw = 0; draw < MAX_DRAWS; draw++) {
+            articleId = nextRank(random.nextDouble());
+            if (!contains(bom, length, articleId)) {
+                return articleId;
+            }
+        }
+        while (contains(bom, length, articleId)) {
+            articleId = articleId % this.articles + 1;
+        }
+        return articleId;
+    }
+
+    private long nextRank(double uniform) {
+        double bound = this.articles + 1d;
+        double rank;
+        if (this.skew == 0) {
+            rank = 1 + uniform * this.articles;
+        } else if (Math.abs(this.skew - 1) < 1e-9) {
+            rank = Math.pow(bound, uniform);
+        } else {
+            double exponent = 1 - this.skew;
+            rank = Math.pow(1 + uniform * (Math.pow(bound, exponent) - 1), 1 / exponent);
+        }
+        return Math.max(1, Math.min(this.articles, (long) rank));
+    }
+
+    private static boolean contains(long[] bom, int length, long articleId) {
+        return Arrays.stream(bom, 0, length).anyMatch(value -> value == articleId);
+    }
+
+    /**
+     * {@link CatalogGenerator} builder, defaults describe a small catalog with mild article reuse.
+     */
+    public static class CatalogGeneratorBuilder {
+
+        private long seed = 42;
+        private long articles = 10_000;
+        private long products = 1_000;
+        private int bomMin = 1;
+        private double bomMean = 4;
+        private int bomMax = 32;
+        private double skew = 1;
+        private long maxStock = 1000;
+        private long maxAmount = 10;
+    }
+}
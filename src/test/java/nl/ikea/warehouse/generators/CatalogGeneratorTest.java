@@ -0,0 +1,85 @@
+package nl.ikea.warehouse.generators;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.ikea.warehouse.utils.FileReadUtils;
+import nl.ikea.warehouse.views.impl.ArticleView;
+import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class CatalogGeneratorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testSameSeedSameDocuments() throws IOException {
+        CatalogGenerator generator = CatalogGenerator.builder().seed(7).articles(100).products(50).build();
+
+        assertThat(products(generator), is(products(generator)));
+        assertThat(inventory(generator), is(inventory(generator)));
+        assertThat(products(generator), not(products(CatalogGenerator.builder().seed(8).articles(100).products(50).build())));
+    }
+
+    @Test
+    public void testDocumentsBindToViews() throws IOException {
+        CatalogGenerator generator = CatalogGenerator.builder().articles(100).products(200).bomMin(2).bomMean(3).bomMax(5).build();
+        List<InventoryView> inventory = new ArrayList<>();
+        List<ProductView> products = new ArrayList<>();
+
+        FileReadUtils.stream(this.objectMapper, new ByteArrayInputStream(inventory(generator)), InventoryView.class, inventory::add);
+        FileReadUtils.stream(this.objectMapper, new ByteArrayInputStream(products(generator)), ProductView.class, products::add);
+
+        assertThat(inventory.size(), is(100));
+        assertThat(products.size(), is(200));
+        for (ProductView product : products) {
+            List<Long> articleIds = product.getArticles().stream().map(ArticleView::getArticleId).collect(Collectors.toList());
+            assertTrue(articleIds.size() >= 2 && articleIds.size() <= 5);
+            assertThat(articleIds.stream().distinct().count(), is((long) articleIds.size()));
+            assertTrue(articleIds.stream().allMatch(articleId -> articleId >= 1 && articleId <= 100));
+        }
+    }
+
+    @Test
+    public void testSkewFavoursHotArticles() throws IOException {
+        Map<Long, Integer> uniform = usages(CatalogGenerator.builder().articles(1000).products(2000).skew(0).build());
+        Map<Long, Integer> skewed = usages(CatalogGenerator.builder().articles(1000).products(2000).skew(1.2).build());
+
+        assertThat(skewed.getOrDefault(1L, 0), greaterThan(10 * uniform.getOrDefault(1L, 1)));
+        assertThat(skewed.size(), lessThanOrEqualTo(uniform.size()));
+    }
+
+    private Map<Long, Integer> usages(CatalogGenerator generator) throws IOException {
+        Map<Long, Integer> usages = new HashMap<>();
+        FileReadUtils.stream(this.objectMapper, new ByteArrayInputStream(products(generator)), ProductView.class,
+                product -> product.getArticles().forEach(article -> usages.merge(article.getArticleId(), 1, Integer::sum)));
+        return usages;
+    }
+
+    private static byte[] inventory(CatalogGenerator generator) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        generator.writeInventory(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] products(CatalogGenerator generator) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        generator.writeProducts(outputStream);
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,81 @@
+package nl.ikea.warehouse.indexes;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import nl.ikea.warehouse.configurations.PersistenceConfiguration;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * This test requires: * mongodb instance running on the environment
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = PersistenceConfiguration.class)
+public class IndexAdvisorTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    private IndexAdvisor indexAdvisor;
+
+    @Before
+    public void setUp() {
+        // Start without the indexes declared by the entity.
+        this.mongoTemplate.dropCollection(ArticleEntity.class);
+        this.mongoTemplate.save(new ArticleEntity(1L, "leg", 12L, 1L));
+        this.indexAdvisor = new IndexAdvisor(this.applicationContext, this.mongoTemplate, false);
+    }
+
+    @After
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(ArticleEntity.class);
+    }
+
+    @Test
+    public void testReportMissingIndex() {
+        IndexAdvice advice = byMethod(this.indexAdvisor.advise(false)).get("getProductArticles");
+
+        assertThat(advice.getCollection(), is(this.mongoTemplate.getCollectionName(ArticleEntity.class)));
+        assertThat(advice.getPlan(), is(IndexAdvice.Plan.COLLSCAN));
+        assertThat(advice.getMissingIndex(), is(Collections.singletonList("productId")));
+        assertThat(advice.isCreated(), is(false));
+    }
+
+    @Test
+    public void testCreateMissingIndex() {
+        assertThat(byMethod(this.indexAdvisor.advise(true)).get("getProductArticles").isCreated(), is(true));
+
+        IndexAdvice advice = byMethod(this.indexAdvisor.advise(false)).get("getProductArticles");
+
+        assertThat(advice.getPlan(), is(IndexAdvice.Plan.IXSCAN));
+        assertThat(advice.getMissingIndex().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testUniqueIdentifierQuery() {
+        // articleId is the document identifier, hence served by the _id index.
+        IndexAdvice advice = byMethod(this.indexAdvisor.advise(false)).get("getProductArticle");
+
+        assertThat(advice.getPlan(), is(IndexAdvice.Plan.IXSCAN));
+    }
+
+    private static Map<String, IndexAdvice> byMethod(List<IndexAdvice> advices) {
+        return advices.stream().collect(Collectors.toMap(IndexAdvice::getMethod, Function.identity()));
+    }
+}
@@ -0,0 +1,132 @@
+package nl.ikea.warehouse.listeners;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import lombok.Getter;
+import lombok.Setter;
+import nl.ikea.warehouse.annotations.CascadeSave;
+import nl.ikea.warehouse.configurations.PersistenceConfiguration;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.entities.ProductEntity;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+/**
+ * This test requires: * mongodb instance running on the environment
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = PersistenceConfiguration.class)
+public class CascadeSaveMongoEventListenerTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @After
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(ArticleEntity.class);
+        this.mongoTemplate.dropCollection(ProductEntity.class);
+        this.mongoTemplate.dropCollection(ShelfEntity.class);
+    }
+
+    @Test
+    public void testCascadeWithOneBulkUpsertPerClass() {
+        this.mongoTemplate.insert(new ArticleEntity(1L, "leg", 4L));
+        MongoOperations mongoOperations = Mockito.spy(this.mongoTemplate);
+        CascadeSaveMongoEventListener listener = new CascadeSaveMongoEventListener();
+        ReflectionTestUtils.setField(listener, "mongoOperations", mongoOperations);
+        ProductEntity productEntity = new ProductEntity("chair", Arrays.asList(
+                new ArticleEntity(1L, "leg", 12L), new ArticleEntity(2L, "screw", 17L),
+                new ArticleEntity(3L, "seat", 2L)));
+
+        listener.onBeforeConvert(new BeforeConvertEvent<>(productEntity, "productEntity"));
+
+        Mockito.verify(mongoOperations, Mockito.times(1))
+                .bulkOps(BulkOperations.BulkMode.UNORDERED, ArticleEntity.class);
+        Mockito.verify(mongoOperations, Mockito.never()).save(Mockito.any());
+        assertThat(this.mongoTemplate.count(new Query(), ArticleEntity.class), is(3L));
+        assertThat(this.mongoTemplate.findById(1L, ArticleEntity.class).getAmount(), is(12L));
+        assertThat(this.mongoTemplate.findById(3L, ArticleEntity.class).getName(), is("seat"));
+    }
+
+    @Test
+    public void testCascadeLazyReferenceList() {
+        ProductEntity productEntity = new ProductEntity("chair", Arrays.asList(new ArticleEntity(1L, "leg", 4L)));
+        productEntity.setProductId(10L);
+        this.mongoTemplate.save(productEntity);
+        ProductEntity loaded = this.mongoTemplate.findById(10L, ProductEntity.class);
+        assertThat(loaded.getArticles(), instanceOf(LazyLoadingProxy.class));
+
+        loaded.getArticles().get(0).setAmount(7L);
+        this.mongoTemplate.save(loaded);
+
+        assertThat(this.mongoTemplate.count(new Query(), ArticleEntity.class), is(1L));
+        assertThat(this.mongoTemplate.findById(1L, ArticleEntity.class).getAmount(), is(7L));
+    }
+
+    @Test
+    public void testCascadeLazyReferenceAsUserClass() {
+        ShelfEntity shelfEntity = new ShelfEntity();
+        shelfEntity.setShelfId(20L);
+        shelfEntity.setArticle(new ArticleEntity(1L, "leg", 4L));
+        this.mongoTemplate.save(shelfEntity);
+        ShelfEntity loaded = this.mongoTemplate.findById(20L, ShelfEntity.class);
+        ArticleEntity proxy = loaded.getArticle();
+        assertThat(proxy, instanceOf(LazyLoadingProxy.class));
+        proxy.setAmount(7L);
+        loaded.setSpare(new ArticleEntity(2L, "screw", 17L));
+        MongoOperations mongoOperations = Mockito.spy(this.mongoTemplate);
+        CascadeSaveMongoEventListener listener = new CascadeSaveMongoEventListener();
+        ReflectionTestUtils.setField(listener, "mongoOperations", mongoOperations);
+
+        listener.onBeforeConvert(new BeforeConvertEvent<>(loaded, "shelfEntity"));
+
+        // The proxy is grouped with the plain article, under the mapped class.
+        Mockito.verify(mongoOperations, Mockito.times(1))
+                .bulkOps(Mockito.eq(BulkOperations.BulkMode.UNORDERED), Mockito.any(Class.class));
+        Mockito.verify(mongoOperations).bulkOps(BulkOperations.BulkMode.UNORDERED, ArticleEntity.class);
+        Mockito.verify(mongoOperations, Mockito.never()).save(Mockito.any());
+        assertThat(this.mongoTemplate.count(new Query(), ArticleEntity.class), is(2L));
+        ArticleEntity stored = this.mongoTemplate.findById(1L, ArticleEntity.class);
+        assertThat(stored.getAmount(), is(7L));
+        assertThat(stored.getName(), is("leg"));
+    }
+
+    /**
+     * Entity holding a single lazily resolved reference, loaded as a proxy of the referenced class.
+     */
+    @Document
+    @Getter
+    @Setter
+    public static class ShelfEntity {
+
+        @Id
+        private Long shelfId;
+
+        @DBRef(lazy = true)
+        @CascadeSave
+        private ArticleEntity article;
+
+        @DBRef
+        @CascadeSave
+        private ArticleEntity spare;
+    }
+}
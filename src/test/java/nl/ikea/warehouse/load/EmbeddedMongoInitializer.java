@@ -0,0 +1,35 @@
+package nl.ikea.warehouse.load;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Boots an in-process, in-memory MongoDb stand-in on a free port and points the application at it,
+ * so tests using it need no MongoDb instance on the environment. The server lives as long as the
+ * application context.
+ */
+public class EmbeddedMongoInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param applicationContext {@link ConfigurableApplicationContext}
+     */
+    @Override
+    public void initialize(ConfigurableApplicationContext applicationContext) {
+        MongoServer server = new MongoServer(new MemoryBackend());
+        InetSocketAddress address = server.bind();
+        TestPropertyValues.of(
+                "spring.data.mongodb.host=" + address.getHostString(),
+                "spring.data.mongodb.port=" + address.getPort())
+                .applyTo(applicationContext);
+        applicationContext.addApplicationListener((ApplicationListener<ContextClosedEvent>) event -> server.shutdown());
+    }
+}
@@ -0,0 +1,127 @@
+package nl.ikea.warehouse.load;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe per endpoint latency recording into HdrHistograms with microsecond resolution.
+ * Responses are counted as expected, rejected (load shedding such as 503) or errors.
+ */
+public class LatencyRecorder {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    /**
+     * Create recorder for a fixed set of endpoints.
+     *
+     * @param endpoints {@link Collection} of endpoint names
+     */
+    public LatencyRecorder(Collection<String> endpoints) {
+        endpoints.forEach(endpoint -> this.stats.put(endpoint, new Stats()));
+    }
+
+    /**
+     * Record a single request.
+     *
+     * @param endpoint     endpoint name
+     * @param elapsedNanos request latency in nanoseconds
+     * @param outcome      {@link Outcome} of the request
+     */
+    public void record(String endpoint, long elapsedNanos, Outcome outcome) {
+        Stats endpointStats = this.stats.get(endpoint);
+        endpointStats.histogram.recordValue(
+                Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        endpointStats.outcomes.get(outcome).increment();
+    }
+
+    /**
+     * Discard everything recorded so far, e.g. at the end of the warm up.
+     */
+    public void reset() {
+        this.stats.values().forEach(Stats::reset);
+    }
+
+    /**
+     * Summarize the recorded requests.
+     *
+     * @param elapsedNanos measurement duration in nanoseconds
+     * @return {@link List} of {@link EndpointReport} in endpoint order
+     */
+    public List<EndpointReport> report(long elapsedNanos) {
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        List<EndpointReport> reports = new ArrayList<>(this.stats.size());
+        this.stats.forEach((endpoint, endpointStats) -> {
+            Histogram histogram = endpointStats.histogram.copy();
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            percentiles.put("p50", millis(histogram.getValueAtPercentile(50)));
+            percentiles.put("p99", millis(histogram.getValueAtPercentile(99)));
+            percentiles.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+            percentiles.put("max", millis(histogram.getMaxValue()));
+            reports.add(EndpointReport.builder()
+                    .endpoint(endpoint)
+                    .requests(histogram.getTotalCount())
+                    .rejected(endpointStats.outcomes.get(Outcome.REJECTED).sum())
+                    .errors(endpointStats.outcomes.get(Outcome.ERROR).sum())
+                    .throughput(histogram.getTotalCount() / seconds)
+                    .percentiles(percentiles)
+                    .build());
+        });
+        return reports;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000d;
+    }
+
+    /** Request outcome. */
+    public enum Outcome {
+        EXPECTED,
+        REJECTED,
+        ERROR
+    }
+
+    /** Latency summary of a single endpoint, latencies in milliseconds. */
+    @Getter
+    @ToString
+    @Builder
+    public static class EndpointReport {
+
+        private final String endpoint;
+        private final long requests;
+        private final long rejected;
+        private final long errors;
+        private final double throughput;
+        private final Map<String, Double> percentiles;
+    }
+
+    private static final class Stats {
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Map<Outcome, LongAdder> outcomes = new LinkedHashMap<>();
+
+        private Stats() {
+            for (Outcome outcome : Outcome.values()) {
+                this.outcomes.put(outcome, new LongAdder());
+            }
+        }
+
+        private void reset() {
+            this.histogram.reset();
+            this.outcomes.values().forEach(LongAdder::reset);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package nl.ikea.warehouse.load;
+
+import com.google.common.base.Splitter;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test configuration, read from {@code loadtest.*} system properties:
+ * <ul>
+ * <li>{@code loadtest.clients}: concurrent clients, each sending requests back to back</li>
+ * <li>{@code loadtest.warmup} and {@code loadtest.duration}: seconds of warm up and measurement</li>
+ * <li>{@code loadtest.seed}, {@code loadtest.articles} and {@code loadtest.products}: seeded catalog</li>
+ * <li>{@code loadtest.upload-size}: products per uploaded document</li>
+ * <li>{@code loadtest.mix}: request weights, e.g. {@code products=50,inventories=30,sell=15,upload=5}</li>
+ * <li>{@code loadtest.threshold.<endpoint>.<p50|p99|p999>}: latency ceilings in milliseconds, p50 and p99
+ * default to the measured baseline plus headroom</li>
+ * <li>{@code loadtest.threshold.errors}: highest ratio of unexpected responses per endpoint</li>
+ * <li>{@code loadtest.threshold.throughput}: lowest overall requests per second, defaults to the baseline minus
+ * headroom</li>
+ * <li>{@code loadtest.result}: JSON result file</li>
+ * </ul>
+ */
+@Getter
+@ToString
+@Builder
+public class LoadProfile {
+
+    public static final String PRODUCTS = "products";
+    public static final String INVENTORIES = "inventories";
+    public static final String SELL = "sell";
+    public static final String UPLOAD = "upload";
+    public static final List<String> ENDPOINTS = Collections.unmodifiableList(
+            Arrays.asList(PRODUCTS, INVENTORIES, SELL, UPLOAD));
+    public static final List<String> PERCENTILES = Collections.unmodifiableList(Arrays.asList("p50", "p99", "p999"));
+
+    private static final String PREFIX = "loadtest.";
+    private static final String THRESHOLD_PREFIX = PREFIX + "threshold.";
+    private static final String DEFAULT_MIX = PRODUCTS + "=50," + INVENTORIES + "=30," + SELL + "=15," + UPLOAD + "=5";
+    private static final Map<String, Double> DEFAULT_THRESHOLDS = new LinkedHashMap<>();
+    private static final String DEFAULT_THROUGHPUT = "25";
+
+    static {
+        // Baseline of the default profile against the in-memory stand-in on a single vCPU, worst of three runs
+        // (see README): p50/p99 of products 316/949, inventories 363/1233, sell 1152/4256 and upload 37/120 ms,
+        // 34.2 req/s overall. Ceilings leave about 50% headroom, the throughput floor about 30%.
+        DEFAULT_THRESHOLDS.put(PRODUCTS + ".p50", 500d);
+        DEFAULT_THRESHOLDS.put(PRODUCTS + ".p99", 1500d);
+        DEFAULT_THRESHOLDS.put(INVENTORIES + ".p50", 550d);
+        DEFAULT_THRESHOLDS.put(INVENTORIES + ".p99", 2000d);
+        DEFAULT_THRESHOLDS.put(SELL + ".p50", 1750d);
+        DEFAULT_THRESHOLDS.put(SELL + ".p99", 6500d);
+        DEFAULT_THRESHOLDS.put(UPLOAD + ".p50", 60d);
+        DEFAULT_THRESHOLDS.put(UPLOAD + ".p99", 250d);
+    }
+
+    private final int clients;
+    private final Duration warmup;
+    private final Duration duration;
+    private final long seed;
+    private final long articles;
+    private final long products;
+    private final long uploadSize;
+    private final Map<String, Integer> mix;
+    private final Map<String, Double> thresholds;
+    private final double maxErrorRatio;
+    private final double minThroughput;
+    private final String result;
+
+    /**
+     * Read {@link LoadProfile} from system properties, falling back to a short run over a small catalog.
+     *
+     * @return {@link LoadProfile}
+     */
+    public static LoadProfile fromSystemProperties() {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        Splitter.on(',').trimResults().omitEmptyStrings().withKeyValueSeparator('=')
+                .split(System.getProperty(PREFIX + "mix", DEFAULT_MIX))
+                .forEach((endpoint, weight) -> {
+                    if (!ENDPOINTS.contains(endpoint)) {
+                        throw new IllegalArgumentException("Unknown load test endpoint: " + endpoint + ".");
+                    }
+                    mix.put(endpoint, Integer.valueOf(weight));
+                });
+        Map<String, Double> thresholds = new LinkedHashMap<>();
+        for (String endpoint : mix.keySet()) {
+            for (String percentile : PERCENTILES) {
+                String key = endpoint + "." + percentile;
+                String value = System.getProperty(THRESHOLD_PREFIX + key);
+                if (value != null) {
+                    thresholds.put(key, Double.valueOf(value));
+                } else if (DEFAULT_THRESHOLDS.containsKey(key)) {
+                    thresholds.put(key, DEFAULT_THRESHOLDS.get(key));
+                }
+            }
+        }
+        return LoadProfile.builder()
+                .clients(Integer.getInteger(PREFIX + "clients", 16))
+                .warmup(Duration.ofSeconds(Long.getLong(PREFIX + "warmup", 5)))
+                .duration(Duration.ofSeconds(Long.getLong(PREFIX + "duration", 20)))
+                .seed(Long.getLong(PREFIX + "seed", 42))
+                .articles(Long.getLong(PREFIX + "articles", 10_000))
+                .products(Long.getLong(PREFIX + "products", 2_000))
+                .uploadSize(Long.getLong(PREFIX + "upload-size", 100))
+                .mix(Collections.unmodifiableMap(mix))
+                .thresholds(Collections.unmodifiableMap(thresholds))
+                .maxErrorRatio(Double.parseDouble(System.getProperty(THRESHOLD_PREFIX + "errors", "0.01")))
+                .minThroughput(Double.parseDouble(System.getProperty(THRESHOLD_PREFIX + "throughput",
+                        DEFAULT_THROUGHPUT)))
+                .result(System.getProperty(PREFIX + "result", "target/loadtest-result.json"))
+                .build();
+    }
+
+    /**
+     * Compare measured results with the configured thresholds.
+     *
+     * @param reports    {@link List} of {@link LatencyRecorder.EndpointReport} per endpoint
+     * @param throughput overall requests per second
+     * @return {@link List} of human readable threshold violations, empty when none
+     */
+    public List<String> violations(List<LatencyRecorder.EndpointReport> reports, double throughput) {
+        List<String> violations = new ArrayList<>();
+        for (LatencyRecorder.EndpointReport report : reports) {
+            for (String percentile : PERCENTILES) {
+                Double threshold = this.thresholds.get(report.getEndpoint() + "." + percentile);
+                double latency = report.getPercentiles().get(percentile);
+                if (threshold != null && latency > threshold) {
+                    violations.add(String.format("%s %s of %.1f ms exceeds %.1f ms",
+                            report.getEndpoint(), percentile, latency, threshold));
+                }
+            }
+            double errorRatio = report.getRequests() == 0 ? 0 : (double) report.getErrors() / report.getRequests();
+            if (errorRatio > this.maxErrorRatio) {
+                violations.add(String.format("%s error ratio of %.4f exceeds %.4f",
+                        report.getEndpoint(), errorRatio, this.maxErrorRatio));
+            }
+        }
+        if (throughput < this.minThroughput) {
+            violations.add(String.format("throughput of %.1f req/s is below %.1f req/s",
+                    throughput, this.minThroughput));
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,233 @@
+package nl.ikea.warehouse.load;
+
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import nl.ikea.warehouse.generators.CatalogGenerator;
+import nl.ikea.warehouse.jobs.JobStatus;
+import nl.ikea.warehouse.services.IJobService;
+import nl.ikea.warehouse.views.impl.JobView;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test: boots the application against an in-process MongoDb stand-in, seeds a
+ * {@link CatalogGenerator} catalog through the upload endpoints and drives a weighted mix of
+ * product listing, inventory listing, sell and upload requests from concurrent closed loop clients.
+ * Latencies are recorded per endpoint into HdrHistograms, written as JSON and checked against the
+ * {@link LoadProfile} thresholds. Application logging is lowered to WARN so the console does not
+ * dominate the measurement.
+ * <p>
+ * Excluded from the default build, run with {@code mvn -Ploadtest test}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "logging.level.nl.ikea.warehouse=WARN")
+@ContextConfiguration(initializers = EmbeddedMongoInitializer.class)
+public class WarehouseLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WarehouseLoadTest.class);
+    private static final String BASE_URL = "http://localhost:";
+    private static final int PAGE_SIZE = 20;
+    private static final long SEED_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private IJobService iJobService;
+    @LocalServerPort
+    private int localPort;
+
+    @Test
+    public void testLoad() throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        LOGGER.warn("Running load test with {}.", profile);
+        CatalogGenerator catalog = CatalogGenerator.builder()
+                .seed(profile.getSeed())
+                .articles(profile.getArticles())
+                .products(profile.getProducts())
+                .build();
+        seed("/inventories/upload", "inventory.json", catalog::writeInventory);
+        seed("/products/upload", "products.json", catalog::writeProducts);
+        // Same seed, so the uploaded document rewrites the leading products of the seeded catalog.
+        byte[] upload = document(CatalogGenerator.builder()
+                .seed(profile.getSeed())
+                .articles(profile.getArticles())
+                .products(Math.min(profile.getUploadSize(), profile.getProducts()))
+                .build()::writeProducts);
+
+        LatencyRecorder recorder = new LatencyRecorder(profile.getMix().keySet());
+        String[] endpoints = profile.getMix().keySet().toArray(new String[0]);
+        int[] weights = profile.getMix().values().stream().mapToInt(Integer::intValue).toArray();
+        Arrays.parallelPrefix(weights, Integer::sum);
+        long deadline = System.nanoTime() + profile.getWarmup().toNanos() + profile.getDuration().toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(profile.getClients());
+        for (int client = 0; client < profile.getClients(); client++) {
+            clients.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int pick = random.nextInt(weights[weights.length - 1]);
+                    int index = 0;
+                    while (pick >= weights[index]) {
+                        index++;
+                    }
+                    send(endpoints[index], profile, upload, random, recorder);
+                }
+            });
+        }
+        Thread.sleep(profile.getWarmup().toMillis());
+        recorder.reset();
+        long started = System.nanoTime();
+        clients.shutdown();
+        clients.awaitTermination(
+                profile.getDuration().toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS);
+        long elapsed = System.nanoTime() - started;
+
+        List<LatencyRecorder.EndpointReport> reports = recorder.report(elapsed);
+        double throughput = reports.stream().mapToDouble(LatencyRecorder.EndpointReport::getThroughput).sum();
+        List<String> violations = profile.violations(reports, throughput);
+        write(profile, reports, throughput, violations);
+        reports.forEach(report -> LOGGER.warn("{}", report));
+        LOGGER.warn("Overall throughput: {} req/s.", String.format("%.1f", throughput));
+        assertThat("Load test thresholds violated, see " + profile.getResult(), violations, empty());
+    }
+
+    private void send(String endpoint, LoadProfile profile, byte[] upload, ThreadLocalRandom random,
+                      LatencyRecorder recorder) {
+        long started = System.nanoTime();
+        LatencyRecorder.Outcome outcome;
+        try {
+            switch (endpoint) {
+                case LoadProfile.PRODUCTS:
+                    outcome = outcome(exchange(HttpMethod.GET, "/products?limit=" + PAGE_SIZE
+                            + "&after=" + random.nextLong(profile.getProducts()), null), HttpStatus.OK);
+                    break;
+                case LoadProfile.INVENTORIES:
+                    outcome = outcome(exchange(HttpMethod.GET, "/inventories?limit=" + PAGE_SIZE
+                            + "&after=" + random.nextLong(profile.getArticles()), null), HttpStatus.OK);
+                    break;
+                case LoadProfile.SELL:
+                    // Running out of stock is an expected answer once the catalog has been sold down.
+                    outcome = outcome(exchange(HttpMethod.POST, "/products/"
+                                    + random.nextLong(1, profile.getProducts() + 1) + "/sell?quantity=1", null),
+                            HttpStatus.OK, HttpStatus.CONFLICT);
+                    break;
+                default:
+                    outcome = outcome(exchange(HttpMethod.POST, "/products/upload",
+                            multipart("products.json", upload)), HttpStatus.ACCEPTED);
+                    break;
+            }
+        } catch (RuntimeException e) {
+            LOGGER.debug("Request to {} failed.", endpoint, e);
+            outcome = LatencyRecorder.Outcome.ERROR;
+        }
+        recorder.record(endpoint, System.nanoTime() - started, outcome);
+    }
+
+    private static LatencyRecorder.Outcome outcome(ResponseEntity<byte[]> response, HttpStatus... expected) {
+        if (Arrays.asList(expected).contains(response.getStatusCode())) {
+            return LatencyRecorder.Outcome.EXPECTED;
+        }
+        return response.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE
+                ? LatencyRecorder.Outcome.REJECTED : LatencyRecorder.Outcome.ERROR;
+    }
+
+    private ResponseEntity<byte[]> exchange(HttpMethod method, String path, Object body) {
+        return this.restTemplate.exchange(
+                URI.create(BASE_URL + this.localPort + path), method, new HttpEntity<>(body), byte[].class);
+    }
+
+    private void seed(String path, String filename, Document document) throws IOException, InterruptedException {
+        long started = System.currentTimeMillis();
+        ResponseEntity<JobView> response = this.restTemplate.postForEntity(
+                URI.create(BASE_URL + this.localPort + path), multipart(filename, document(document)), JobView.class);
+        if (response.getStatusCode() != HttpStatus.ACCEPTED || response.getBody() == null) {
+            throw new IllegalStateException("Seeding " + path + " was not accepted: " + response.getStatusCode() + ".");
+        }
+        JobView jobView = response.getBody();
+        while (jobView.getStatus() != JobStatus.COMPLETED) {
+            if (jobView.getStatus() == JobStatus.FAILED
+                    || System.currentTimeMillis() - started > SEED_TIMEOUT_MILLIS) {
+                throw new IllegalStateException("Seeding " + path + " did not complete: " + jobView.getMessage() + ".");
+            }
+            Thread.sleep(100);
+            jobView = this.iJobService.getJob(jobView.getJobId()).orElseThrow(IllegalStateException::new);
+        }
+        LOGGER.warn("Seeded {} rows through {} in {} ms.", jobView.getRowsWritten(), path,
+                System.currentTimeMillis() - started);
+    }
+
+    private static MultiValueMap<String, Object> multipart(String filename, byte[] content) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        });
+        return body;
+    }
+
+    private static byte[] document(Document document) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        document.write(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static void write(LoadProfile profile, List<LatencyRecorder.EndpointReport> reports, double throughput,
+                              List<String> violations) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("clients", profile.getClients());
+        result.put("durationSeconds", profile.getDuration().getSeconds());
+        result.put("articles", profile.getArticles());
+        result.put("products", profile.getProducts());
+        result.put("mix", profile.getMix());
+        result.put("thresholds", profile.getThresholds());
+        result.put("throughput", throughput);
+        result.put("endpoints", reports);
+        result.put("violations", violations);
+        File file = new File(profile.getResult());
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, result);
+    }
+
+    @FunctionalInterface
+    private interface Document {
+
+        void write(OutputStream outputStream) throws IOException;
+    }
+}
@@ -0,0 +1,72 @@
+package nl.ikea.warehouse.metrics;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nl.ikea.warehouse.converters.impl.ArticleConverter;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.exceptions.ConflictException;
+import nl.ikea.warehouse.services.IProductService;
+import nl.ikea.warehouse.views.impl.ArticleView;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class LayerMetricsPostProcessorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LayerMetricsPostProcessor postProcessor = new LayerMetricsPostProcessor(
+            new StaticListableBeanFactory(Collections.singletonMap("meterRegistry", this.meterRegistry))
+                    .getBeanProvider(MeterRegistry.class));
+
+    @Test
+    public void testTimeConverterBatchesOnly() {
+        Object bean = this.postProcessor.postProcessAfterInitialization(new ArticleConverter(), "articleConverter");
+
+        assertThat(bean, instanceOf(ArticleConverter.class));
+        ArticleConverter converter = (ArticleConverter) bean;
+        converter.from(Arrays.asList(article(1L), article(2L)));
+        converter.from(ArticleView.builder().articleId(3L).amount(1L).build());
+
+        assertThat(this.meterRegistry.get("warehouse.converter")
+                .tags("component", "ArticleConverter", "operation", "from", "outcome", "SUCCESS")
+                .timer().count(), is(1L));
+        assertThat(this.meterRegistry.get("warehouse.converter.elements")
+                .tag("component", "ArticleConverter").counter().count(), is(2.0));
+    }
+
+    @Test
+    public void testTagFailedServiceCalls() {
+        IProductService service = Mockito.mock(IProductService.class);
+        Mockito.when(service.sell(1L, 5L)).thenThrow(new ConflictException("MSG_IKEA_409", "Insufficient stock."));
+        IProductService timed =
+                (IProductService) this.postProcessor.postProcessAfterInitialization(service, "productService");
+
+        try {
+            timed.sell(1L, 5L);
+            fail("Expected ConflictException.");
+        } catch (ConflictException e) {
+            assertThat(this.meterRegistry.get("warehouse.service")
+                    .tags("component", "IProductService", "operation", "sell", "outcome", "ERROR",
+                            "exception", "ConflictException")
+                    .timer().count(), is(1L));
+        }
+        timed.toString();
+        assertThat(this.meterRegistry.find("warehouse.service").tag("operation", "toString").timer(), nullValue());
+    }
+
+    private static ArticleEntity article(Long articleId) {
+        ArticleEntity articleEntity = new ArticleEntity();
+        articleEntity.setArticleId(articleId);
+        articleEntity.setAmount(4L);
+        return articleEntity;
+    }
+}
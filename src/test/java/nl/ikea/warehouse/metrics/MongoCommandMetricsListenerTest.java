@@ -0,0 +1,72 @@
+package nl.ikea.warehouse.metrics;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class MongoCommandMetricsListenerTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoCommandMetricsListener listener = new MongoCommandMetricsListener(this.meterRegistry, 100);
+
+    @Test
+    public void testTimeCommandsPerCollection() {
+        this.listener.commandStarted(started(1, "find", "{find: 'products', filter: {productId: {$gt: 5}}}"));
+        this.listener.commandSucceeded(
+                new CommandSucceededEvent(1, CONNECTION, "find", new BsonDocument(), TimeUnit.MILLISECONDS.toNanos(3)));
+        this.listener.commandStarted(started(2, "getMore", "{getMore: NumberLong(7), collection: 'products'}"));
+        this.listener.commandFailed(new CommandFailedEvent(2, CONNECTION, "getMore", 0, new MongoException("Lost.")));
+
+        assertThat(this.meterRegistry.get(MongoCommandMetricsListener.METRIC_NAME)
+                .tags("command", "find", "collection", "products", "status", "SUCCESS")
+                .timer().totalTime(TimeUnit.MILLISECONDS), is(3.0));
+        assertThat(this.meterRegistry.get(MongoCommandMetricsListener.METRIC_NAME)
+                .tags("command", "getMore", "collection", "products", "status", "FAILED")
+                .timer().count(), is(1L));
+    }
+
+    @Test
+    public void testCollection() {
+        assertThat(MongoCommandMetricsListener.collection("insert", BsonDocument.parse("{insert: 'articles'}")),
+                is("articles"));
+        assertThat(MongoCommandMetricsListener.collection("isMaster", BsonDocument.parse("{isMaster: 1}")),
+                is("none"));
+        assertThat(MongoCommandMetricsListener.collection("explain",
+                BsonDocument.parse("{explain: {find: 'products', filter: {}}, verbosity: 'queryPlanner'}")),
+                is("products"));
+    }
+
+    @Test
+    public void testFilterShape() {
+        assertThat(MongoCommandMetricsListener.filterShape(BsonDocument.parse(
+                "{find: 'products', filter: {$or: [{name: 'Table'}, {productId: {$in: [1, 2, 3]}}]}, limit: 20}")),
+                is("{ \"$or\" : [{ \"name\" : \"?\" }, { \"productId\" : { \"$in\" : [\"?\"] } }] }"));
+        assertThat(MongoCommandMetricsListener.filterShape(BsonDocument.parse(
+                "{update: 'articles', updates: [{q: {articleId: 1, amount: {$gte: 4}}, u: {$inc: {amount: -4}}}]}")),
+                is("{ \"articleId\" : \"?\", \"amount\" : { \"$gte\" : \"?\" } }"));
+        assertThat(MongoCommandMetricsListener.filterShape(BsonDocument.parse(
+                "{insert: 'articles', documents: [{articleId: 1}]}")), nullValue());
+    }
+
+    private static CommandStartedEvent started(int requestId, String commandName, String command) {
+        return new CommandStartedEvent(requestId, CONNECTION, "warehouse", commandName, BsonDocument.parse(command));
+    }
+}
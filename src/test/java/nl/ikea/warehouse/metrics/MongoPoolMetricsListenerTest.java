@@ -0,0 +1,57 @@
+package nl.ikea.warehouse.metrics;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolOpenedEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+public class MongoPoolMetricsListenerTest {
+
+    private static final ServerId SERVER = new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoPoolMetricsListener listener = new MongoPoolMetricsListener(this.meterRegistry);
+
+    @Test
+    public void testTrackPoolUsage() {
+        ConnectionId connection = new ConnectionId(SERVER);
+        this.listener.connectionPoolOpened(
+                new ConnectionPoolOpenedEvent(SERVER, ConnectionPoolSettings.builder().maxSize(8).build()));
+        this.listener.waitQueueEntered(new ConnectionPoolWaitQueueEnteredEvent(SERVER));
+        assertThat(gauge("waitqueuesize"), is(1.0));
+        this.listener.connectionAdded(new ConnectionAddedEvent(connection));
+        this.listener.waitQueueExited(new ConnectionPoolWaitQueueExitedEvent(SERVER));
+        this.listener.connectionCheckedOut(new ConnectionCheckedOutEvent(connection));
+
+        assertThat(gauge("size"), is(1.0));
+        assertThat(gauge("checkedout"), is(1.0));
+        assertThat(gauge("waitqueuesize"), is(0.0));
+        assertThat(gauge("max"), is(8.0));
+        assertThat(this.meterRegistry.get(MongoPoolMetricsListener.METRIC_PREFIX + "checkout").timer().count(), is(1L));
+
+        this.listener.connectionCheckedIn(new ConnectionCheckedInEvent(connection));
+        assertThat(gauge("checkedout"), is(0.0));
+        this.listener.connectionPoolClosed(new ConnectionPoolClosedEvent(SERVER));
+        assertThat(this.meterRegistry.find(MongoPoolMetricsListener.METRIC_PREFIX + "size").gauge(), nullValue());
+    }
+
+    private double gauge(String name) {
+        return this.meterRegistry.get(MongoPoolMetricsListener.METRIC_PREFIX + name)
+                .tag("server.address", "localhost:27017").gauge().value();
+    }
+}
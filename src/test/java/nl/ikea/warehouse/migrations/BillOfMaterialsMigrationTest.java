@@ -0,0 +1,101 @@
+package nl.ikea.warehouse.migrations;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import nl.ikea.warehouse.configurations.PersistenceConfiguration;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.services.IAvailabilityService;
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This test requires: * mongodb instance running on the environment
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = PersistenceConfiguration.class)
+public class BillOfMaterialsMigrationTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private IAvailabilityService iAvailabilityService;
+    private BillOfMaterialsMigration migration;
+
+    @Before
+    public void testSetup() {
+        this.iAvailabilityService = Mockito.mock(IAvailabilityService.class);
+        // Batch size of one, so every product goes through its own bulk update.
+        this.migration = new BillOfMaterialsMigration(this.mongoTemplate,
+                new LegacyBillOfMaterialsResolver(this.mongoTemplate), this.iAvailabilityService,
+                Mockito.mock(ApplicationEventPublisher.class), true, 1);
+    }
+
+    @After
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(ArticleEntity.class);
+        this.mongoTemplate.dropCollection(ProductEntity.class);
+    }
+
+    @Test
+    public void testMigrateLegacyProducts() {
+        this.mongoTemplate.save(legacyProduct(1L, article(1L, 4L), article(2L, 8L)));
+        this.mongoTemplate.save(legacyProduct(2L, article(3L, 1L)));
+
+        assertThat(this.migration.migrate(), is(2L));
+
+        List<?> billOfMaterials = product(1L).get("billOfMaterials", List.class);
+        assertThat(billOfMaterials.size(), is(2));
+        assertThat(((Document) billOfMaterials.get(0)).get("articleId"), is(1L));
+        assertThat(((Document) billOfMaterials.get(0)).get("amount"), is(4L));
+        assertThat(((Document) billOfMaterials.get(1)).get("articleId"), is(2L));
+        assertThat(((Document) billOfMaterials.get(1)).get("amount"), is(8L));
+        assertThat(product(1L).get("articles"), nullValue());
+        assertThat(product(2L).get("billOfMaterials", List.class).size(), is(1));
+        Mockito.verify(this.iAvailabilityService).invalidate();
+    }
+
+    @Test
+    public void testMigrateIsIdempotent() {
+        this.mongoTemplate.save(legacyProduct(1L, article(1L, 4L)));
+
+        assertThat(this.migration.migrate(), is(1L));
+        assertThat(this.migration.migrate(), is(0L));
+        assertThat(this.mongoTemplate.findById(1L, ProductEntity.class).getBillOfMaterials().size(), is(1));
+    }
+
+    private Document product(Long productId) {
+        return this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(ProductEntity.class))
+                .find(new Document("_id", productId))
+                .first();
+    }
+
+    private static ProductEntity legacyProduct(Long productId, ArticleEntity... articles) {
+        ProductEntity productEntity = new ProductEntity();
+        productEntity.setProductId(productId);
+        productEntity.setName("product " + productId);
+        productEntity.setArticles(Arrays.asList(articles));
+        return productEntity;
+    }
+
+    private static ArticleEntity article(Long articleId, Long amount) {
+        ArticleEntity articleEntity = new ArticleEntity();
+        articleEntity.setArticleId(articleId);
+        articleEntity.setAmount(amount);
+        return articleEntity;
+    }
+}
@@ -0,0 +1,71 @@
+package nl.ikea.warehouse.migrations;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import nl.ikea.warehouse.configurations.PersistenceConfiguration;
+import nl.ikea.warehouse.entities.ArticleAmountEntity;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.entities.ProductEntity;
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This test requires: * mongodb instance running on the environment
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = PersistenceConfiguration.class)
+public class LegacyBillOfMaterialsResolverTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @After
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(ArticleEntity.class);
+        this.mongoTemplate.dropCollection(ProductEntity.class);
+    }
+
+    @Test
+    public void testResolveLegacyProducts() {
+        ProductEntity legacy = new ProductEntity();
+        legacy.setProductId(1L);
+        legacy.setArticles(Arrays.asList(article(1L, 4L), article(2L, 8L)));
+        this.mongoTemplate.save(legacy);
+        ProductEntity migrated = new ProductEntity();
+        migrated.setProductId(2L);
+        migrated.setBillOfMaterials(Collections.singletonList(new ArticleAmountEntity(1L, 1L)));
+        this.mongoTemplate.save(migrated);
+
+        List<ProductEntity> products = new LegacyBillOfMaterialsResolver(this.mongoTemplate).resolve(
+                this.mongoTemplate.find(new Query().with(Sort.by("_id")), ProductEntity.class));
+
+        assertThat(products.get(0).getBillOfMaterials(),
+                is(Arrays.asList(new ArticleAmountEntity(1L, 4L), new ArticleAmountEntity(2L, 8L))));
+        assertThat(products.get(1).getBillOfMaterials(),
+                is(Collections.singletonList(new ArticleAmountEntity(1L, 1L))));
+        // Resolved in memory only, the document keeps its legacy layout until migrated.
+        assertThat(this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(ProductEntity.class))
+                .find(new Document("_id", 1L)).first().get("billOfMaterials"), nullValue());
+    }
+
+    private static ArticleEntity article(Long articleId, Long amount) {
+        ArticleEntity articleEntity = new ArticleEntity();
+        articleEntity.setArticleId(articleId);
+        articleEntity.setAmount(amount);
+        return articleEntity;
+    }
+}
@@ -0,0 +1,117 @@
+package nl.ikea.warehouse.pipelines;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import nl.ikea.warehouse.configurations.PersistenceConfiguration;
+import nl.ikea.warehouse.converters.impl.ArticleConverter;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.views.impl.ArticleView;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This test requires: * mongodb instance running on the environment
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = PersistenceConfiguration.class)
+public class BulkWriterTest {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final List<Object> events = new ArrayList<>();
+    private final List<BatchReport> batches = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(ArticleEntity.class);
+    }
+
+    @Test
+    public void testUpsertExistingIds() {
+        ArticleEntity existing = new ArticleEntity(1L, "leg", 4L);
+        this.mongoTemplate.insert(existing);
+
+        BulkWriter<ArticleEntity, ArticleView> writer = writer(10);
+        writer.accept(article(1L, 12L));
+        writer.accept(article(2L, 17L));
+        BulkWriteReport report = writer.complete();
+
+        assertThat(report.getWritten(), is(2L));
+        assertThat(report.getFailed(), is(0L));
+        assertThat(this.mongoTemplate.count(new Query(), ArticleEntity.class), is(2L));
+        ArticleEntity updated = this.mongoTemplate.findById(1L, ArticleEntity.class);
+        assertThat(updated.getAmount(), is(12L));
+        // Fields missing from the uploaded row are kept, instead of the document being replaced.
+        assertThat(updated.getName(), is("leg"));
+    }
+
+    @Test
+    public void testFlushAtBatchBoundaries() {
+        BulkWriter<ArticleEntity, ArticleView> writer = writer(2);
+        for (long articleId = 1; articleId <= 4; articleId++) {
+            writer.accept(article(articleId, articleId));
+        }
+        assertThat(this.batches.size(), is(2));
+        writer.accept(null);
+        BulkWriteReport report = writer.complete();
+
+        assertThat(this.batches.size(), is(3));
+        assertThat(this.batches.get(0).getRows(), is(2));
+        assertThat(this.batches.get(2).getRows(), is(1));
+        assertThat(this.batches.get(2).getFailed(), is(1));
+        assertThat(report.getRows(), is(5L));
+        assertThat(report.getWritten(), is(4L));
+        assertThat(this.mongoTemplate.count(new Query(), ArticleEntity.class), is(4L));
+    }
+
+    @Test
+    public void testCapReportedFailures() {
+        BulkWriter<ArticleEntity, ArticleView> writer = writer(1000);
+        for (int row = 0; row < 150; row++) {
+            writer.accept(row % 2 == 0 ? null : ArticleView.builder().amount(1L).build());
+        }
+        BulkWriteReport report = writer.complete();
+
+        assertThat(report.getFailed(), is(150L));
+        assertThat(this.batches.size(), is(1));
+        assertThat(this.batches.get(0).getFailures().size(), is(100));
+        assertThat(this.batches.get(0).getFailures().get(0), is(new RowFailure(0, null, "Empty entry.")));
+        assertThat(this.batches.get(0).getFailures().get(1),
+                is(new RowFailure(1, null, "Missing unique identifier.")));
+    }
+
+    @Test
+    public void testPublishBeforeConvertEvent() {
+        BulkWriter<ArticleEntity, ArticleView> writer = writer(10);
+        writer.accept(article(1L, 4L));
+        writer.complete();
+
+        assertThat(this.events.size(), is(1));
+        assertThat(this.events.get(0), instanceOf(BeforeConvertEvent.class));
+        BeforeConvertEvent<?> event = (BeforeConvertEvent<?>) this.events.get(0);
+        assertThat(((ArticleEntity) event.getSource()).getArticleId(), is(1L));
+        assertThat(event.getCollectionName(), is(this.mongoTemplate.getCollectionName(ArticleEntity.class)));
+    }
+
+    private BulkWriter<ArticleEntity, ArticleView> writer(int batchSize) {
+        return new BulkWriter<>(this.mongoTemplate, this.events::add, new ArticleConverter(), ArticleEntity.class,
+                batchSize, this.batches::add);
+    }
+
+    private static ArticleView article(Long articleId, Long amount) {
+        return ArticleView.builder().articleId(articleId).amount(amount).build();
+    }
+}
@@ -0,0 +1,39 @@
+package nl.ikea.warehouse.pipelines;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class CsvWriterTest {
+
+    @Test
+    public void testWriteRecords() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (CsvWriter<String> writer = new CsvWriter<>(outputStream, Arrays.asList("id", "name"),
+                value -> Arrays.asList(new Object[]{1, value}, new Object[]{2, null}))) {
+            writer.accept("leg");
+        }
+
+        assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8), is("id,name\r\n1,leg\r\n2,\r\n"));
+    }
+
+    @Test
+    public void testQuoteSpecialCharacters() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (CsvWriter<String> writer = new CsvWriter<>(outputStream, Collections.singletonList("name"),
+                value -> Collections.singletonList(new Object[]{value}))) {
+            writer.accept("Chair, \"Dining\"");
+            writer.accept("two\nlines");
+        }
+
+        assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8),
+                is("name\r\n\"Chair, \"\"Dining\"\"\"\r\n\"two\nlines\"\r\n"));
+    }
+}
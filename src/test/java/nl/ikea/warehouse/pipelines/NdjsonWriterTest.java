@@ -0,0 +1,42 @@
+package nl.ikea.warehouse.pipelines;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+public class NdjsonWriterTest {
+
+    @Test
+    public void testWriteOneValuePerLine() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (NdjsonWriter<Object> writer = new NdjsonWriter<>(new ObjectMapper(), outputStream)) {
+            writer.accept(Collections.singletonMap("art_id", 1));
+            writer.accept(Collections.singletonMap("art_id", 2));
+        }
+
+        assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8),
+                is("{\"art_id\":1}\n{\"art_id\":2}\n"));
+    }
+
+    @Test
+    public void testLeaveStreamOpenOnClose() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                throw new IllegalStateException("Closed by the writer.");
+            }
+        };
+
+        new NdjsonWriter<>(new ObjectMapper(), outputStream).close();
+
+        assertThat(outputStream.size(), is(0));
+    }
+}
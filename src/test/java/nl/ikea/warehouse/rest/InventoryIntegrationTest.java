@@ -0,0 +1,221 @@
+package nl.ikea.warehouse.rest;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import nl.ikea.warehouse.constants.ApplicationConstants;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.views.impl.InventoryView;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Inventory listing integration tests: keyset paging, lookups by identifier, NDJSON negotiation and exports.
+ * This test requires: * mongodb instance running on the environment
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+public class InventoryIntegrationTest extends DefaultIntegrationTest<InventoryView> {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RequestMappingHandlerAdapter requestMappingHandlerAdapter;
+
+    @Autowired
+    @Qualifier("streamExecutor")
+    private AsyncTaskExecutor streamExecutor;
+
+    public InventoryIntegrationTest() {
+        super("/inventories");
+    }
+
+    @Before
+    public void setUp() {
+        this.mongoTemplate.dropCollection(ArticleEntity.class);
+        for (long articleId = 1; articleId <= 5; articleId++) {
+            this.mongoTemplate.insert(new ArticleEntity(articleId, "article" + articleId, articleId * 10));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(ArticleEntity.class);
+    }
+
+    @Test
+    public void testLinkNextPageOfMiddlePage() {
+        ResponseEntity<List<InventoryView>> response = page("?after=1&limit=2");
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getBody().size(), is(2));
+        assertThat(response.getBody().get(0).getArticleId(), is(2L));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.LINK),
+                is("<" + url("?after=3&limit=2") + ">; rel=\"next\""));
+    }
+
+    @Test
+    public void testNoLinkOnLastPage() {
+        ResponseEntity<List<InventoryView>> response = page("?after=3&limit=5");
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getBody().size(), is(2));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.LINK), nullValue());
+    }
+
+    @Test
+    public void testRejectOutOfBoundsPaging() {
+        assertThat(exchange("?limit=0", MediaType.APPLICATION_JSON).getStatusCode(),
+                is(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(exchange("?limit=" + (ApplicationConstants.MAX_PAGE_SIZE + 1), MediaType.APPLICATION_JSON)
+                .getStatusCode(), is(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(exchange("?after=-1", MediaType.APPLICATION_JSON).getStatusCode(),
+                is(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+
+    @Test
+    public void testGetArticlesByIdInRequestOrder() {
+        ResponseEntity<JsonNode> response = this.restTemplate.exchange(URI.create(url("?ids=4,9,1")),
+                HttpMethod.GET, null, JsonNode.class);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getBody().path("items").findValuesAsText("art_id"), is(Arrays.asList("4", "1")));
+        assertThat(response.getBody().path("missing").toString(), is("[9]"));
+    }
+
+    @Test
+    public void testLookupArticlesInRequestOrder() {
+        ResponseEntity<JsonNode> response = lookup(Arrays.asList(5L, 7L, 2L, 5L));
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getBody().path("items").findValuesAsText("art_id"), is(Arrays.asList("5", "2")));
+        assertThat(response.getBody().path("missing").toString(), is("[7]"));
+    }
+
+    @Test
+    public void testRejectOutOfBoundsLookups() {
+        List<Long> ids = LongStream.rangeClosed(1, ApplicationConstants.MAX_PAGE_SIZE + 1).boxed()
+                .collect(Collectors.toList());
+        URI tooMany = URI.create(url("?ids=" + StringUtils.collectionToCommaDelimitedString(ids)));
+        assertThat(this.restTemplate.exchange(tooMany, HttpMethod.GET, null, JsonNode.class).getStatusCode(),
+                is(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(lookup(ids).getStatusCode(), is(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(lookup(Collections.emptyList()).getStatusCode(), is(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+
+    @Test
+    public void testStreamNdjsonWhenAccepted() {
+        ResponseEntity<String> response = exchange("?after=2&limit=2", ApplicationConstants.APPLICATION_NDJSON);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(ApplicationConstants.APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType()),
+                is(true));
+        String[] lines = response.getBody().split("\n");
+        assertThat(lines.length, is(2));
+        assertThat(lines[0], containsString("\"art_id\":3,"));
+        assertThat(lines[1], containsString("\"art_id\":4,"));
+    }
+
+    @Test
+    public void testExportCsvOnStreamExecutor() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "identity");
+        ResponseEntity<byte[]> response = this.restTemplate.exchange(URI.create(url("/export?format=csv")),
+                HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), nullValue());
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION),
+                containsString("filename=\"inventory.csv\""));
+        String[] lines = new String(response.getBody(), StandardCharsets.UTF_8).split("\r?\n");
+        assertThat(lines.length, is(6));
+        assertThat(lines[0], is("art_id,name,stock,reserved,available"));
+        assertThat(lines[1], startsWith("1,article1,10,"));
+        // Streams are written on the bounded executor, with room for long exports.
+        assertThat(ReflectionTestUtils.getField(this.requestMappingHandlerAdapter, "taskExecutor"),
+                is((Object) this.streamExecutor));
+        assertThat(ReflectionTestUtils.getField(this.requestMappingHandlerAdapter, "asyncRequestTimeout"),
+                is((Object) 3600000L));
+    }
+
+    @Test
+    public void testExportGzipWhenAccepted() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> response = this.restTemplate.exchange(URI.create(url("/export?format=ndjson")),
+                HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), is("gzip"));
+        assertThat(response.getHeaders().getFirst(HttpHeaders.VARY), is(HttpHeaders.ACCEPT_ENCODING));
+        String[] lines;
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            lines = new String(StreamUtils.copyToByteArray(inputStream), StandardCharsets.UTF_8).split("\n");
+        }
+        assertThat(lines.length, is(5));
+        assertThat(lines[0], containsString("\"art_id\":1,"));
+        assertThat(lines[4], containsString("\"art_id\":5,"));
+    }
+
+    private ResponseEntity<List<InventoryView>> page(String query) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        return this.restTemplate.exchange(URI.create(url(query)), HttpMethod.GET, new HttpEntity<>(headers),
+                new ParameterizedTypeReference<List<InventoryView>>() {
+                });
+    }
+
+    private ResponseEntity<JsonNode> lookup(List<Long> ids) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return this.restTemplate.exchange(URI.create(url("/lookup")), HttpMethod.POST, new HttpEntity<>(ids, headers),
+                JsonNode.class);
+    }
+
+    private ResponseEntity<String> exchange(String query, MediaType accept) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(accept));
+        return this.restTemplate.exchange(URI.create(url(query)), HttpMethod.GET, new HttpEntity<>(headers),
+                String.class);
+    }
+
+    private String url(String query) {
+        return BASE_URL + this.localPort + this.endpointUrl + query;
+    }
+}
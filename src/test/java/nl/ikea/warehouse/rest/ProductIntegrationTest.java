@@ -1,16 +1,33 @@
 package nl.ikea.warehouse.rest;
 
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
 
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import nl.ikea.warehouse.constants.ApplicationConstants;
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.jobs.JobStatus;
+import nl.ikea.warehouse.views.impl.JobView;
 import nl.ikea.warehouse.views.impl.ProductView;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -19,22 +36,39 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.util.StringUtils;
 
 /**
  * Integration tests definition.
+ * This test requires: * mongodb instance running on the environment
  */
 @RunWith(SpringRunner.class)
-@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+        properties = "warehouse.products.purge.async-threshold=3")
 @ActiveProfiles(value = "test")
 @Rollback
 public class ProductIntegrationTest extends DefaultIntegrationTest<ProductView> {
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     public ProductIntegrationTest() {
         super("/products");
     }
 
     @Before
     public void setUp() {
+        this.mongoTemplate.dropCollection(ProductEntity.class);
+        for (long productId = 1; productId <= 3; productId++) {
+            ProductEntity productEntity = new ProductEntity("product" + productId);
+            productEntity.setProductId(productId);
+            this.mongoTemplate.insert(productEntity);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(ProductEntity.class);
     }
 
     @Test
@@ -46,6 +80,73 @@ public class ProductIntegrationTest extends DefaultIntegrationTest<ProductView>
         assertNotNull(response.getBody());
     }
 
+    @Test
+    public void testGetProductsByIdInRequestOrder() {
+        ResponseEntity<JsonNode> response = this.restTemplate.exchange(
+                URI.create(BASE_URL + this.localPort + this.endpointUrl + "?ids=3,8,1"),
+                HttpMethod.GET, null, JsonNode.class);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getBody().path("items").findValuesAsText("productId"), is(Arrays.asList("3", "1")));
+        assertThat(response.getBody().path("missing").toString(), is("[8]"));
+    }
+
+    @Test
+    public void testLookupProductsInRequestOrder() {
+        ResponseEntity<JsonNode> response = lookup(Arrays.asList(2L, 3L, 9L, 2L));
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getBody().path("items").findValuesAsText("productId"), is(Arrays.asList("2", "3")));
+        assertThat(response.getBody().path("missing").toString(), is("[9]"));
+    }
+
+    @Test
+    public void testRejectOutOfBoundsLookups() {
+        List<Long> ids = LongStream.rangeClosed(1, ApplicationConstants.MAX_PAGE_SIZE + 1).boxed()
+                .collect(Collectors.toList());
+        URI tooMany = URI.create(BASE_URL + this.localPort + this.endpointUrl
+                + "?ids=" + StringUtils.collectionToCommaDelimitedString(ids));
+        assertThat(this.restTemplate.exchange(tooMany, HttpMethod.GET, null, JsonNode.class).getStatusCode(),
+                is(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(lookup(ids).getStatusCode(), is(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(lookup(Collections.emptyList()).getStatusCode(), is(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+
+    @Test
+    public void testScrapeServiceTimers() {
+        collectionTypeHttpCall(HttpStatus.OK, new ParameterizedTypeReference<List<ProductView>>() {
+        });
+
+        ResponseEntity<String> response =
+                this.restTemplate.getForEntity(BASE_URL + this.localPort + "/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(response.getBody(), containsString("# TYPE warehouse_service_seconds"));
+    }
+
+    @Test
+    public void testAcceptPurgeOfLargeCatalog() throws InterruptedException {
+        for (long productId = 4; productId <= 5; productId++) {
+            ProductEntity productEntity = new ProductEntity("product" + productId);
+            productEntity.setProductId(productId);
+            this.mongoTemplate.insert(productEntity);
+        }
+
+        ResponseEntity<JobView> response = this.restTemplate.exchange(
+                URI.create(BASE_URL + this.localPort + this.endpointUrl), HttpMethod.DELETE, null, JobView.class);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.ACCEPTED));
+        URI location = response.getHeaders().getLocation();
+        assertThat(location.getPath(), is("/jobs/" + response.getBody().getJobId()));
+        JobView jobView = this.restTemplate.getForObject(location, JobView.class);
+        for (int attempt = 0; attempt < 100 && jobView.getStatus() != JobStatus.COMPLETED; attempt++) {
+            Thread.sleep(50);
+            jobView = this.restTemplate.getForObject(location, JobView.class);
+        }
+        assertThat(jobView.getStatus(), is(JobStatus.COMPLETED));
+        assertThat(jobView.getRowsWritten(), is(5L));
+    }
+
     @Test
     public void testDeleteProducts() {
         HttpHeaders headers = new HttpHeaders();
@@ -57,4 +158,11 @@ public class ProductIntegrationTest extends DefaultIntegrationTest<ProductView>
                 new ParameterizedTypeReference<List<ProductView>>() {
                 });
     }
+
+    private ResponseEntity<JsonNode> lookup(List<Long> ids) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return this.restTemplate.exchange(URI.create(BASE_URL + this.localPort + this.endpointUrl + "/lookup"),
+                HttpMethod.POST, new HttpEntity<>(ids, headers), JsonNode.class);
+    }
 }
@@ -0,0 +1,204 @@
+package nl.ikea.warehouse.rest;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+import nl.ikea.warehouse.caches.CatalogVersion;
+import nl.ikea.warehouse.caches.InventoryVersion;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.events.InventoryChangedEvent;
+import nl.ikea.warehouse.jobs.JobStatus;
+import nl.ikea.warehouse.services.IJobService;
+import nl.ikea.warehouse.views.impl.JobView;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload job integration tests, with a single job thread, a single queue slot and batches of two rows.
+ * This test requires: * mongodb instance running on the environment
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "warehouse.jobs.pool-size=1",
+        "warehouse.jobs.queue-capacity=1",
+        "warehouse.upload.batch-size=2"})
+@Import(UploadIntegrationTest.InventoryChangeRecorder.class)
+public class UploadIntegrationTest extends DefaultIntegrationTest<JobView> {
+
+    private static final String INVENTORY = "[{\"art_id\":\"1\",\"name\":\"leg\",\"stock\":\"12\"},"
+            + "{\"art_id\":\"2\",\"name\":\"screw\",\"stock\":\"17\"}]";
+
+    @Autowired
+    private IJobService iJobService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private InventoryVersion inventoryVersion;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private InventoryChangeRecorder inventoryChangeRecorder;
+
+    public UploadIntegrationTest() {
+        super("/inventories/upload");
+    }
+
+    @After
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(ArticleEntity.class);
+    }
+
+    @Test
+    public void testUploadCompletes() throws InterruptedException {
+        ResponseEntity<JobView> response = upload(INVENTORY);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.ACCEPTED));
+        assertThat(response.getHeaders().getLocation(), notNullValue());
+        JobView jobView = poll(response.getHeaders().getLocation());
+        assertThat(jobView.getStatus(), is(JobStatus.COMPLETED));
+        assertThat(jobView.getRowsWritten(), is(2L));
+        assertThat(this.mongoTemplate.findById(1L, ArticleEntity.class).getAmount(), is(12L));
+    }
+
+    @Test
+    public void testInventoryUploadLeavesCatalogUnchanged() throws InterruptedException {
+        long catalog = this.catalogVersion.get();
+        long inventory = this.inventoryVersion.get();
+
+        assertThat(poll(upload(INVENTORY).getHeaders().getLocation()).getStatus(), is(JobStatus.COMPLETED));
+
+        assertThat(this.catalogVersion.get(), is(catalog));
+        assertThat(this.inventoryVersion.get() > inventory, is(true));
+    }
+
+    @Test
+    public void testInventoryVersionMovesPerWrittenBatch() throws InterruptedException {
+        this.inventoryChangeRecorder.clear();
+
+        assertThat(poll(upload("[{\"art_id\":\"1\",\"name\":\"leg\",\"stock\":\"12\"},"
+                + "{\"art_id\":\"2\",\"name\":\"screw\",\"stock\":\"17\"},"
+                + "{\"art_id\":\"3\",\"name\":\"seat\",\"stock\":\"2\"},"
+                + "{\"art_id\":\"4\",\"name\":\"table top\",\"stock\":\"1\"},"
+                + "{\"art_id\":\"5\",\"name\":\"nail\",\"stock\":\"40\"}]")
+                .getHeaders().getLocation()).getStatus(), is(JobStatus.COMPLETED));
+
+        // Once per committed batch, while the upload goes on, and once more as it ends.
+        assertThat(this.inventoryChangeRecorder.getArticles(), is(Arrays.asList(2L, 4L, 5L, 5L)));
+    }
+
+    @Test
+    public void testMalformedUploadFails() throws InterruptedException {
+        ResponseEntity<JobView> response = upload("[{\"art_id\":\"1\",");
+
+        assertThat(response.getStatusCode(), is(HttpStatus.ACCEPTED));
+        JobView jobView = poll(response.getHeaders().getLocation());
+        assertThat(jobView.getStatus(), is(JobStatus.FAILED));
+        assertThat(jobView.getMessage(), is("Invalid or malformed JSON document."));
+    }
+
+    @Test
+    public void testRejectUploadWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            this.iJobService.submit("blocking", 0, job -> {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await(10, TimeUnit.SECONDS);
+            assertThat(upload(INVENTORY).getStatusCode(), is(HttpStatus.ACCEPTED));
+
+            ResponseEntity<String> rejected = this.restTemplate.postForEntity(
+                    URI.create(BASE_URL + this.localPort + this.endpointUrl), multipart(INVENTORY), String.class);
+            assertThat(rejected.getStatusCode(), is(HttpStatus.SERVICE_UNAVAILABLE));
+            assertThat(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER), is("1"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private ResponseEntity<JobView> upload(String content) {
+        return this.restTemplate.postForEntity(
+                URI.create(BASE_URL + this.localPort + this.endpointUrl), multipart(content), JobView.class);
+    }
+
+    private JobView poll(URI location) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        JobView jobView = this.restTemplate.getForObject(location, JobView.class);
+        while (jobView.getStatus() != JobStatus.COMPLETED && jobView.getStatus() != JobStatus.FAILED
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            jobView = this.restTemplate.getForObject(location, JobView.class);
+        }
+        return jobView;
+    }
+
+    /**
+     * Records the number of persisted articles whenever the inventory is reported as changed.
+     */
+    @TestComponent
+    static class InventoryChangeRecorder {
+
+        private final List<Long> articles = new CopyOnWriteArrayList<>();
+
+        @Autowired
+        private MongoTemplate mongoTemplate;
+
+        @EventListener
+        public void onInventoryChanged(InventoryChangedEvent event) {
+            this.articles.add(this.mongoTemplate.count(new Query(), ArticleEntity.class));
+        }
+
+        List<Long> getArticles() {
+            return this.articles;
+        }
+
+        void clear() {
+            this.articles.clear();
+        }
+    }
+
+    private static MultiValueMap<String, Object> multipart(String content) {
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return "inventory.json";
+            }
+        });
+        return body;
+    }
+}
@@ -0,0 +1,111 @@
+package nl.ikea.warehouse.services;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import nl.ikea.warehouse.exceptions.ServiceUnavailableException;
+import nl.ikea.warehouse.jobs.JobStatus;
+import nl.ikea.warehouse.services.impl.JobService;
+import nl.ikea.warehouse.views.impl.JobView;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class JobServiceTest {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private JobService jobService;
+
+    @Before
+    public void setUp() {
+        this.executor.setCorePoolSize(1);
+        this.executor.setMaxPoolSize(1);
+        this.executor.setQueueCapacity(1);
+        this.executor.initialize();
+        this.jobService = new JobService(this.executor, 60);
+    }
+
+    @After
+    public void tearDown() {
+        this.release.countDown();
+        this.executor.shutdown();
+    }
+
+    @Test
+    public void testCompleteJob() throws InterruptedException {
+        JobView queued = this.jobService.submit("test", 10, job -> job.rows(10, 0));
+
+        JobView finished = await(queued.getJobId());
+        assertThat(finished.getStatus(), is(JobStatus.COMPLETED));
+        assertThat(finished.getRowsWritten(), is(10L));
+    }
+
+    @Test
+    public void testFailJobOnRuntimeException() throws InterruptedException {
+        JobView queued = this.jobService.submit("test", 0, job -> {
+            throw new IllegalStateException("Broken document.");
+        });
+
+        JobView finished = await(queued.getJobId());
+        assertThat(finished.getStatus(), is(JobStatus.FAILED));
+        assertThat(finished.getMessage(), is("Broken document."));
+    }
+
+    @Test
+    public void testFailJobOnError() throws InterruptedException {
+        JobView queued = this.jobService.submit("test", 0, job -> {
+            throw new OutOfMemoryError("Java heap space");
+        });
+
+        JobView finished = await(queued.getJobId());
+        assertThat(finished.getStatus(), is(JobStatus.FAILED));
+        assertThat(finished.getMessage(), is("java.lang.OutOfMemoryError: Java heap space"));
+    }
+
+    @Test
+    public void testRejectWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        this.jobService.submit("running", 0, job -> {
+            started.countDown();
+            awaitRelease();
+        });
+        started.await(10, TimeUnit.SECONDS);
+        JobView queued = this.jobService.submit("queued", 0, job -> {
+        });
+
+        try {
+            this.jobService.submit("rejected", 0, job -> {
+            });
+            fail("Expected ServiceUnavailableException.");
+        } catch (ServiceUnavailableException e) {
+            assertThat(this.jobService.getJob(queued.getJobId()).get().getStatus(), is(JobStatus.QUEUED));
+        }
+        this.release.countDown();
+        assertThat(await(queued.getJobId()).getStatus(), is(JobStatus.COMPLETED));
+    }
+
+    private void awaitRelease() {
+        try {
+            this.release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private JobView await(String jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        JobView jobView = this.jobService.getJob(jobId).orElseThrow(IllegalStateException::new);
+        while (jobView.getStatus() != JobStatus.COMPLETED && jobView.getStatus() != JobStatus.FAILED
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            jobView = this.jobService.getJob(jobId).orElseThrow(IllegalStateException::new);
+        }
+        return jobView;
+    }
+}
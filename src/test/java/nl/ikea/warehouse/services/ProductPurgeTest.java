@@ -0,0 +1,88 @@
+package nl.ikea.warehouse.services;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.jobs.JobStatus;
+import nl.ikea.warehouse.views.impl.JobView;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Optional;
+
+/**
+ * This test requires: * mongodb instance running on the environment
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "warehouse.products.purge.async-threshold=3",
+        "warehouse.products.purge.batch-size=2"})
+public class ProductPurgeTest {
+
+    @Autowired
+    private IProductService iProductService;
+    @Autowired
+    private IJobService iJobService;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @After
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(ProductEntity.class);
+    }
+
+    @Test
+    public void testDeleteSmallCatalog() {
+        save(3);
+
+        assertThat(this.iProductService.deleteAll(false).isPresent(), is(false));
+        assertThat(this.mongoTemplate.count(new Query(), ProductEntity.class), is(0L));
+    }
+
+    @Test
+    public void testPurgeLargeCatalogInBatches() throws InterruptedException {
+        save(5);
+
+        Optional<JobView> purge = this.iProductService.deleteAll(false);
+
+        assertThat(purge.isPresent(), is(true));
+        JobView jobView = purge.get();
+        for (int attempt = 0; attempt < 100 && !finished(jobView); attempt++) {
+            Thread.sleep(50);
+            jobView = this.iJobService.getJob(jobView.getJobId()).orElseThrow(IllegalStateException::new);
+        }
+        assertThat(jobView.getStatus(), is(JobStatus.COMPLETED));
+        assertThat(jobView.getRowsWritten(), is(5L));
+        assertThat(this.mongoTemplate.count(new Query(), ProductEntity.class), is(0L));
+    }
+
+    @Test
+    public void testResetRebuildsIndexes() {
+        save(5);
+
+        assertThat(this.iProductService.deleteAll(true).isPresent(), is(false));
+        assertThat(this.mongoTemplate.count(new Query(), ProductEntity.class), is(0L));
+        // The unique identifier index plus the indexes declared by the entity.
+        assertThat(this.mongoTemplate.indexOps(ProductEntity.class).getIndexInfo().size() > 1, is(true));
+    }
+
+    private void save(int products) {
+        for (long productId = 1; productId <= products; productId++) {
+            ProductEntity productEntity = new ProductEntity();
+            productEntity.setProductId(productId);
+            productEntity.setName("P" + productId);
+            this.mongoTemplate.save(productEntity);
+        }
+    }
+
+    private static boolean finished(JobView jobView) {
+        return jobView.getStatus() == JobStatus.COMPLETED || jobView.getStatus() == JobStatus.FAILED;
+    }
+}
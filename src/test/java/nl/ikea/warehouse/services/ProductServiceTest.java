@@ -3,13 +3,23 @@ package nl.ikea.warehouse.services;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
+import nl.ikea.warehouse.entities.ArticleAmountEntity;
 import nl.ikea.warehouse.entities.ArticleEntity;
 import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.events.InventoryChangedEvent;
 import nl.ikea.warehouse.repositories.ProductRepository;
+import nl.ikea.warehouse.utils.KeysetPage;
+import nl.ikea.warehouse.utils.SingleFlight;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import nl.ikea.warehouse.views.impl.ProductView;
 import org.junit.Test;
@@ -18,6 +28,10 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.context.junit4.SpringRunner;
 
 /**
@@ -33,6 +47,15 @@ public class ProductServiceTest {
     @Autowired
     private IProductService iProductService;
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    private IAvailabilityService iAvailabilityService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Test
     public void testGetProducts() {
         ArticleEntity articleEntity = new ArticleEntity();
@@ -51,4 +74,108 @@ public class ProductServiceTest {
         assertEquals(productEntity.getName(), products.get(0).getName());
         assertEquals(productEntity.getArticles().size(), products.get(0).getArticles().size());
     }
+
+    @Test
+    public void testPageAvailableProductsAlongKeysetCursor() {
+        this.mongoTemplate.insert(new ArticleEntity(1L, "leg", 10L));
+        this.mongoTemplate.insert(new ArticleEntity(2L, "seat", 0L));
+        for (long productId = 1; productId <= 8; productId++) {
+            ProductEntity productEntity = new ProductEntity((productId % 3 == 0 ? "Table" : "Chair") + productId);
+            productEntity.setProductId(productId);
+            // Even products are built from the seat, which is out of stock.
+            productEntity.setBillOfMaterials(
+                    Collections.singletonList(new ArticleAmountEntity(productId % 2 == 0 ? 2L : 1L, 1L)));
+            this.mongoTemplate.insert(productEntity);
+        }
+        this.iAvailabilityService.refresh();
+        try {
+            // Available: 1, 3, 5, 7; of which named Chair: 1, 5, 7.
+            assertEquals(Arrays.asList(1L, 5L),
+                    productIds(this.iProductService.getProducts("name:Chair,available:0", null, 2)));
+            assertEquals(Arrays.asList(7L),
+                    productIds(this.iProductService.getProducts("name:Chair,available:0", 5L, 2)));
+            assertEquals(Arrays.asList(3L, 5L),
+                    productIds(this.iProductService.getProducts("available:0", 1L, 2)));
+        } finally {
+            this.mongoTemplate.dropCollection(ArticleEntity.class);
+            this.mongoTemplate.dropCollection(ProductEntity.class);
+            this.iAvailabilityService.invalidate();
+        }
+    }
+
+    @Test
+    public void testPageSparseMatchesWithinBoundedWindows() {
+        this.mongoTemplate.insert(new ArticleEntity(1L, "leg", 10L));
+        List<ProductEntity> productEntities = new ArrayList<>();
+        for (long productId = 1; productId <= 600; productId++) {
+            ProductEntity productEntity = new ProductEntity(productId == 600 ? "Chair" : "Table");
+            productEntity.setProductId(productId);
+            productEntity.setBillOfMaterials(Collections.singletonList(new ArticleAmountEntity(1L, 1L)));
+            productEntities.add(productEntity);
+        }
+        this.mongoTemplate.insert(productEntities, ProductEntity.class);
+        this.iAvailabilityService.refresh();
+        try {
+            // Every product is available, the only Chair lies past the windows scanned for the first page.
+            KeysetPage<ProductView> first = this.iProductService.getProducts("name:Chair,available:0", null, 2);
+            assertEquals(Collections.emptyList(), productIds(first));
+            assertEquals(Long.valueOf(510L), first.getNext());
+
+            KeysetPage<ProductView> second =
+                    this.iProductService.getProducts("name:Chair,available:0", first.getNext(), 2);
+            assertEquals(Arrays.asList(600L), productIds(second));
+            assertNull(second.getNext());
+        } finally {
+            this.mongoTemplate.dropCollection(ArticleEntity.class);
+            this.mongoTemplate.dropCollection(ProductEntity.class);
+            this.iAvailabilityService.invalidate();
+        }
+    }
+
+    @Test
+    public void testInventoryChangeForgetsStockDependentPageReads() throws InterruptedException {
+        SingleFlight<List<Object>, KeysetPage<ProductEntity>> pageReads = pageReads("pageReads");
+        SingleFlight<List<Object>, KeysetPage<ProductEntity>> stockPageReads = pageReads("stockPageReads");
+        CountDownLatch release = new CountDownLatch(1);
+        Thread catalogRead = inFlight(pageReads, release);
+        Thread stockRead = inFlight(stockPageReads, release);
+        try {
+            while (pageReads.size() == 0 || stockPageReads.size() == 0) {
+                Thread.sleep(5);
+            }
+
+            this.applicationEventPublisher.publishEvent(new InventoryChangedEvent(this));
+
+            assertEquals(1, pageReads.size());
+            assertEquals(0, stockPageReads.size());
+        } finally {
+            release.countDown();
+            catalogRead.join();
+            stockRead.join();
+        }
+    }
+
+    private static List<Long> productIds(KeysetPage<ProductView> products) {
+        return products.getItems().stream().map(ProductView::getProductId).collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private SingleFlight<List<Object>, KeysetPage<ProductEntity>> pageReads(String field) {
+        return (SingleFlight<List<Object>, KeysetPage<ProductEntity>>) ReflectionTestUtils.getField(
+                (Object) AopTestUtils.getTargetObject(this.iProductService), field);
+    }
+
+    private static Thread inFlight(
+            SingleFlight<List<Object>, KeysetPage<ProductEntity>> reads, CountDownLatch release) {
+        Thread thread = new Thread(() -> reads.execute(Arrays.asList("available:1", null, 10), () -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new KeysetPage<>(Collections.emptyList(), null);
+        }));
+        thread.start();
+        return thread;
+    }
 }
@@ -0,0 +1,265 @@
+package nl.ikea.warehouse.services;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import nl.ikea.warehouse.entities.ArticleAmountEntity;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.entities.ReservationEntity;
+import nl.ikea.warehouse.entities.ReservationStatus;
+import nl.ikea.warehouse.exceptions.ConflictException;
+import nl.ikea.warehouse.views.impl.ArticleView;
+import nl.ikea.warehouse.views.impl.ReservationView;
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Reservation ledger tests, with the scheduled sweep pushed out of the way.
+ * This test requires: * mongodb instance running on the environment
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "warehouse.reservations.sweep-interval-ms=3600000")
+public class ReservationServiceTest {
+
+    @Autowired
+    private IReservationService iReservationService;
+    @Autowired
+    private IAvailabilityService iAvailabilityService;
+    @SpyBean
+    private IArticleService iArticleService;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Before
+    public void setUp() {
+        this.mongoTemplate.insert(new ArticleEntity(1L, "leg", 10L));
+        this.mongoTemplate.insert(new ArticleEntity(2L, "screw", 20L));
+        ProductEntity productEntity = new ProductEntity("chair");
+        productEntity.setProductId(10L);
+        productEntity.setBillOfMaterials(
+                Arrays.asList(new ArticleAmountEntity(1L, 4L), new ArticleAmountEntity(2L, 8L)));
+        this.mongoTemplate.insert(productEntity);
+        this.iAvailabilityService.refresh();
+    }
+
+    @After
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(ArticleEntity.class);
+        this.mongoTemplate.dropCollection(ProductEntity.class);
+        this.mongoTemplate.dropCollection(ReservationEntity.class);
+        this.iAvailabilityService.invalidate();
+    }
+
+    @Test
+    public void testReserveHoldsStock() {
+        ReservationView reservation = reserve(2L);
+
+        assertThat(reservation.getStatus(), is(ReservationStatus.ACTIVE));
+        assertThat(reserved(1L), is(8L));
+        assertThat(reserved(2L), is(16L));
+        assertThat(this.iAvailabilityService.getAvailability(10L).get().getAvailable(), is(0L));
+    }
+
+    @Test
+    public void testRejectedReserveHoldsNothing() {
+        try {
+            reserve(3L);
+            fail("Expected ConflictException.");
+        } catch (ConflictException e) {
+            assertThat(reserved(1L), is(0L));
+            assertThat(reserved(2L), is(0L));
+            ReservationEntity reservationEntity = this.mongoTemplate.findOne(new Query(), ReservationEntity.class);
+            assertThat(reservationEntity.getStatus(), is(ReservationStatus.RELEASED));
+        }
+    }
+
+    @Test
+    public void testConfirmConsumesStock() {
+        ReservationView reservation = reserve(1L);
+
+        ReservationView confirmed = this.iReservationService.confirm(reservation.getReservationId());
+
+        assertThat(confirmed.getStatus(), is(ReservationStatus.CONFIRMED));
+        ArticleEntity leg = this.mongoTemplate.findById(1L, ArticleEntity.class);
+        assertThat(leg.getAmount(), is(6L));
+        assertThat(leg.getReserved(), is(0L));
+        assertThat(this.iAvailabilityService.getAvailability(10L).get().getAvailable(), is(1L));
+    }
+
+    @Test
+    public void testCancelReleasesStockOnce() {
+        ReservationView reservation = reserve(1L);
+
+        ReservationView released = this.iReservationService.release(reservation.getReservationId());
+        try {
+            this.iReservationService.release(reservation.getReservationId());
+            fail("Expected ConflictException.");
+        } catch (ConflictException e) {
+            assertThat(e.getMessage(), is("Reservation is RELEASED."));
+        }
+
+        assertThat(released.getStatus(), is(ReservationStatus.RELEASED));
+        assertThat(reserved(1L), is(0L));
+        assertThat(this.mongoTemplate.findById(1L, ArticleEntity.class).getAmount(), is(10L));
+    }
+
+    @Test
+    public void testExpireReleasesStock() {
+        ReservationView reservation = reserve(1L);
+        ReservationView kept = reserve(1L);
+        backdate(reservation.getReservationId());
+
+        assertThat(this.iReservationService.expire(), is(1));
+
+        assertThat(status(reservation.getReservationId()), is(ReservationStatus.EXPIRED));
+        assertThat(status(kept.getReservationId()), is(ReservationStatus.ACTIVE));
+        assertThat(reserved(1L), is(4L));
+        assertThat(reserved(2L), is(8L));
+        assertThat(this.iAvailabilityService.getAvailability(10L).get().getAvailable(), is(1L));
+        try {
+            this.iReservationService.confirm(reservation.getReservationId());
+            fail("Expected ConflictException.");
+        } catch (ConflictException e) {
+            assertThat(e.getMessage(), is("Reservation is EXPIRED."));
+        }
+    }
+
+    @Test
+    public void testExpirePendingReservationWithoutReleasingStock() {
+        // Left behind by a request dying between recording the entry and holding its stock.
+        ReservationEntity pending = new ReservationEntity();
+        pending.setReservationId("pending");
+        pending.setProductId(10L);
+        pending.setQuantity(1L);
+        pending.setArticles(Collections.singletonList(new ArticleAmountEntity(1L, 4L)));
+        pending.setStatus(ReservationStatus.PENDING);
+        pending.setCreatedAt(Instant.now().minusSeconds(120));
+        pending.setExpiresAt(Instant.now().minusSeconds(60));
+        this.mongoTemplate.insert(pending);
+
+        assertThat(this.iReservationService.expire(), is(1));
+
+        assertThat(status("pending"), is(ReservationStatus.EXPIRED));
+        assertThat(reserved(1L), is(0L));
+        assertThat(this.iAvailabilityService.getAvailability(10L).get().getAvailable(), is(2L));
+    }
+
+    @Test
+    public void testReserveReturnsStockWhenExpiredBeforeHolding() {
+        sweepBeforeHolding();
+        try {
+            reserve(1L);
+            fail("Expected ConflictException.");
+        } catch (ConflictException e) {
+            assertThat(e.getMessage(), is("Reservation is EXPIRED."));
+        }
+
+        assertThat(reserved(1L), is(0L));
+        assertThat(reserved(2L), is(0L));
+        assertThat(this.iAvailabilityService.getAvailability(10L).get().getAvailable(), is(2L));
+    }
+
+    @Test
+    public void testRejectedReserveExpiredBeforeHoldingHoldsNothing() {
+        sweepBeforeHolding();
+        try {
+            reserve(3L);
+            fail("Expected ConflictException.");
+        } catch (ConflictException e) {
+            assertThat(e.getMessage(), is("Insufficient stock of article 1."));
+        }
+
+        assertThat(reserved(1L), is(0L));
+        assertThat(reserved(2L), is(0L));
+        assertThat(this.iAvailabilityService.getAvailability(10L).get().getAvailable(), is(2L));
+    }
+
+    /**
+     * Run the expiry sweep, over every reservation, just before the next request holds its stock.
+     */
+    private void sweepBeforeHolding() {
+        Mockito.doAnswer(invocation -> {
+            this.mongoTemplate.updateMulti(new Query(),
+                    new Update().set("expiresAt", Instant.now().minusSeconds(1)), ReservationEntity.class);
+            assertThat(this.iReservationService.expire(), is(1));
+            // Nothing is held yet, so nothing may have been returned.
+            assertThat(reserved(1L), is(0L));
+            return invocation.callRealMethod();
+        }).when(this.iArticleService).reserve(Mockito.anyMap());
+    }
+
+    @Test
+    public void testArticleSaveKeepsReservedStock() {
+        reserve(1L);
+        long version = stockVersion(1L);
+
+        this.iArticleService.save(ArticleView.builder().articleId(1L).amount(12L).build());
+        this.iArticleService.save(10L, ArticleView.builder().articleId(2L).amount(24L).build());
+
+        ArticleEntity leg = this.mongoTemplate.findById(1L, ArticleEntity.class);
+        assertThat(leg.getAmount(), is(12L));
+        assertThat(leg.getReserved(), is(4L));
+        assertThat(leg.getName(), is("leg"));
+        assertThat(stockVersion(1L), is(version + 1));
+        ArticleEntity screw = this.mongoTemplate.findById(2L, ArticleEntity.class);
+        assertThat(screw.getReserved(), is(8L));
+        assertThat(screw.getProductId(), is(10L));
+        // (12 - 4) / 4 legs and (24 - 8) / 8 screws.
+        assertThat(this.iAvailabilityService.getAvailability(10L).get().getAvailable(), is(2L));
+    }
+
+    @Test
+    public void testReserveChangedProductBeforeIndexRebuild() {
+        ProductEntity productEntity = this.mongoTemplate.findById(10L, ProductEntity.class);
+        productEntity.setBillOfMaterials(Collections.singletonList(new ArticleAmountEntity(2L, 5L)));
+        this.mongoTemplate.save(productEntity);
+        this.iAvailabilityService.invalidate();
+
+        ReservationView reservation = reserve(2L);
+
+        assertThat(reservation.getStatus(), is(ReservationStatus.ACTIVE));
+        assertThat(reserved(1L), is(0L));
+        assertThat(reserved(2L), is(10L));
+    }
+
+    private ReservationView reserve(Long quantity) {
+        return this.iReservationService.reserve(ReservationView.builder().productId(10L).quantity(quantity).build());
+    }
+
+    private void backdate(String reservationId) {
+        this.mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(reservationId)),
+                new Update().set("expiresAt", Instant.now().minusSeconds(1)), ReservationEntity.class);
+    }
+
+    private ReservationStatus status(String reservationId) {
+        return this.mongoTemplate.findById(reservationId, ReservationEntity.class).getStatus();
+    }
+
+    private long stockVersion(Long articleId) {
+        return ((Number) this.mongoTemplate.findById(articleId, Document.class,
+                this.mongoTemplate.getCollectionName(ArticleEntity.class)).get("stockVersion")).longValue();
+    }
+
+    private Long reserved(Long articleId) {
+        Long reserved = this.mongoTemplate.findById(articleId, ArticleEntity.class).getReserved();
+        return reserved == null ? 0L : reserved;
+    }
+}
@@ -0,0 +1,169 @@
+package nl.ikea.warehouse.services;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import nl.ikea.warehouse.entities.ArticleAmountEntity;
+import nl.ikea.warehouse.entities.ArticleEntity;
+import nl.ikea.warehouse.entities.ProductEntity;
+import nl.ikea.warehouse.exceptions.ConflictException;
+import nl.ikea.warehouse.views.impl.ArticleView;
+import nl.ikea.warehouse.views.impl.AvailabilityView;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stock change tests, concurrent ones and ones racing the availability model rebuild.
+ * This test requires: * mongodb instance running on the environment
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "logging.level.nl.ikea.warehouse=WARN")
+public class StockConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int SELLS_PER_THREAD = 25;
+
+    @Autowired
+    private IProductService iProductService;
+    @Autowired
+    private IAvailabilityService iAvailabilityService;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Before
+    public void setUp() {
+        this.mongoTemplate.dropCollection(ArticleEntity.class);
+        this.mongoTemplate.dropCollection(ProductEntity.class);
+    }
+
+    @After
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(ArticleEntity.class);
+        this.mongoTemplate.dropCollection(ProductEntity.class);
+        this.iAvailabilityService.invalidate();
+    }
+
+    @Test
+    public void testIndexMatchesStoredStockAfterConcurrentSells() throws Exception {
+        this.mongoTemplate.insert(new ArticleEntity(1L, "leg", 10000L));
+        product(10L, 1L, 1L);
+        this.iAvailabilityService.refresh();
+        assertThat(this.iAvailabilityService.getAvailability(10L).get().getAvailable(), is(10000L));
+
+        run(() -> this.iProductService.sell(10L, 1L));
+
+        long stored = this.mongoTemplate.findById(1L, ArticleEntity.class).getAmount();
+        assertThat(stored, is(10000L - THREADS * SELLS_PER_THREAD));
+        assertThat(this.iAvailabilityService.getAvailability(10L).get().getAvailable(), is(stored));
+    }
+
+    @Test
+    public void testConcurrentSellsNeverOversell() throws Exception {
+        ArticleEntity scarce = new ArticleEntity(1L, "leg", 100L);
+        scarce.setReserved(20L);
+        this.mongoTemplate.insert(scarce);
+        this.mongoTemplate.insert(new ArticleEntity(2L, "screw", 1000L));
+        product(10L, 1L, 1L, 2L, 1L);
+        this.iAvailabilityService.refresh();
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        run(() -> {
+            try {
+                this.iProductService.sell(10L, 1L);
+                sold.incrementAndGet();
+            } catch (ConflictException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(sold.get(), is(80));
+        assertThat(rejected.get(), is(THREADS * SELLS_PER_THREAD - 80));
+        ArticleEntity leg = this.mongoTemplate.findById(1L, ArticleEntity.class);
+        assertThat(leg.getAmount() - leg.getReserved(), is(0L));
+        // Rejected sells withdrew the screws first and must have put them back.
+        assertThat(this.mongoTemplate.findById(2L, ArticleEntity.class).getAmount(), is(920L));
+        assertThat(this.iAvailabilityService.getAvailability(10L).get().getAvailable(), is(0L));
+    }
+
+    @Test
+    public void testSellCreatedProductBeforeIndexRebuild() {
+        this.mongoTemplate.insert(new ArticleEntity(1L, "leg", 100L));
+        this.iAvailabilityService.refresh();
+
+        this.iProductService.save(productView(10L, 1L));
+        AvailabilityView availability = this.iProductService.sell(10L, 1L).get();
+
+        assertThat(availability.getName(), is("product10"));
+        assertThat(availability.getAvailable(), is(24L));
+        assertThat(this.mongoTemplate.findById(1L, ArticleEntity.class).getAmount(), is(96L));
+    }
+
+    @Test
+    public void testSellChangedProductBeforeIndexRebuild() {
+        this.mongoTemplate.insert(new ArticleEntity(1L, "leg", 100L));
+        this.mongoTemplate.insert(new ArticleEntity(2L, "screw", 100L));
+        product(10L, 1L, 4L);
+        this.iAvailabilityService.refresh();
+
+        this.iProductService.save(productView(10L, 2L));
+        AvailabilityView availability = this.iProductService.sell(10L, 1L).get();
+
+        assertThat(availability.getAvailable(), is(24L));
+        assertThat(this.mongoTemplate.findById(1L, ArticleEntity.class).getAmount(), is(100L));
+        assertThat(this.mongoTemplate.findById(2L, ArticleEntity.class).getAmount(), is(96L));
+    }
+
+    private static ProductView productView(Long productId, Long articleId) {
+        return ProductView.builder()
+                .productId(productId)
+                .name("product" + productId)
+                .articles(Collections.singletonList(ArticleView.builder().articleId(articleId).amount(4L).build()))
+                .build();
+    }
+
+    private void product(Long productId, Long... articleAmounts) {
+        List<ArticleAmountEntity> billOfMaterials = new ArrayList<>();
+        for (int entry = 0; entry < articleAmounts.length; entry += 2) {
+            billOfMaterials.add(new ArticleAmountEntity(articleAmounts[entry], articleAmounts[entry + 1]));
+        }
+        ProductEntity productEntity = new ProductEntity("product" + productId);
+        productEntity.setProductId(productId);
+        productEntity.setBillOfMaterials(billOfMaterials);
+        this.mongoTemplate.insert(productEntity);
+    }
+
+    private static void run(Runnable sell) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int sells = 0; sells < SELLS_PER_THREAD; sells++) {
+                        sell.run();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
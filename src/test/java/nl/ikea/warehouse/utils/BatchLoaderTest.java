@@ -0,0 +1,56 @@
+package nl.ikea.warehouse.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batch loader test definition
+ */
+public class BatchLoaderTest {
+
+    private List<Set<Long>> batches;
+    private BatchLoader<Long, String> batchLoader;
+
+    @Before
+    public void setUp() {
+        this.batches = new ArrayList<>();
+        this.batchLoader = new BatchLoader<>(keys -> {
+            this.batches.add(keys);
+            Map<Long, String> values = new HashMap<>();
+            // Odd keys only, even ones are absent.
+            keys.stream().filter(key -> key % 2 == 1).forEach(key -> values.put(key, "value " + key));
+            return values;
+        });
+    }
+
+    @Test
+    public void testQueuedKeysResolvedInOneBatch() {
+        this.batchLoader.queue(Arrays.asList(1L, 2L, 3L, 1L));
+        assertEquals("value 1", this.batchLoader.get(1L));
+        assertEquals("value 3", this.batchLoader.get(3L));
+        assertNull(this.batchLoader.get(2L));
+        assertEquals(1, this.batchLoader.getDispatches());
+        assertEquals(3, this.batches.get(0).size());
+    }
+
+    @Test
+    public void testResolvedKeysNotResolvedAgain() {
+        this.batchLoader.get(1L);
+        this.batchLoader.get(2L);
+        this.batchLoader.queue(Arrays.asList(1L, 2L, 5L)).dispatch();
+        this.batchLoader.get(2L);
+        assertEquals(3, this.batchLoader.getDispatches());
+        assertEquals(1, this.batches.get(2).size());
+        assertEquals("value 5", this.batchLoader.get(5L));
+    }
+}
@@ -0,0 +1,34 @@
+package nl.ikea.warehouse.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Conditional request utilities test definition
+ */
+public class ConditionalRequestUtilsTest {
+
+    private static final String ETAG = ConditionalRequestUtils.etag("a1-7");
+
+    @Test
+    public void testStrongEntityTag() {
+        assertEquals("\"a1-7\"", ETAG);
+    }
+
+    @Test
+    public void testNotModified() {
+        assertTrue(ConditionalRequestUtils.notModified("\"a1-7\"", ETAG));
+        assertTrue(ConditionalRequestUtils.notModified("\"a1-6\", W/\"a1-7\"", ETAG));
+        assertTrue(ConditionalRequestUtils.notModified("*", ETAG));
+    }
+
+    @Test
+    public void testModified() {
+        assertFalse(ConditionalRequestUtils.notModified(null, ETAG));
+        assertFalse(ConditionalRequestUtils.notModified("\"a1-6\"", ETAG));
+        assertFalse(ConditionalRequestUtils.notModified("a1-7", ETAG));
+    }
+}
@@ -0,0 +1,35 @@
+package nl.ikea.warehouse.utils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class ExportUtilsTest {
+
+    @Test
+    public void testAcceptGzip() {
+        assertThat(ExportUtils.acceptsGzip("gzip"), is(true));
+        assertThat(ExportUtils.acceptsGzip("deflate, GZIP;q=0.5"), is(true));
+        assertThat(ExportUtils.acceptsGzip("x-gzip"), is(true));
+        assertThat(ExportUtils.acceptsGzip("br;q=1.0, *;q=0.1"), is(true));
+    }
+
+    @Test
+    public void testRejectGzipWithZeroQuality() {
+        assertThat(ExportUtils.acceptsGzip("gzip;q=0"), is(false));
+        assertThat(ExportUtils.acceptsGzip("gzip; q=0.000, deflate"), is(false));
+        // An explicit gzip entry takes precedence over the wildcard.
+        assertThat(ExportUtils.acceptsGzip("*, gzip;q=0"), is(false));
+        assertThat(ExportUtils.acceptsGzip("*;q=0"), is(false));
+    }
+
+    @Test
+    public void testRejectMissingOrOtherCodings() {
+        assertThat(ExportUtils.acceptsGzip(null), is(false));
+        assertThat(ExportUtils.acceptsGzip(""), is(false));
+        assertThat(ExportUtils.acceptsGzip("identity, deflate"), is(false));
+        assertThat(ExportUtils.acceptsGzip("gzipx"), is(false));
+        assertThat(ExportUtils.acceptsGzip("gzip;q=abc"), is(false));
+    }
+}
@@ -0,0 +1,52 @@
+package nl.ikea.warehouse.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import nl.ikea.warehouse.exceptions.BadRequestException;
+import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.ProductView;
+import org.junit.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * File read utility test definition
+ */
+public class FileReadUtilsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void givenInventoryArray_whenStreaming_thenElementsAreConsumedInOrder() {
+        MockMultipartFile file = new MockMultipartFile("file",
+                ("[{\"art_id\": \"1\", \"name\": \"leg\", \"stock\": \"12\"},"
+                        + "{\"art_id\": \"2\", \"name\": \"screw\", \"stock\": \"17\"}]").getBytes());
+        List<InventoryView> consumed = new ArrayList<>();
+        long count = FileReadUtils.stream(this.objectMapper, file, InventoryView.class, consumed::add);
+        assertEquals(2, count);
+        assertEquals(Long.valueOf(1L), consumed.get(0).getArticleId());
+        assertEquals("screw", consumed.get(1).getName());
+        assertEquals(Long.valueOf(17L), consumed.get(1).getStock());
+    }
+
+    @Test
+    public void givenProductArray_whenStreaming_thenNestedArticlesAreBound() {
+        MockMultipartFile file = new MockMultipartFile("file",
+                ("[{\"productId\": \"1\", \"name\": \"Dining Chair\", \"contain_articles\": ["
+                        + "{\"art_id\": \"1\", \"amount_of\": \"4\"}, {\"art_id\": \"2\", \"amount_of\": \"8\"}]}]").getBytes());
+        List<ProductView> consumed = new ArrayList<>();
+        long count = FileReadUtils.stream(this.objectMapper, file, ProductView.class, consumed::add);
+        assertEquals(1, count);
+        assertEquals(2, consumed.get(0).getArticles().size());
+        assertEquals(Long.valueOf(8L), consumed.get(0).getArticles().get(1).getAmount());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void givenNonArrayDocument_whenStreaming_thenBadRequestIsThrown() {
+        MockMultipartFile file = new MockMultipartFile("file", "{\"art_id\": \"1\"}".getBytes());
+        FileReadUtils.stream(this.objectMapper, file, InventoryView.class, view -> {
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package nl.ikea.warehouse.utils;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class KeysetPaginationUtilsTest {
+
+    @Before
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/inventories");
+        request.setQueryString("after=20&limit=10&name=leg");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @After
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void testQueryFirstPage() {
+        Query query = KeysetPaginationUtils.query(null, null);
+
+        assertThat(query.getQueryObject().isEmpty(), is(true));
+        assertThat(query.getLimit(), is(0));
+        assertThat(query.getSortObject(), is(new Document("_id", 1)));
+    }
+
+    @Test
+    public void testQueryEntriesAfterIdentifier() {
+        Query query = KeysetPaginationUtils.query(20L, 10);
+
+        assertThat(query.getQueryObject(), is(new Document("_id", new Document("$gt", 20L))));
+        assertThat(query.getLimit(), is(10));
+        assertThat(query.getSortObject(), is(new Document("_id", 1)));
+    }
+
+    @Test
+    public void testLinkNextPageOfMiddlePage() {
+        HttpHeaders headers = KeysetPaginationUtils.nextPageHeaders(30L, 10, 10);
+
+        assertThat(headers.getFirst(HttpHeaders.LINK),
+                is("<http://localhost/inventories?name=leg&after=30&limit=10>; rel=\"next\""));
+    }
+
+    @Test
+    public void testNoLinkOnLastPage() {
+        assertThat(KeysetPaginationUtils.nextPageHeaders(25L, 5, 10).getFirst(HttpHeaders.LINK), nullValue());
+        assertThat(KeysetPaginationUtils.nextPageHeaders(null, 0, 10).getFirst(HttpHeaders.LINK), nullValue());
+    }
+}
@@ -0,0 +1,45 @@
+package nl.ikea.warehouse.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Primitive map test definition
+ */
+public class LongLongHashMapTest {
+
+    @Test
+    public void givenManyEntries_whenResizing_thenAllMappingsAreKept() {
+        LongLongHashMap map = new LongLongHashMap();
+        for (long key = 0; key < 10000; key++) {
+            map.put(key * 31, key);
+        }
+        assertEquals(10000, map.size());
+        for (long key = 0; key < 10000; key++) {
+            assertEquals(key, map.get(key * 31, -1));
+        }
+        assertEquals(-1, map.get(1, -1));
+    }
+
+    @Test
+    public void givenRemovedEntries_whenLookingUp_thenRemainingMappingsAreReachable() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        for (long key = 0; key < 1000; key++) {
+            map.put(key, key);
+        }
+        for (long key = 0; key < 1000; key += 2) {
+            map.remove(key);
+        }
+        assertEquals(500, map.size());
+        for (long key = 0; key < 1000; key++) {
+            assertEquals(key % 2 == 0 ? -1 : key, map.get(key, -1));
+        }
+        assertFalse(map.containsKey(0));
+        assertTrue(map.containsKey(1));
+        assertEquals(11, map.addTo(1, 10));
+        assertEquals(5, map.addTo(2000, 5));
+    }
+}
@@ -0,0 +1,122 @@
+package nl.ikea.warehouse.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Single flight test definition
+ */
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+    private final AtomicInteger computations = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallersShareComputation() throws Exception {
+        Object value = new Object();
+        List<Future<Object>> results = callConcurrently(() -> value);
+        for (Future<Object> result : results) {
+            assertSame(value, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, this.computations.get());
+        assertEquals(0, this.singleFlight.size());
+    }
+
+    @Test
+    public void testCompletedComputationIsNotShared() {
+        this.singleFlight.execute("key", () -> this.computations.incrementAndGet());
+        this.singleFlight.execute("key", () -> this.computations.incrementAndGet());
+        assertEquals(2, this.computations.get());
+    }
+
+    @Test
+    public void testFailureIsSharedAndReleasesKey() throws Exception {
+        List<Future<Object>> results = callConcurrently(() -> {
+            throw new IllegalStateException("failed");
+        });
+        for (Future<Object> result : results) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                fail("Failure expected.");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+        assertEquals(1, this.computations.get());
+        assertEquals("recomputed", this.singleFlight.execute("key", () -> "recomputed"));
+    }
+
+    @Test
+    public void testForgetAllStartsNewComputation() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Object> leader = this.executor.submit(() -> this.singleFlight.execute("key", () -> {
+            started.countDown();
+            await(this.release);
+            return "outdated";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        this.singleFlight.forgetAll();
+        assertEquals("fresh", this.singleFlight.execute("key", () -> "fresh"));
+        this.release.countDown();
+        assertEquals("outdated", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Start callers of the same key, the first computation blocking until all of them joined.
+     */
+    private List<Future<Object>> callConcurrently(Supplier<Object> supplier)
+            throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        List<Future<Object>> results = new ArrayList<>();
+        results.add(this.executor.submit(() -> this.singleFlight.execute("key", () -> {
+            this.computations.incrementAndGet();
+            started.countDown();
+            await(this.release);
+            return supplier.get();
+        })));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int caller = 1; caller < CALLERS; caller++) {
+            results.add(this.executor.submit(() -> this.singleFlight.execute("key", () -> {
+                this.computations.incrementAndGet();
+                return supplier.get();
+            })));
+        }
+        // Followers can not be observed waiting, give them time to join before releasing.
+        Thread.sleep(200);
+        this.release.countDown();
+        return results;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package nl.ikea.warehouse.views;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import nl.ikea.warehouse.views.impl.InventoryView;
+import nl.ikea.warehouse.views.impl.MultiGetView;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+public class MultiGetViewTest {
+
+    @Test
+    public void testRequestOrderAndMissing() {
+        MultiGetView<InventoryView> view = MultiGetView.of(
+                Arrays.asList(3L, 1L, 4L, 1L, 2L),
+                Arrays.asList(article(1L), article(2L), article(3L)),
+                InventoryView::getArticleId);
+
+        assertThat(view.getItems().stream().map(InventoryView::getArticleId).collect(Collectors.toList()),
+                is(Arrays.asList(3L, 1L, 2L)));
+        assertThat(view.getMissing(), is(Collections.singletonList(4L)));
+    }
+
+    @Test
+    public void testNothingFound() {
+        MultiGetView<InventoryView> view = MultiGetView.of(
+                Arrays.asList(5L, 6L), Collections.emptyList(), InventoryView::getArticleId);
+
+        assertThat(view.getItems().isEmpty(), is(true));
+        assertThat(view.getMissing(), is(Arrays.asList(5L, 6L)));
+    }
+
+    private static InventoryView article(Long articleId) {
+        return InventoryView.builder().articleId(articleId).name("art" + articleId).stock(1L).build();
+    }
+}